@@ -0,0 +1,35 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dirkheijnen.mediator.benchmarks;
+
+import com.dirkheijnen.mediator.interfaces.INotificationHandler;
+
+/**
+ *  The {@link INotificationHandler} for the {@link BenchmarkNotification}.
+ *  The same class is registered under several bean names to control the number of handlers per notification.
+ *
+ *  @author Dirk Heijnen
+ *  @since 1.1
+ */
+public class BenchmarkNotificationHandler implements INotificationHandler<BenchmarkNotification> {
+
+    @Override
+    public void handle(BenchmarkNotification notification) {
+        // Intentionally empty, only the fan-out of the mediator is measured.
+    }
+
+}
@@ -0,0 +1,29 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dirkheijnen.mediator.benchmarks;
+
+import com.dirkheijnen.mediator.interfaces.IRequest;
+
+/**
+ *  Base class of the generated {@link IRequest} types used by the benchmarks.
+ *  Every registered handler needs its own request type, so {@link MediatorFixtures} subclasses this class at runtime.
+ *
+ *  @author Dirk Heijnen
+ *  @since 1.1
+ */
+public class BenchmarkRequest implements IRequest<Integer> {
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dirkheijnen.mediator.benchmarks;
+
+import com.dirkheijnen.mediator.implementation.Mediator;
+import com.dirkheijnen.mediator.interfaces.IMediator;
+import com.dirkheijnen.mediator.interfaces.IRequestInvoker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.support.GenericApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *  Compares {@link IMediator#send(com.dirkheijnen.mediator.interfaces.IRequest)} with the {@link IRequestInvoker} of
+ *  the same request type. Before the measurement every generated request type is sent a number of times, so the call
+ *  sites of the mediator see as many handler types as in an application with that many handlers.
+ *
+ *  @author Dirk Heijnen
+ *  @since 1.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class InvokerBenchmark {
+
+    private static final int PROFILE_ROUNDS = 20_000;
+
+    @Param({"1", "10", "1000"})
+    public int handlerCount;
+
+    private GenericApplicationContext applicationContext;
+    private IMediator mediator;
+    private BenchmarkRequest request;
+    private IRequestInvoker<BenchmarkRequest, Integer> invoker;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setUp(){
+        List<BenchmarkRequest> requests = new ArrayList<>();
+        applicationContext = MediatorFixtures.requestHandlerContext(handlerCount, requests);
+        mediator = new Mediator(applicationContext);
+
+        for(int i = 0; i < PROFILE_ROUNDS; i++){
+            mediator.send(requests.get(i % requests.size()));
+        }
+
+        request = requests.get(0);
+        invoker = mediator.getRequestInvoker((Class<BenchmarkRequest>) request.getClass());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown(){
+        applicationContext.close();
+    }
+
+    @Benchmark
+    public Integer send(){
+        return mediator.send(request);
+    }
+
+    @Benchmark
+    public Integer invoke(){
+        return invoker.invoke(request);
+    }
+
+}
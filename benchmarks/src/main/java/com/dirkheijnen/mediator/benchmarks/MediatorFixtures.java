@@ -0,0 +1,135 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dirkheijnen.mediator.benchmarks;
+
+import com.dirkheijnen.mediator.implementation.Mediator;
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.ClassFileVersion;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.dynamic.DynamicType;
+import net.bytebuddy.dynamic.loading.ClassInjector;
+import net.bytebuddy.dynamic.loading.ClassLoadingStrategy;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+
+import java.lang.invoke.MethodHandles;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ *  Builds the {@link Mediator} instances used by the benchmarks.
+ *  The mediator resolves its handlers from the spring context, so the fixtures register generated handler beans in a
+ *  {@link GenericApplicationContext} before the mediator is created.
+ *
+ *  The generated classes are defined in the class loader of the benchmarks, like the classes of an application, so
+ *  the mediator can generate direct invokers for them.
+ *
+ *  @author Dirk Heijnen
+ *  @since 1.1
+ */
+public final class MediatorFixtures {
+
+    private static final ByteBuddy BYTE_BUDDY = new ByteBuddy(ClassFileVersion.JAVA_V8);
+
+    private MediatorFixtures(){
+    }
+
+    /**
+     * Generates the given amount of {@link BenchmarkRequest} types and registers a handler for each of them.
+     *
+     * @param handlerCount The amount of request types and handlers to generate.
+     * @param requests The list to which one instance of every generated request type is added.
+     * @return The spring context containing the generated handlers.
+     */
+    public static GenericApplicationContext requestHandlerContext(int handlerCount, List<BenchmarkRequest> requests){
+        GenericApplicationContext applicationContext = new GenericApplicationContext();
+
+        for(int i = 0; i < handlerCount; i++){
+            DynamicType.Unloaded<BenchmarkRequest> requestType = BYTE_BUDDY
+                    .subclass(BenchmarkRequest.class)
+                    .name(BenchmarkRequest.class.getName() + "$" + i)
+                    .make();
+
+            TypeDescription.Generic handlerSuperType = TypeDescription.Generic.Builder
+                    .parameterizedType(TypeDescription.ForLoadedType.of(BenchmarkRequestHandler.class), requestType.getTypeDescription())
+                    .build();
+
+            DynamicType.Unloaded<?> handlerType = BYTE_BUDDY
+                    .subclass(handlerSuperType)
+                    .name(BenchmarkRequestHandler.class.getName() + "$" + i)
+                    .make();
+
+            DynamicType.Loaded<BenchmarkRequest> loaded = requestType
+                    .include(handlerType)
+                    .load(MediatorFixtures.class.getClassLoader(), classLoadingStrategy());
+
+            Class<?> handlerClass = loaded.getLoadedAuxiliaryTypes().get(handlerType.getTypeDescription());
+            applicationContext.registerBean("requestHandler" + i, handlerClass);
+            requests.add(newInstance(loaded.getLoaded()));
+        }
+
+        applicationContext.refresh();
+        return applicationContext;
+    }
+
+    /**
+     * Registers the given amount of {@link BenchmarkNotificationHandler} beans for the {@link BenchmarkNotification}.
+     *
+     * @param handlerCount The amount of handlers to register.
+     * @return The spring context containing the handlers.
+     */
+    public static GenericApplicationContext notificationHandlerContext(int handlerCount){
+        return notificationHandlerContext(handlerCount, Collections.emptyMap());
+    }
+
+    /**
+     * Registers the given amount of {@link BenchmarkNotificationHandler} beans for the {@link BenchmarkNotification}
+     * in a spring context with the given mediator properties.
+     *
+     * @param handlerCount The amount of handlers to register.
+     * @param properties The properties of the mediator.
+     * @return The spring context containing the handlers.
+     */
+    public static GenericApplicationContext notificationHandlerContext(int handlerCount, Map<String, Object> properties){
+        GenericApplicationContext applicationContext = new GenericApplicationContext();
+        applicationContext.getEnvironment().getPropertySources().addFirst(new MapPropertySource("benchmark", properties));
+
+        for(int i = 0; i < handlerCount; i++){
+            applicationContext.registerBean("notificationHandler" + i, BenchmarkNotificationHandler.class);
+        }
+
+        applicationContext.refresh();
+        return applicationContext;
+    }
+
+    private static ClassLoadingStrategy<ClassLoader> classLoadingStrategy(){
+        if(ClassInjector.UsingLookup.isAvailable()){
+            return ClassLoadingStrategy.UsingLookup.of(MethodHandles.lookup());
+        }
+        return ClassLoadingStrategy.Default.INJECTION;
+    }
+
+    private static <T> T newInstance(Class<T> type){
+        try {
+            return type.getConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Could not instantiate " + type.getName(), e);
+        }
+    }
+
+}
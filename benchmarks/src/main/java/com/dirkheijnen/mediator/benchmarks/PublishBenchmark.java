@@ -0,0 +1,108 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dirkheijnen.mediator.benchmarks;
+
+import com.dirkheijnen.mediator.exceptions.HandlerNotFoundException;
+import com.dirkheijnen.mediator.implementation.Mediator;
+import com.dirkheijnen.mediator.implementation.WaitStrategy;
+import com.dirkheijnen.mediator.interfaces.IMediator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.support.GenericApplicationContext;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *  Benchmarks {@link IMediator#publish(com.dirkheijnen.mediator.interfaces.INotification)}.
+ *  With zero handlers the benchmark measures the miss path, which currently throws a {@link HandlerNotFoundException}.
+ *  The publisher parameter selects the sequential publisher on the calling thread, or the ring buffer publisher which
+ *  hands the notifications to its consumer thread.
+ *
+ *  @author Dirk Heijnen
+ *  @since 1.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class PublishBenchmark {
+
+    @Param({"0", "1", "16"})
+    public int handlersPerType;
+
+    @Param({"sequential", "ring-buffer"})
+    public String publisher;
+
+    private GenericApplicationContext applicationContext;
+    private Mediator mediator;
+    private final BenchmarkNotification notification = new BenchmarkNotification();
+
+    @Setup(Level.Trial)
+    public void setUp(){
+        Map<String, Object> properties = new HashMap<>();
+        if(publisher.equals("ring-buffer")){
+            properties.put(Mediator.RING_BUFFER_SIZE_PROPERTY, 1 << 16);
+            properties.put(Mediator.RING_BUFFER_WAIT_STRATEGY_PROPERTY, WaitStrategy.YIELD.name());
+        }
+        applicationContext = MediatorFixtures.notificationHandlerContext(handlersPerType, properties);
+        mediator = new Mediator(applicationContext);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown(){
+        mediator.close();
+        applicationContext.close();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Object publish(){
+        return publishNotification();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Object publishContended(){
+        return publishNotification();
+    }
+
+    private Object publishNotification(){
+        try {
+            mediator.publish(notification);
+            return notification;
+        } catch (HandlerNotFoundException e) {
+            return e;
+        }
+    }
+
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dirkheijnen.mediator.benchmarks;
+
+import com.dirkheijnen.mediator.implementation.Mediator;
+import com.dirkheijnen.mediator.implementation.MediatorBuilder;
+import com.dirkheijnen.mediator.implementation.ReactiveMediator;
+import com.dirkheijnen.mediator.interfaces.IReactiveRequest;
+import com.dirkheijnen.mediator.interfaces.IReactiveRequestHandler;
+import com.dirkheijnen.mediator.interfaces.IRequest;
+import com.dirkheijnen.mediator.interfaces.IRequestHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ *  Compares a blocking handler wrapped in a {@link Mono} which subscribes on a bounded elastic scheduler, the usual
+ *  way to call the {@link Mediator} from a reactive application, with an {@link IReactiveRequestHandler} dispatched
+ *  by the {@link ReactiveMediator} on the subscribing thread.
+ *
+ *  @author Dirk Heijnen
+ *  @since 1.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ReactiveBenchmark {
+
+    private Mediator mediator;
+    private ReactiveMediator reactiveMediator;
+    private final BlockingRequest blockingRequest = new BlockingRequest();
+    private final ReactiveRequest reactiveRequest = new ReactiveRequest();
+
+    @Setup(Level.Trial)
+    public void setUp(){
+        mediator = new MediatorBuilder()
+                .requestHandler(new BlockingRequestHandler())
+                .requestHandler(new ReactiveRequestHandler())
+                .build();
+        reactiveMediator = new ReactiveMediator(mediator);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown(){
+        mediator.close();
+    }
+
+    @Benchmark
+    public Integer boundedElastic(){
+        return Mono.fromCallable(() -> mediator.send(blockingRequest)).subscribeOn(Schedulers.boundedElastic()).block();
+    }
+
+    @Benchmark
+    public Integer reactive(){
+        return reactiveMediator.send(reactiveRequest).block();
+    }
+
+    /**
+     *  The request of the {@link BlockingRequestHandler}.
+     */
+    public static class BlockingRequest implements IRequest<Integer> {
+    }
+
+    /**
+     *  A blocking handler which does no work of its own.
+     */
+    public static class BlockingRequestHandler implements IRequestHandler<BlockingRequest, Integer> {
+
+        private static final Integer RESPONSE = 42;
+
+        @Override
+        public Integer handle(BlockingRequest request){
+            return RESPONSE;
+        }
+    }
+
+    /**
+     *  The request of the {@link ReactiveRequestHandler}.
+     */
+    public static class ReactiveRequest implements IReactiveRequest<Integer> {
+    }
+
+    /**
+     *  A reactive handler which does no work of its own.
+     */
+    public static class ReactiveRequestHandler implements IReactiveRequestHandler<ReactiveRequest, Integer> {
+
+        private static final Mono<Integer> RESPONSE = Mono.just(42);
+
+        @Override
+        public Publisher<Integer> handle(ReactiveRequest request){
+            return RESPONSE;
+        }
+    }
+
+}
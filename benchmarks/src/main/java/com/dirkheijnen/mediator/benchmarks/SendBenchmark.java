@@ -0,0 +1,127 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dirkheijnen.mediator.benchmarks;
+
+import com.dirkheijnen.mediator.exceptions.HandlerNotFoundException;
+import com.dirkheijnen.mediator.implementation.Mediator;
+import com.dirkheijnen.mediator.interfaces.IMediator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.support.GenericApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *  Benchmarks {@link IMediator#send(com.dirkheijnen.mediator.interfaces.IRequest)}.
+ *  Every invocation sends the next request of the generated request types, so the dispatch table sees as many
+ *  distinct request types as there are registered handlers.
+ *
+ *  @author Dirk Heijnen
+ *  @since 1.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class SendBenchmark {
+
+    @Param({"1", "10", "1000"})
+    public int handlerCount;
+
+    private GenericApplicationContext applicationContext;
+    private IMediator mediator;
+    private BenchmarkRequest[] requests;
+    private final MissingRequest missingRequest = new MissingRequest();
+
+    @Setup(Level.Trial)
+    public void setUp(){
+        List<BenchmarkRequest> generatedRequests = new ArrayList<>();
+        applicationContext = MediatorFixtures.requestHandlerContext(handlerCount, generatedRequests);
+        mediator = new Mediator(applicationContext);
+        requests = generatedRequests.toArray(new BenchmarkRequest[0]);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown(){
+        applicationContext.close();
+    }
+
+    /**
+     * The cursor into the generated requests, kept per thread so the threads do not contend on it.
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+
+        private int next;
+
+        int next(int bound){
+            int current = next;
+            next = current + 1 == bound ? 0 : current + 1;
+            return current;
+        }
+
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Integer send(Cursor cursor){
+        return mediator.send(requests[cursor.next(requests.length)]);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Integer sendContended(Cursor cursor){
+        return mediator.send(requests[cursor.next(requests.length)]);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Object sendMiss(){
+        try {
+            return mediator.send(missingRequest);
+        } catch (HandlerNotFoundException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Object sendMissContended(){
+        try {
+            return mediator.send(missingRequest);
+        } catch (HandlerNotFoundException e) {
+            return e;
+        }
+    }
+
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dirkheijnen.mediator.annotations;
+
+import com.dirkheijnen.mediator.interfaces.IRequest;
+import com.dirkheijnen.mediator.interfaces.IRequestHandler;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *  Limits the number of requests which an {@link IRequestHandler} handles at the same time, so a slow downstream
+ *  behind one handler cannot take every thread of the application. The annotation is placed on the
+ *  {@link IRequestHandler}, or on the {@link IRequest} type.
+ *
+ *  A request which arrives at the limit waits in a bounded queue, and fails with a
+ *  {@link com.dirkheijnen.mediator.exceptions.BulkheadRejectedException} when the queue is full or its wait is over.
+ *  In adaptive mode the limit moves between {@link #minConcurrent()} and {@link #maxConcurrent()}: it grows by one
+ *  while the latency stays near the lowest latency seen, and shrinks by a tenth when the latency rises above it.
+ *
+ *  A bulkhead cannot apply to an {@link com.dirkheijnen.mediator.interfaces.IStreamRequest} type, whose stream is
+ *  consumed after its handler returns, nor to an {@link com.dirkheijnen.mediator.interfaces.IReactiveRequest} type,
+ *  whose publisher is handled without blocking after its handler returns.
+ *
+ *  @author Dirk Heijnen
+ *  @since 1.1
+ */
+@Documented
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Bulkhead {
+
+    /**
+     * The maximum amount of requests which are handled at the same time.
+     *
+     * @return The concurrency limit, or the upper bound of the limit in adaptive mode.
+     */
+    int maxConcurrent();
+
+    /**
+     * The maximum amount of requests which wait for the limit, zero means requests at the limit are rejected at once.
+     *
+     * @return The capacity of the wait queue.
+     */
+    int maxWaiting() default 0;
+
+    /**
+     * The time which a request waits for the limit before it is rejected, zero or less means it is rejected at once.
+     *
+     * @return The maximum wait, in the {@link #unit()}.
+     */
+    long maxWait() default 0;
+
+    /**
+     * The unit of the {@link #maxWait()}.
+     *
+     * @return The {@link TimeUnit} of the maximum wait.
+     */
+    TimeUnit unit() default TimeUnit.MILLISECONDS;
+
+    /**
+     * Whether the limit is tuned from the observed latency of the handler.
+     *
+     * @return True to adapt the limit.
+     */
+    boolean adaptive() default false;
+
+    /**
+     * The lower bound of the limit in adaptive mode.
+     *
+     * @return The minimum concurrency limit.
+     */
+    int minConcurrent() default 1;
+
+}
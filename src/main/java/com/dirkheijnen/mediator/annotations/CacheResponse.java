@@ -0,0 +1,93 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dirkheijnen.mediator.annotations;
+
+import com.dirkheijnen.mediator.interfaces.INotification;
+import com.dirkheijnen.mediator.interfaces.IRequest;
+import com.dirkheijnen.mediator.interfaces.IRequestHandler;
+import com.dirkheijnen.mediator.interfaces.IResponseWeigher;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *  Caches the responses of an {@link IRequest} type in front of its {@link IRequestHandler}.
+ *
+ *  The request itself is the key of the cache, so the request type must implement {@link Object#equals(Object)} and
+ *  {@link Object#hashCode()}, and its {@link IRequestHandler} must be free of side effects. Null responses are not
+ *  cached. When the cache is full, the least recently used entries are evicted.
+ *
+ *  @author Dirk Heijnen
+ *  @since 1.1
+ */
+@Documented
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CacheResponse {
+
+    /**
+     * The maximum amount of cached responses.
+     *
+     * @return The maximum amount of entries.
+     */
+    int maxEntries() default 1000;
+
+    /**
+     * The time after which a cached response expires, zero or less means the responses never expire.
+     *
+     * @return The time to live, in the {@link #unit()}.
+     */
+    long ttl() default 0;
+
+    /**
+     * The unit of the {@link #ttl()}.
+     *
+     * @return The {@link TimeUnit} of the time to live.
+     */
+    TimeUnit unit() default TimeUnit.SECONDS;
+
+    /**
+     * The maximum total weight of the cached responses as calculated by the {@link #weigher()}, zero or less means
+     * the cache is only bounded by the {@link #maxEntries()}.
+     *
+     * @return The maximum weight.
+     */
+    long maxWeight() default 0;
+
+    /**
+     * The {@link IResponseWeigher} which calculates the weight of a cached response. It is taken from the spring
+     * context when a bean of the type exists, otherwise it is created with its no-argument constructor.
+     * The default value means every response has a weight of one.
+     *
+     * @return The {@link IResponseWeigher} type.
+     */
+    @SuppressWarnings("rawtypes")
+    Class<? extends IResponseWeigher> weigher() default IResponseWeigher.class;
+
+    /**
+     * The {@link INotification} types which remove all cached responses of the request type when they are published.
+     * Subtypes of the given types invalidate the cache as well.
+     *
+     * @return The invalidating {@link INotification} types.
+     */
+    Class<? extends INotification>[] invalidatedBy() default {};
+
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dirkheijnen.mediator.annotations;
+
+import com.dirkheijnen.mediator.interfaces.IMediator;
+import com.dirkheijnen.mediator.interfaces.INotificationHandler;
+import com.dirkheijnen.mediator.interfaces.IRequestHandler;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.concurrent.Executor;
+
+/**
+ *  Selects the {@link Executor} on which an {@link IRequestHandler} or {@link INotificationHandler} is invoked when
+ *  it is called through {@link IMediator#sendAsync} or {@link IMediator#publishAsync}.
+ *  Handlers without this annotation run on the default executor of the mediator.
+ *
+ *  @author Dirk Heijnen
+ *  @since 1.1
+ */
+@Documented
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface HandlerExecutor {
+
+    /**
+     * The name of the {@link Executor} bean on which the handler must be invoked.
+     *
+     * @return The bean name of the {@link Executor}.
+     */
+    String value();
+
+}
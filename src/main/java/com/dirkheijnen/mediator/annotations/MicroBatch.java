@@ -0,0 +1,66 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dirkheijnen.mediator.annotations;
+
+import com.dirkheijnen.mediator.interfaces.IBatchRequestHandler;
+import com.dirkheijnen.mediator.interfaces.IMediator;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *  Makes the mediator coalesce concurrent {@link IMediator#send} calls for the requests of an
+ *  {@link IBatchRequestHandler} into micro-batches, which are passed to {@link IBatchRequestHandler#handleAll}.
+ *
+ *  The first request of a batch waits until the batch holds {@link #maxSize()} requests or until {@link #maxWait()}
+ *  has passed, whichever comes first. Every caller still receives the response of its own request.
+ *  The handler of a reactive request type cannot be annotated, since its callers must not block while they wait.
+ *
+ *  @author Dirk Heijnen
+ *  @since 1.1
+ */
+@Documented
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface MicroBatch {
+
+    /**
+     * The maximum amount of requests in one batch.
+     *
+     * @return The maximum batch size.
+     */
+    int maxSize() default 100;
+
+    /**
+     * The maximum time the first request of a batch waits for other requests to join.
+     *
+     * @return The maximum wait time, in the {@link #unit()}.
+     */
+    long maxWait() default 2;
+
+    /**
+     * The unit of the {@link #maxWait()}.
+     *
+     * @return The {@link TimeUnit} of the maximum wait time.
+     */
+    TimeUnit unit() default TimeUnit.MILLISECONDS;
+
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dirkheijnen.mediator.annotations;
+
+import com.dirkheijnen.mediator.interfaces.IMediator;
+import com.dirkheijnen.mediator.interfaces.IRequest;
+import com.dirkheijnen.mediator.interfaces.IRequestHandler;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ *  Marks an idempotent {@link IRequest} type for which concurrent duplicate requests are collapsed.
+ *
+ *  While an {@link IRequestHandler} is handling a request, every {@link IMediator#send} of an equal request (based on
+ *  {@link Object#equals(Object)} and {@link Object#hashCode()}) waits for that invocation and receives its response or
+ *  exception instead of invoking the {@link IRequestHandler} again. The request type must implement equals and hashCode.
+ *  Stream and reactive request types cannot be marked, since a stream can only be consumed once and a reactive request
+ *  must not block while it waits.
+ *
+ *  @author Dirk Heijnen
+ *  @since 1.1
+ */
+@Documented
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SingleFlight {
+}
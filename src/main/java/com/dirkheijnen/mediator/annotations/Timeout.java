@@ -0,0 +1,63 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dirkheijnen.mediator.annotations;
+
+import com.dirkheijnen.mediator.interfaces.IRequest;
+import com.dirkheijnen.mediator.interfaces.IRequestHandler;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *  Bounds the time which an {@link IRequest} type may take, including its pipeline behaviors and the requests its
+ *  {@link IRequestHandler} sends in turn.
+ *
+ *  When the timeout expires, the thread of the {@link IRequestHandler} is interrupted so it can stop its work, and the
+ *  caller receives a {@link com.dirkheijnen.mediator.exceptions.RequestTimeoutException}. The timeout of a request
+ *  type can be overridden with the property mediator.timeout. followed by the name of the type, in milliseconds.
+ *
+ *  A timeout cannot apply to an {@link com.dirkheijnen.mediator.interfaces.IStreamRequest} type, whose stream is
+ *  consumed after its handler returns, nor to an {@link com.dirkheijnen.mediator.interfaces.IReactiveRequest} type,
+ *  whose publisher is handled without blocking after its handler returns.
+ *
+ *  @author Dirk Heijnen
+ *  @since 1.1
+ */
+@Documented
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Timeout {
+
+    /**
+     * The time which a request may take, zero or less means the request type has no timeout of its own.
+     *
+     * @return The timeout, in the {@link #unit()}.
+     */
+    long value();
+
+    /**
+     * The unit of the {@link #value()}.
+     *
+     * @return The {@link TimeUnit} of the timeout.
+     */
+    TimeUnit unit() default TimeUnit.MILLISECONDS;
+
+}
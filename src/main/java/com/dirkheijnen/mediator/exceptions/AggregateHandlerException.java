@@ -0,0 +1,59 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dirkheijnen.mediator.exceptions;
+
+import com.dirkheijnen.mediator.interfaces.INotificationHandler;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ *  The {@link AggregateHandlerException} is thrown when one or more {@link INotificationHandler} fail while their
+ *  notification is published in parallel. The first exception is the cause, every other exception is suppressed.
+ *
+ *  @author Dirk Heijnen
+ *  @since 1.1
+ */
+public class AggregateHandlerException extends RuntimeException {
+
+    private final List<Throwable> exceptions;
+
+    /**
+     * Exception handler with a custom message and the exceptions thrown by the handlers.
+     * @param message The message of the error.
+     * @param exceptions The exceptions thrown by the handlers, must contain at least one exception.
+     */
+    public AggregateHandlerException(String message, List<Throwable> exceptions){
+        super(message, exceptions.get(0));
+        this.exceptions = Collections.unmodifiableList(new ArrayList<>(exceptions));
+
+        for(int i = 1; i < exceptions.size(); i++){
+            addSuppressed(exceptions.get(i));
+        }
+    }
+
+    /**
+     * Retrieves all the exceptions thrown by the handlers.
+     *
+     * @return The exceptions thrown by the handlers.
+     */
+    public List<Throwable> getExceptions(){
+        return exceptions;
+    }
+
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dirkheijnen.mediator.exceptions;
+
+import com.dirkheijnen.mediator.interfaces.IRequest;
+import com.dirkheijnen.mediator.interfaces.IRequestHandler;
+
+/**
+ *  The {@link BulkheadRejectedException} is thrown when an {@link IRequest} is rejected because its
+ *  {@link IRequestHandler} is at its concurrency limit and no room became available in time.
+ *
+ *  The mediator throws it without a stack trace, and only builds its message when the message is requested, because
+ *  rejections are frequent while the application is overloaded. The request type identifies the rejection instead.
+ *
+ *  @author Dirk Heijnen
+ *  @since 1.1
+ */
+public class BulkheadRejectedException extends RuntimeException {
+
+    private final Class<?> requestType;
+
+    private final int limit;
+
+    /**
+     *  Default exception handler without message.
+     */
+    public BulkheadRejectedException(){
+        super();
+        this.requestType = null;
+        this.limit = 0;
+    }
+
+    /**
+     * Exception handler with a custom message.
+     * @param message The message of the error.
+     */
+    public BulkheadRejectedException(String message){
+        super(message);
+        this.requestType = null;
+        this.limit = 0;
+    }
+
+    /**
+     * Exception handler for a rejected request type, which does not capture a stack trace.
+     * @param requestType The {@link IRequest} type which was rejected.
+     * @param limit The concurrency limit at the time of the rejection.
+     */
+    public BulkheadRejectedException(Class<?> requestType, int limit){
+        super(null, null, false, false);
+        this.requestType = requestType;
+        this.limit = limit;
+    }
+
+    /**
+     * Retrieves the request type which was rejected.
+     * @return The rejected {@link IRequest} type, or null if the exception was created with a message.
+     */
+    public Class<?> getRequestType(){
+        return requestType;
+    }
+
+    /**
+     * Retrieves the concurrency limit at the time of the rejection.
+     * @return The concurrency limit, or zero if the exception was created with a message.
+     */
+    public int getLimit(){
+        return limit;
+    }
+
+    /**
+     * Retrieves the message of the error, which is built from the request type when the exception was created with one.
+     * @return The message of the error.
+     */
+    @Override
+    public String getMessage(){
+        if(requestType == null){
+            return super.getMessage();
+        }
+        return "The request " + requestType.getCanonicalName() + " was rejected at the concurrency limit of " + limit;
+    }
+
+}
@@ -22,16 +22,25 @@ import com.dirkheijnen.mediator.interfaces.IRequestHandler;
 /**
  *  The {@link HandlerNotFoundException} is thrown when no {@link IRequestHandler} is found for a given {@link IRequest}.
  *
+ *  The mediator throws it without a stack trace, and only builds its message when the message is requested, because a
+ *  missing handler can be an expected outcome on a hot path. The missing type identifies the failed lookup instead.
+ *
  *  @author Dirk Heijnen
  *  @since 1.0
  */
 public class HandlerNotFoundException extends RuntimeException {
 
+    private final String kind;
+
+    private final Class<?> type;
+
     /**
      *  Default exception handler without message.
      */
     public HandlerNotFoundException(){
         super();
+        this.kind = null;
+        this.type = null;
     }
 
     /**
@@ -40,6 +49,39 @@ public class HandlerNotFoundException extends RuntimeException {
      */
     public HandlerNotFoundException(String message){
         super(message);
+        this.kind = null;
+        this.type = null;
+    }
+
+    /**
+     * Exception handler for a type without a handler, which does not capture a stack trace.
+     * @param kind The kind of the type, such as request or notification.
+     * @param type The type for which no handler exists.
+     */
+    public HandlerNotFoundException(String kind, Class<?> type){
+        super(null, null, false, false);
+        this.kind = kind;
+        this.type = type;
+    }
+
+    /**
+     * Retrieves the type for which no handler exists.
+     * @return The type for which no handler exists, or null if the exception was created with a message.
+     */
+    public Class<?> getType(){
+        return type;
+    }
+
+    /**
+     * Retrieves the message of the error, which is built from the missing type when the exception was created with one.
+     * @return The message of the error.
+     */
+    @Override
+    public String getMessage(){
+        if(type == null){
+            return super.getMessage();
+        }
+        return "No " + kind + " handler exists for the " + kind + ": " + type.getCanonicalName();
     }
 
 }
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dirkheijnen.mediator.exceptions;
+
+import com.dirkheijnen.mediator.interfaces.IRequest;
+import com.dirkheijnen.mediator.interfaces.IRequestHandler;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ *  The {@link RequestTimeoutException} is thrown when an {@link IRequest} does not complete before its deadline, or
+ *  when it is sent after the deadline of the request which sends it has already expired.
+ *
+ *  @author Dirk Heijnen
+ *  @since 1.1
+ */
+public class RequestTimeoutException extends RuntimeException {
+
+    private final Class<?> requestType;
+
+    private final long timeoutNanos;
+
+    /**
+     *  Default exception handler without message.
+     */
+    public RequestTimeoutException(){
+        super();
+        this.requestType = null;
+        this.timeoutNanos = 0;
+    }
+
+    /**
+     * Exception handler with a custom message.
+     * @param message The message of the error.
+     */
+    public RequestTimeoutException(String message){
+        super(message);
+        this.requestType = null;
+        this.timeoutNanos = 0;
+    }
+
+    /**
+     * Exception handler for a request type whose deadline expired.
+     * @param requestType The {@link IRequest} type which set the deadline.
+     * @param timeoutNanos The timeout of the deadline, in nanoseconds.
+     * @param cause The exception which the {@link IRequestHandler} threw after it was interrupted, or null.
+     */
+    public RequestTimeoutException(Class<?> requestType, long timeoutNanos, Throwable cause){
+        super("The request " + requestType.getCanonicalName() + " did not complete within " + TimeUnit.NANOSECONDS.toMillis(timeoutNanos) + " ms", cause);
+        this.requestType = requestType;
+        this.timeoutNanos = timeoutNanos;
+    }
+
+    /**
+     * Retrieves the request type which set the deadline.
+     * @return The {@link IRequest} type which set the deadline, or null if the exception was created with a message.
+     */
+    public Class<?> getRequestType(){
+        return requestType;
+    }
+
+    /**
+     * Retrieves the timeout of the deadline.
+     * @param unit The {@link TimeUnit} of the result.
+     * @return The timeout of the deadline in the given unit, or zero if the exception was created with a message.
+     */
+    public long getTimeout(TimeUnit unit){
+        return unit.convert(timeoutNanos, TimeUnit.NANOSECONDS);
+    }
+
+}
@@ -16,20 +16,30 @@
 
 package com.dirkheijnen.mediator.implementation;
 
-import com.dirkheijnen.mediator.interfaces.INotification;
+import com.dirkheijnen.mediator.interfaces.IHandlerMetricsProvider;
 import com.dirkheijnen.mediator.interfaces.INotificationHandler;
-import com.dirkheijnen.mediator.interfaces.IRequest;
+import com.dirkheijnen.mediator.interfaces.INotificationPublisher;
+import com.dirkheijnen.mediator.interfaces.INotificationSerializer;
+import com.dirkheijnen.mediator.interfaces.IPipelineBehavior;
 import com.dirkheijnen.mediator.interfaces.IRequestHandler;
+import org.springframework.beans.BeanUtils;
 import org.springframework.context.ApplicationContext;
-import org.springframework.core.GenericTypeResolver;
+import org.springframework.core.annotation.AnnotationAwareOrderComparator;
+import org.springframework.util.ClassUtils;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
 
 /**
- *  Helper methods for accessing the {@link ApplicationContext}.
+ *  Helper methods for accessing the {@link ApplicationContext}, which make it the {@link MediatorContext} of the
+ *  {@link Mediator} bean. Handlers and other components are the beans of the {@link ApplicationContext}, and the
+ *  configuration properties are read from its environment.
  *
  *  @author Dirk Heijnen
  *  @since 1.0
  */
-public class ApplicationContextHelper {
+public class ApplicationContextHelper extends MediatorContext {
 
     private ApplicationContext applicationContext;
 
@@ -47,6 +57,7 @@ public class ApplicationContextHelper {
      *
      * @return An array of {@link String} which contains all the names of the {@link IRequestHandler} beans.
      */
+    @Override
     public String[] getRequestHandlerBeanNames(){
         return applicationContext.getBeanNamesForType(IRequestHandler.class);
     }
@@ -56,6 +67,7 @@ public class ApplicationContextHelper {
      *
      * @return An array of {@link String} which contains all the names of the {@link INotificationHandler} beans.
      */
+    @Override
     public String[] getNotificationHandlerBeanNames(){
         return applicationContext.getBeanNamesForType(INotificationHandler.class);
     }
@@ -66,6 +78,7 @@ public class ApplicationContextHelper {
      * @param beanName The name of the bean for the {@link IRequestHandler} to be found.
      * @return The {@link IRequestHandler} matching the provided bean name.
      */
+    @Override
     public IRequestHandler<?, ?> getRequestHandlerByBeanName(String beanName){
         return (IRequestHandler<? ,?>) applicationContext.getBean(beanName);
     }
@@ -76,31 +89,114 @@ public class ApplicationContextHelper {
      * @param beanName The name of the bean for the {@link INotificationHandler} to be found.
      * @return The {@link INotificationHandler} matching the provided bean name.
      */
+    @Override
     public INotificationHandler<?> getNotificationHandlerByBeanName(String beanName){
         return (INotificationHandler<?>) applicationContext.getBean(beanName);
     }
 
     /**
-     * Retrieves the generic types of the {@link IRequestHandler}.
-     * This will have 2 entries:
-     *      [0] = The {@link IRequest} type.
-     *      [1] = The response type of the {@link IRequest}.
+     * Retrieves all the {@link IPipelineBehavior} beans, sorted by their order.
+     *
+     * @return The {@link IPipelineBehavior} beans, the behavior with the highest precedence first.
+     */
+    @Override
+    public List<IPipelineBehavior<?, ?>> getPipelineBehaviors(){
+        List<IPipelineBehavior<?, ?>> pipelineBehaviors = applicationContext.getBeanProvider(IPipelineBehavior.class).stream()
+                .map(pipelineBehavior -> (IPipelineBehavior<?, ?>) pipelineBehavior)
+                .collect(Collectors.toList());
+        AnnotationAwareOrderComparator.sort(pipelineBehaviors);
+        return pipelineBehaviors;
+    }
+
+    /**
+     * Retrieves the {@link INotificationPublisher} bean, if exactly one is registered.
+     *
+     * @return The {@link INotificationPublisher} bean, or null if there is no unique {@link INotificationPublisher} bean.
+     */
+    @Override
+    public INotificationPublisher getNotificationPublisher(){
+        return applicationContext.getBeanProvider(INotificationPublisher.class).getIfUnique();
+    }
+
+    /**
+     * Retrieves the {@link IHandlerMetricsProvider} bean, if exactly one is registered.
+     *
+     * @return The {@link IHandlerMetricsProvider} bean, or null if there is no unique {@link IHandlerMetricsProvider} bean.
+     */
+    @Override
+    public IHandlerMetricsProvider getHandlerMetricsProvider(){
+        return applicationContext.getBeanProvider(IHandlerMetricsProvider.class).getIfUnique();
+    }
+
+    /**
+     * Retrieves the {@link INotificationSerializer} bean, if exactly one is registered.
+     *
+     * @return The {@link INotificationSerializer} bean, or null if there is no unique {@link INotificationSerializer} bean.
+     */
+    @Override
+    public INotificationSerializer getNotificationSerializer(){
+        return applicationContext.getBeanProvider(INotificationSerializer.class).getIfUnique();
+    }
+
+    /**
+     * Retrieves the bean of the given type, or creates a new instance of the type if no such bean exists.
+     *
+     * @param type The type of the bean.
+     * @param <T> The type of the bean.
+     * @return The bean of the given type, or a new instance created with the no-argument constructor of the type.
+     */
+    @Override
+    public <T> T getOrCreateBean(Class<T> type){
+        return applicationContext.getBeanProvider(type).getIfAvailable(() -> BeanUtils.instantiateClass(type));
+    }
+
+    /**
+     * Retrieves a configuration property from the environment of the {@link ApplicationContext}.
+     *
+     * @param key The name of the property.
+     * @param type The type to which the value of the property is converted.
+     * @param defaultValue The value which is returned if the property is not set.
+     * @param <T> The type of the property.
+     * @return The value of the property, or the default value if the property is not set.
+     */
+    @Override
+    public <T> T getProperty(String key, Class<T> type, T defaultValue){
+        return applicationContext.getEnvironment().getProperty(key, type, defaultValue);
+    }
+
+    /**
+     * Retrieves the {@link Executor} bean with the given name.
+     *
+     * @param beanName The name of the {@link Executor} bean to be found.
+     * @return The {@link Executor} matching the provided bean name, or null if no such bean exists.
+     */
+    @Override
+    public Executor getExecutorByBeanName(String beanName){
+        if(!applicationContext.containsBean(beanName)){
+            return null;
+        }
+        return applicationContext.getBean(beanName, Executor.class);
+    }
+
+    /**
+     * Retrieves the type of a bean from its bean definition, without creating the bean or a factory bean.
      *
-     * @param requestHandler The {@link IRequestHandler} for which the generic types must be found.
-     * @return An array of the generics types of the provided {@link IRequestHandler}.
+     * @param beanName The name of the bean.
+     * @return The type of the bean, or null if it cannot be determined without creating the bean.
      */
-    public Class<?>[] getGenericTypesOfRequestHandler(IRequestHandler<?, ?> requestHandler){
-        return GenericTypeResolver.resolveTypeArguments(requestHandler.getClass(), IRequestHandler.class);
+    @Override
+    protected Class<?> getBeanType(String beanName){
+        return applicationContext.getType(beanName, false);
     }
 
     /**
-     * Retrieves the generic type of the {@link INotificationHandler}.
+     * Retrieves the {@link ClassLoader} of the {@link ApplicationContext}.
      *
-     * @param notificationHandler The {@link IRequestHandler} for which the generic types must be found.
-     * @return The generic type of the provided {@link INotificationHandler}.
+     * @return The {@link ClassLoader} of the {@link ApplicationContext}, or the default {@link ClassLoader} if it has none.
      */
-    public Class<?> getGenericTypeOfNotificationHandler(INotificationHandler<?> notificationHandler) {
-        return GenericTypeResolver.resolveTypeArgument(notificationHandler.getClass(), INotificationHandler.class);
+    @Override
+    protected ClassLoader getClassLoader(){
+        return applicationContext.getClassLoader() != null ? applicationContext.getClassLoader() : ClassUtils.getDefaultClassLoader();
     }
 
 }
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dirkheijnen.mediator.implementation;
+
+import com.dirkheijnen.mediator.annotations.Bulkhead;
+import com.dirkheijnen.mediator.interfaces.IBatchRequestHandler;
+import com.dirkheijnen.mediator.interfaces.IRequest;
+import com.dirkheijnen.mediator.interfaces.IRequestHandler;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ *  The {@link BulkheadRequestHandler} limits the number of requests which the wrapped {@link IRequestHandler} of a
+ *  {@link Bulkhead} handles at the same time.
+ *
+ *  @author Dirk Heijnen
+ *  @since 1.1
+ *
+ *  @param <C> The type of the request which must implement the {@link IRequest} interface.
+ *  @param <R> The type of the response which must match the type of the {@link IRequest}.
+ */
+public class BulkheadRequestHandler<C extends IRequest<R>, R> extends DelegatingRequestHandler<C, R> {
+
+    private final ConcurrencyLimiter concurrencyLimiter;
+
+    /**
+     * The constructor of the {@link BulkheadRequestHandler} class.
+     *
+     * @param delegate The {@link IRequestHandler} which is wrapped.
+     * @param requestType The {@link IRequest} type of the wrapped {@link IRequestHandler}.
+     * @param bulkhead The {@link Bulkhead} which configures the limit.
+     * @throws IllegalStateException If the limits or the capacity of the wait queue of the {@link Bulkhead} are invalid.
+     */
+    public BulkheadRequestHandler(IRequestHandler<C, R> delegate, Class<?> requestType, Bulkhead bulkhead){
+        super(delegate);
+        this.concurrencyLimiter = new ConcurrencyLimiter(requestType, bulkhead);
+    }
+
+    /**
+     * Creates the {@link BulkheadRequestHandler} of an {@link IRequestHandler}, which is an
+     * {@link IBatchRequestHandler} itself when the given handler is one.
+     *
+     * @param delegate The {@link IRequestHandler} which is wrapped.
+     * @param requestType The {@link IRequest} type of the wrapped {@link IRequestHandler}.
+     * @param bulkhead The {@link Bulkhead} which configures the limit.
+     * @param <C> The type of the request which must implement the {@link IRequest} interface.
+     * @param <R> The type of the response which must match the type of the {@link IRequest}.
+     * @return The {@link BulkheadRequestHandler} of the given handler.
+     * @throws IllegalStateException If the limits or the capacity of the wait queue of the {@link Bulkhead} are invalid.
+     */
+    public static <C extends IRequest<R>, R> BulkheadRequestHandler<C, R> of(IRequestHandler<C, R> delegate, Class<?> requestType, Bulkhead bulkhead){
+        if(delegate instanceof IBatchRequestHandler){
+            return new Batch<>((IBatchRequestHandler<C, R>) delegate, requestType, bulkhead);
+        }
+        return new BulkheadRequestHandler<>(delegate, requestType, bulkhead);
+    }
+
+    /**
+     * Invokes the wrapped {@link IRequestHandler} once the request is within the concurrency limit.
+     *
+     * @param request The {@link IRequest} containing the input data send with the request.
+     * @return The response of the request.
+     * @throws com.dirkheijnen.mediator.exceptions.BulkheadRejectedException If the request is rejected at the limit.
+     */
+    @Override
+    public R handle(C request) {
+        return withinLimit(() -> delegate.handle(request));
+    }
+
+    /**
+     * Runs an invocation of the wrapped {@link IRequestHandler} with one permit of the concurrency limit.
+     *
+     * @param invocation The invocation of the wrapped {@link IRequestHandler}.
+     * @param <T> The type of the result of the invocation.
+     * @return The result of the invocation.
+     * @throws com.dirkheijnen.mediator.exceptions.BulkheadRejectedException If the invocation is rejected at the limit.
+     */
+    protected <T> T withinLimit(Supplier<T> invocation){
+        int inFlight = concurrencyLimiter.acquire();
+        long start = System.nanoTime();
+        try {
+            return invocation.get();
+        } finally {
+            Deadline deadline = Deadline.current();
+            concurrencyLimiter.release(inFlight, System.nanoTime() - start, deadline != null && deadline.isExpired());
+        }
+    }
+
+    /**
+     * Retrieves the current concurrency limit, which changes over time in adaptive mode.
+     *
+     * @return The concurrency limit.
+     */
+    public int getLimit(){
+        return concurrencyLimiter.getLimit();
+    }
+
+    /**
+     * Retrieves the number of requests which the wrapped {@link IRequestHandler} is handling.
+     *
+     * @return The number of requests in flight.
+     */
+    public int getInFlight(){
+        return concurrencyLimiter.getInFlight();
+    }
+
+    /**
+     * Retrieves the number of requests which wait for the concurrency limit.
+     *
+     * @return The number of waiting requests.
+     */
+    public int getWaiting(){
+        return concurrencyLimiter.getWaiting();
+    }
+
+    /**
+     * The {@link BulkheadRequestHandler} of an {@link IBatchRequestHandler}, which handles a whole batch with one permit.
+     *
+     * @param <C> The type of the request which must implement the {@link IRequest} interface.
+     * @param <R> The type of the response which must match the type of the {@link IRequest}.
+     */
+    private static class Batch<C extends IRequest<R>, R> extends BulkheadRequestHandler<C, R> implements IBatchRequestHandler<C, R> {
+
+        /**
+         * The constructor of the {@link Batch} class.
+         *
+         * @param delegate The {@link IBatchRequestHandler} which is wrapped.
+         * @param requestType The {@link IRequest} type of the wrapped {@link IRequestHandler}.
+         * @param bulkhead The {@link Bulkhead} which configures the limit.
+         */
+        private Batch(IBatchRequestHandler<C, R> delegate, Class<?> requestType, Bulkhead bulkhead){
+            super(delegate, requestType, bulkhead);
+        }
+
+        @Override
+        public List<R> handleAll(List<C> requests) {
+            return withinLimit(() -> ((IBatchRequestHandler<C, R>) delegate).handleAll(requests));
+        }
+
+    }
+
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dirkheijnen.mediator.implementation;
+
+import com.dirkheijnen.mediator.annotations.CacheResponse;
+import com.dirkheijnen.mediator.interfaces.IBatchRequestHandler;
+import com.dirkheijnen.mediator.interfaces.IRequest;
+import com.dirkheijnen.mediator.interfaces.IRequestHandler;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ *  The {@link CachingRequestHandler} answers the requests of a {@link CacheResponse} request type from a
+ *  {@link ResponseCache}, and only sends the requests which are not cached to the wrapped {@link IRequestHandler}.
+ *
+ *  @author Dirk Heijnen
+ *  @since 1.1
+ *
+ *  @param <C> The type of the request which must implement the {@link IRequest} interface.
+ *  @param <R> The type of the response which must match the type of the {@link IRequest}.
+ */
+public class CachingRequestHandler<C extends IRequest<R>, R> extends DelegatingRequestHandler<C, R> {
+
+    protected final ResponseCache<C, R> responseCache;
+
+    /**
+     * The constructor of the {@link CachingRequestHandler} class.
+     *
+     * @param delegate The {@link IRequestHandler} which is wrapped.
+     * @param responseCache The {@link ResponseCache} of the request type.
+     */
+    public CachingRequestHandler(IRequestHandler<C, R> delegate, ResponseCache<C, R> responseCache){
+        super(delegate);
+        this.responseCache = responseCache;
+    }
+
+    /**
+     * Creates the {@link CachingRequestHandler} of an {@link IRequestHandler}, which is an
+     * {@link IBatchRequestHandler} itself when the given handler is one.
+     *
+     * @param delegate The {@link IRequestHandler} which is wrapped.
+     * @param responseCache The {@link ResponseCache} of the request type.
+     * @param <C> The type of the request which must implement the {@link IRequest} interface.
+     * @param <R> The type of the response which must match the type of the {@link IRequest}.
+     * @return The {@link CachingRequestHandler} of the given handler.
+     */
+    public static <C extends IRequest<R>, R> CachingRequestHandler<C, R> of(IRequestHandler<C, R> delegate, ResponseCache<C, R> responseCache){
+        if(delegate instanceof IBatchRequestHandler){
+            return new Batch<>((IBatchRequestHandler<C, R>) delegate, responseCache);
+        }
+        return new CachingRequestHandler<>(delegate, responseCache);
+    }
+
+    /**
+     * Returns the cached response of the request, or sends the request to the wrapped {@link IRequestHandler} and
+     * caches its response.
+     *
+     * @param request The {@link IRequest} containing the input data send with the request.
+     * @return The response of the request.
+     */
+    @Override
+    public R handle(C request) {
+        R cachedResponse = responseCache.get(request);
+        if(cachedResponse != null){
+            return cachedResponse;
+        }
+
+        ResponseCache.Load load = responseCache.startLoad(request);
+        R response;
+        try {
+            response = delegate.handle(request);
+        } catch (Throwable e) {
+            responseCache.cancelLoad(request, load);
+            throw e;
+        }
+        if(response != null){
+            responseCache.put(request, response, load);
+        } else {
+            responseCache.cancelLoad(request, load);
+        }
+        return response;
+    }
+
+    /**
+     * The {@link CachingRequestHandler} of an {@link IBatchRequestHandler}, which answers the cached requests of a
+     * batch itself and sends the other requests to the wrapped handler in one batch.
+     *
+     * @param <C> The type of the request which must implement the {@link IRequest} interface.
+     * @param <R> The type of the response which must match the type of the {@link IRequest}.
+     */
+    private static class Batch<C extends IRequest<R>, R> extends CachingRequestHandler<C, R> implements IBatchRequestHandler<C, R> {
+
+        /**
+         * The constructor of the {@link Batch} class.
+         *
+         * @param delegate The {@link IBatchRequestHandler} which is wrapped.
+         * @param responseCache The {@link ResponseCache} of the request type.
+         */
+        private Batch(IBatchRequestHandler<C, R> delegate, ResponseCache<C, R> responseCache){
+            super(delegate, responseCache);
+        }
+
+        @Override
+        public List<R> handleAll(List<C> requests) {
+            List<R> responses = new ArrayList<>(requests.size());
+            List<C> missedRequests = new ArrayList<>();
+            List<Integer> missedPositions = new ArrayList<>();
+            for(C request : requests){
+                R cachedResponse = responseCache.get(request);
+                if(cachedResponse == null){
+                    missedRequests.add(request);
+                    missedPositions.add(responses.size());
+                }
+                responses.add(cachedResponse);
+            }
+            if(missedRequests.isEmpty()){
+                return responses;
+            }
+
+            List<ResponseCache.Load> loads = new ArrayList<>(missedRequests.size());
+            for(C request : missedRequests){
+                loads.add(responseCache.startLoad(request));
+            }
+            List<R> missedResponses;
+            try {
+                missedResponses = ((IBatchRequestHandler<C, R>) delegate).handleAll(missedRequests);
+                if(missedResponses.size() != missedRequests.size()){
+                    throw new IllegalStateException("The batch request handler " + unwrap(delegate).getClass().getCanonicalName() + " returned " + missedResponses.size() + " responses for " + missedRequests.size() + " requests");
+                }
+            } catch (Throwable e) {
+                cancelLoads(missedRequests, loads);
+                throw e;
+            }
+
+            for(int i = 0; i < missedRequests.size(); i++){
+                R response = missedResponses.get(i);
+                if(response != null){
+                    responseCache.put(missedRequests.get(i), response, loads.get(i));
+                } else {
+                    responseCache.cancelLoad(missedRequests.get(i), loads.get(i));
+                }
+                responses.set(missedPositions.get(i), response);
+            }
+            return responses;
+        }
+
+        /**
+         * Ends the loads of the requests which were sent to the wrapped handler without storing a response.
+         *
+         * @param requests The requests which were sent to the wrapped handler.
+         * @param loads The {@link ResponseCache.Load} of the requests, in the same order.
+         */
+        private void cancelLoads(List<C> requests, List<ResponseCache.Load> loads){
+            for(int i = 0; i < requests.size(); i++){
+                responseCache.cancelLoad(requests.get(i), loads.get(i));
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dirkheijnen.mediator.implementation;
+
+import java.util.function.Function;
+
+/**
+ *  A lock-free lookup table from a {@link Class} to a value, backed by a {@link ClassValue}.
+ *  The value of a class is computed once, on its first lookup, and is cached on the class itself. Every following
+ *  lookup is a single read which is safe under concurrent access. Classes without a value are cached as well, so a
+ *  miss costs the same as a hit.
+ *
+ *  The resolver must be backed by data which is no longer modified once the table is created.
+ *
+ *  @author Dirk Heijnen
+ *  @since 1.1
+ *
+ *  @param <V> The type of the values in the table.
+ */
+public class ClassDispatchTable<V> {
+
+    private final ClassValue<V> values;
+
+    /**
+     * The constructor of the {@link ClassDispatchTable} class.
+     *
+     * @param resolver The function which computes the value of a class, may return null if the class has no value.
+     */
+    public ClassDispatchTable(Function<Class<?>, V> resolver){
+        this.values = new ClassValue<V>() {
+            @Override
+            protected V computeValue(Class<?> type) {
+                return resolver.apply(type);
+            }
+        };
+    }
+
+    /**
+     * Retrieves the value of the given class.
+     *
+     * @param type The class for which the value must be found.
+     * @return The value of the given class, or null if the class has no value.
+     */
+    public V get(Class<?> type){
+        return values.get(type);
+    }
+
+}
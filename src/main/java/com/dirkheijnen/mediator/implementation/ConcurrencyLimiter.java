@@ -0,0 +1,241 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dirkheijnen.mediator.implementation;
+
+import com.dirkheijnen.mediator.annotations.Bulkhead;
+import com.dirkheijnen.mediator.exceptions.BulkheadRejectedException;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ *  The {@link ConcurrencyLimiter} is the semaphore of a {@link Bulkhead}, whose limit can change while it is in use.
+ *
+ *  Permits are taken with a compare-and-set while the limit is not reached. Only requests which have to wait take the
+ *  lock, and all of them are woken when a permit is released. The waiters are not served in arrival order, and a new
+ *  request can take a released permit before any of them, so a waiter can time out while later requests succeed.
+ *  In adaptive mode every release reports the latency of its request: the limit grows by one when the limit was in use
+ *  and the latency stayed within twice the lowest latency of the recent window, and shrinks by a tenth when the latency
+ *  was higher or the request timed out.
+ *
+ *  @author Dirk Heijnen
+ *  @since 1.1
+ */
+final class ConcurrencyLimiter {
+
+    private static final int WINDOW_SIZE = 1024;
+    private static final long LATENCY_TOLERANCE = 2;
+
+    private final Class<?> requestType;
+    private final int minLimit;
+    private final int maxLimit;
+    private final int maxWaiting;
+    private final long maxWaitNanos;
+    private final boolean adaptive;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final ReentrantLock waitLock = new ReentrantLock();
+    private final Condition released = waitLock.newCondition();
+    private volatile int limit;
+
+    private final ReentrantLock adaptLock = new ReentrantLock();
+    private long noLoadLatency = Long.MAX_VALUE;
+    private long windowMinLatency = Long.MAX_VALUE;
+    private int windowSamples;
+
+    /**
+     * The constructor of the {@link ConcurrencyLimiter} class.
+     *
+     * @param requestType The request type which is limited, for the {@link BulkheadRejectedException}.
+     * @param bulkhead The {@link Bulkhead} which configures the limit.
+     * @throws IllegalStateException If the limits or the capacity of the wait queue are invalid.
+     */
+    ConcurrencyLimiter(Class<?> requestType, Bulkhead bulkhead){
+        if(bulkhead.maxConcurrent() < 1 || bulkhead.minConcurrent() < 1 || bulkhead.minConcurrent() > bulkhead.maxConcurrent() || bulkhead.maxWaiting() < 0){
+            throw new IllegalStateException("The @Bulkhead of " + requestType.getCanonicalName() + " must have 1 <= minConcurrent <= maxConcurrent and maxWaiting >= 0");
+        }
+        this.requestType = requestType;
+        this.minLimit = bulkhead.minConcurrent();
+        this.maxLimit = bulkhead.maxConcurrent();
+        this.maxWaiting = bulkhead.maxWaiting();
+        this.maxWaitNanos = bulkhead.unit().toNanos(bulkhead.maxWait());
+        this.adaptive = bulkhead.adaptive();
+        this.limit = maxLimit;
+    }
+
+    /**
+     * Takes a permit, waiting in the queue for one when the limit is reached.
+     *
+     * @return The number of requests in flight after the permit was taken, which the release reports back.
+     * @throws BulkheadRejectedException If the queue is full, the wait is over, or the thread is interrupted while waiting.
+     */
+    int acquire(){
+        int acquired = tryAcquire();
+        if(acquired > 0){
+            return acquired;
+        }
+        if(maxWaiting == 0 || maxWaitNanos <= 0){
+            throw new BulkheadRejectedException(requestType, limit);
+        }
+        return awaitPermit();
+    }
+
+    /**
+     * Releases a permit, and adapts the limit to the latency of its request in adaptive mode.
+     *
+     * @param inFlightAtAcquire The number of requests in flight when the permit was taken.
+     * @param latencyNanos The time which the request took, in nanoseconds.
+     * @param timedOut True if the request failed because its deadline expired.
+     */
+    void release(int inFlightAtAcquire, long latencyNanos, boolean timedOut){
+        inFlight.decrementAndGet();
+        if(adaptive){
+            adapt(inFlightAtAcquire, latencyNanos, timedOut);
+        }
+        if(waiting.get() > 0){
+            signalWaiters();
+        }
+    }
+
+    /**
+     * Retrieves the current concurrency limit.
+     *
+     * @return The concurrency limit.
+     */
+    int getLimit(){
+        return limit;
+    }
+
+    /**
+     * Retrieves the number of requests which hold a permit.
+     *
+     * @return The number of requests in flight.
+     */
+    int getInFlight(){
+        return inFlight.get();
+    }
+
+    /**
+     * Retrieves the number of requests which wait for a permit.
+     *
+     * @return The number of waiting requests.
+     */
+    int getWaiting(){
+        return waiting.get();
+    }
+
+    /**
+     * Takes a permit if the limit is not reached.
+     *
+     * @return The number of requests in flight after the permit was taken, or zero if the limit is reached.
+     */
+    private int tryAcquire(){
+        while(true){
+            int current = inFlight.get();
+            if(current >= limit){
+                return 0;
+            }
+            if(inFlight.compareAndSet(current, current + 1)){
+                return current + 1;
+            }
+        }
+    }
+
+    /**
+     * Waits in the queue until a permit is released, the wait is over, or the thread is interrupted. The waiting
+     * count is raised before the permit is tried again, so a release in between always signals this thread.
+     *
+     * @return The number of requests in flight after the permit was taken.
+     * @throws BulkheadRejectedException If the queue is full, the wait is over, or the thread is interrupted.
+     */
+    private int awaitPermit(){
+        waitLock.lock();
+        try {
+            if(waiting.get() >= maxWaiting){
+                throw new BulkheadRejectedException(requestType, limit);
+            }
+            waiting.incrementAndGet();
+            try {
+                long remainingNanos = maxWaitNanos;
+                while(true){
+                    int acquired = tryAcquire();
+                    if(acquired > 0){
+                        return acquired;
+                    }
+                    if(remainingNanos <= 0){
+                        throw new BulkheadRejectedException(requestType, limit);
+                    }
+                    remainingNanos = released.awaitNanos(remainingNanos);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new BulkheadRejectedException(requestType, limit);
+            } finally {
+                waiting.decrementAndGet();
+            }
+        } finally {
+            waitLock.unlock();
+        }
+    }
+
+    /**
+     * Wakes the waiting requests after a permit was released or the limit was raised.
+     */
+    private void signalWaiters(){
+        waitLock.lock();
+        try {
+            released.signalAll();
+        } finally {
+            waitLock.unlock();
+        }
+    }
+
+    /**
+     * Adapts the limit to the latency of a completed request. A release which finds another release adapting the
+     * limit skips its sample, so the limit never becomes a point of contention itself.
+     *
+     * @param inFlightAtAcquire The number of requests in flight when the permit of the request was taken.
+     * @param latencyNanos The time which the request took, in nanoseconds.
+     * @param timedOut True if the request failed because its deadline expired.
+     */
+    private void adapt(int inFlightAtAcquire, long latencyNanos, boolean timedOut){
+        if(!adaptLock.tryLock()){
+            return;
+        }
+        try {
+            windowMinLatency = Math.min(windowMinLatency, latencyNanos);
+            if(++windowSamples == WINDOW_SIZE){
+                noLoadLatency = windowMinLatency;
+                windowMinLatency = Long.MAX_VALUE;
+                windowSamples = 0;
+            }
+            noLoadLatency = Math.min(noLoadLatency, latencyNanos);
+
+            int current = limit;
+            if(timedOut || latencyNanos > noLoadLatency * LATENCY_TOLERANCE){
+                limit = Math.max(minLimit, Math.min(current - 1, current * 9 / 10));
+            } else if(inFlightAtAcquire >= current && current < maxLimit){
+                limit = current + 1;
+            }
+        } finally {
+            adaptLock.unlock();
+        }
+    }
+}
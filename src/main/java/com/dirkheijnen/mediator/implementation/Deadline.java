@@ -0,0 +1,231 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dirkheijnen.mediator.implementation;
+
+import com.dirkheijnen.mediator.annotations.Timeout;
+import com.dirkheijnen.mediator.exceptions.RequestTimeoutException;
+import com.dirkheijnen.mediator.interfaces.IRequest;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ *  The {@link Deadline} is the point in time before which the current request must complete. It is set by a request
+ *  type with a {@link Timeout} or by a send with a timeout, and applies to every request sent while it is handled,
+ *  also on the threads of sendAsync. A nested request can only shorten the deadline, never extend it.
+ *
+ *  When the deadline expires, a shared timer thread interrupts the thread of the handler. Handlers cancel their work
+ *  by responding to the interrupt, or by checking {@link #isExpired()} of the {@link #current()} deadline. The
+ *  caller then receives a {@link RequestTimeoutException}, also when the handler returns normally.
+ *
+ *  @author Dirk Heijnen
+ *  @since 1.1
+ */
+public final class Deadline {
+
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+
+    private static final int RUNNING = 0;
+    private static final int COMPLETED = 1;
+    private static final int EXPIRED = 2;
+
+    private final long expiresAt;
+    private final Class<?> requestType;
+    private final long timeoutNanos;
+    private final Thread thread;
+    private ScheduledFuture<?> timer;
+    private int state;
+
+    /**
+     * The constructor of the {@link Deadline} class.
+     *
+     * @param expiresAt The {@link System#nanoTime()} at which the deadline expires.
+     * @param requestType The {@link IRequest} type which set the deadline.
+     * @param timeoutNanos The timeout which set the deadline, in nanoseconds.
+     */
+    private Deadline(long expiresAt, Class<?> requestType, long timeoutNanos){
+        this.expiresAt = expiresAt;
+        this.requestType = requestType;
+        this.timeoutNanos = timeoutNanos;
+        this.thread = Thread.currentThread();
+    }
+
+    /**
+     * Retrieves the deadline of the request which the current thread is handling.
+     *
+     * @return The {@link Deadline} of the current thread, or null if the current request has no deadline.
+     */
+    public static Deadline current(){
+        return CURRENT.get();
+    }
+
+    /**
+     * Checks whether the deadline has passed.
+     *
+     * @return True if the deadline has passed and the work of the request should stop.
+     */
+    public boolean isExpired(){
+        return System.nanoTime() - expiresAt >= 0;
+    }
+
+    /**
+     * Fails a request which is sent after the deadline of the current thread has already passed, also when the request
+     * type has no timeout of its own.
+     *
+     * @throws RequestTimeoutException If the current thread has a deadline which has passed.
+     */
+    static void checkCurrent(){
+        Deadline deadline = CURRENT.get();
+        if(deadline != null && deadline.isExpired()){
+            throw deadline.expired(null);
+        }
+    }
+
+    /**
+     * Retrieves the time which is left before the deadline expires.
+     *
+     * @param unit The {@link TimeUnit} of the result.
+     * @return The remaining time in the given unit, which is zero or less once the deadline has passed.
+     */
+    public long getRemaining(TimeUnit unit){
+        return unit.convert(expiresAt - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Runs an action under the given deadline combined with a timeout of its own. When neither applies the action is
+     * run as is, and when the deadline is already in effect on this thread no second timer is started.
+     *
+     * @param parent The {@link Deadline} of the request which sends this one, possibly from another thread, or null.
+     * @param requestType The {@link IRequest} type of the timeout.
+     * @param timeoutNanos The timeout of the request type in nanoseconds, zero or less if it has none.
+     * @param action The action which handles the request.
+     * @param <R> The type of the response.
+     * @return The response of the action.
+     * @throws RequestTimeoutException If the deadline has already passed or passes before the action completes.
+     */
+    static <R> R call(Deadline parent, Class<?> requestType, long timeoutNanos, Supplier<R> action){
+        if(parent == null && timeoutNanos <= 0){
+            return action.get();
+        }
+        if(parent != null && parent.isExpired()){
+            throw parent.expired(null);
+        }
+
+        Deadline deadline = parent;
+        if(timeoutNanos > 0){
+            long expiresAt = System.nanoTime() + timeoutNanos;
+            if(parent == null || expiresAt - parent.expiresAt < 0){
+                deadline = new Deadline(expiresAt, requestType, timeoutNanos);
+            }
+        }
+        if(deadline == parent){
+            if(parent.thread == Thread.currentThread()){
+                return action.get();
+            }
+            deadline = new Deadline(parent.expiresAt, parent.requestType, parent.timeoutNanos);
+        }
+
+        Deadline previous = CURRENT.get();
+        CURRENT.set(deadline);
+        deadline.start();
+        R response;
+        try {
+            response = action.get();
+        } catch (Throwable e) {
+            if(deadline.complete()){
+                throw deadline.expired(e);
+            }
+            throw e;
+        } finally {
+            CURRENT.set(previous);
+        }
+
+        if(deadline.complete()){
+            throw deadline.expired(null);
+        }
+        return response;
+    }
+
+    /**
+     * Schedules the interrupt of the thread of this deadline on the timer.
+     */
+    private void start(){
+        timer = Timer.EXECUTOR.schedule(this::expire, expiresAt - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Interrupts the thread of this deadline, unless the request has completed in the meantime. This runs on the
+     * timer thread, and holds the lock so the interrupt cannot arrive after the request has completed.
+     */
+    private synchronized void expire(){
+        if(state == RUNNING){
+            state = EXPIRED;
+            thread.interrupt();
+        }
+    }
+
+    /**
+     * Marks the request as completed and stops its timer. If the deadline expired, the interrupt which it caused
+     * is cleared so it does not leak into the next work of the thread.
+     *
+     * @return True if the deadline expired before the request completed.
+     */
+    private synchronized boolean complete(){
+        if(state == EXPIRED){
+            Thread.interrupted();
+            return true;
+        }
+        state = COMPLETED;
+        timer.cancel(false);
+        return false;
+    }
+
+    /**
+     * Creates the {@link RequestTimeoutException} of this deadline.
+     *
+     * @param cause The exception which the request threw after the deadline expired, or null.
+     * @return The {@link RequestTimeoutException}.
+     */
+    private RequestTimeoutException expired(Throwable cause){
+        return new RequestTimeoutException(requestType, timeoutNanos, cause);
+    }
+
+    /**
+     *  Holds the timer thread which expires the deadlines, so it is only started when the first deadline is set.
+     */
+    private static final class Timer {
+
+        private static final ScheduledThreadPoolExecutor EXECUTOR = createExecutor();
+
+        /**
+         * Creates the executor of the timer, with a single daemon thread which removes cancelled deadlines at once.
+         *
+         * @return The {@link ScheduledThreadPoolExecutor} of the timer.
+         */
+        private static ScheduledThreadPoolExecutor createExecutor(){
+            ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, task -> {
+                Thread thread = new Thread(task, "mediator-deadline");
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor.setRemoveOnCancelPolicy(true);
+            return executor;
+        }
+    }
+}
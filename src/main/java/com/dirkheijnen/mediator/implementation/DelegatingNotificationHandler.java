@@ -0,0 +1,67 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dirkheijnen.mediator.implementation;
+
+import com.dirkheijnen.mediator.interfaces.INotification;
+import com.dirkheijnen.mediator.interfaces.INotificationHandler;
+
+/**
+ *  Base class of the {@link INotificationHandler} which the mediator wraps around a registered
+ *  {@link INotificationHandler} to add behavior to it, such as metrics.
+ *
+ *  @author Dirk Heijnen
+ *  @since 1.1
+ *
+ *  @param <T> The type of the notification which must implement the {@link INotification} interface.
+ */
+public abstract class DelegatingNotificationHandler<T extends INotification> implements INotificationHandler<T> {
+
+    protected final INotificationHandler<T> delegate;
+
+    /**
+     * The constructor of the {@link DelegatingNotificationHandler} class.
+     *
+     * @param delegate The {@link INotificationHandler} which is wrapped.
+     */
+    protected DelegatingNotificationHandler(INotificationHandler<T> delegate){
+        this.delegate = delegate;
+    }
+
+    /**
+     * Retrieves the wrapped {@link INotificationHandler}.
+     *
+     * @return The wrapped {@link INotificationHandler}.
+     */
+    public INotificationHandler<T> getDelegate(){
+        return delegate;
+    }
+
+    /**
+     * Retrieves the registered {@link INotificationHandler} from any number of {@link DelegatingNotificationHandler} around it.
+     *
+     * @param notificationHandler The {@link INotificationHandler} which might wrap the registered {@link INotificationHandler}.
+     * @return The registered {@link INotificationHandler}.
+     */
+    public static INotificationHandler<?> unwrap(INotificationHandler<?> notificationHandler){
+        INotificationHandler<?> target = notificationHandler;
+        while (target instanceof DelegatingNotificationHandler){
+            target = ((DelegatingNotificationHandler<?>) target).getDelegate();
+        }
+        return target;
+    }
+
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dirkheijnen.mediator.implementation;
+
+import com.dirkheijnen.mediator.interfaces.IRequest;
+import com.dirkheijnen.mediator.interfaces.IRequestHandler;
+
+/**
+ *  Base class of the {@link IRequestHandler} which the mediator wraps around a registered {@link IRequestHandler}
+ *  to add behavior to it, such as micro-batching.
+ *
+ *  @author Dirk Heijnen
+ *  @since 1.1
+ *
+ *  @param <C> The type of the request which must implement the {@link IRequest} interface.
+ *  @param <R> The type of the response which must match the type of the {@link IRequest}.
+ */
+public abstract class DelegatingRequestHandler<C extends IRequest<R>, R> implements IRequestHandler<C, R> {
+
+    protected final IRequestHandler<C, R> delegate;
+
+    /**
+     * The constructor of the {@link DelegatingRequestHandler} class.
+     *
+     * @param delegate The {@link IRequestHandler} which is wrapped.
+     */
+    protected DelegatingRequestHandler(IRequestHandler<C, R> delegate){
+        this.delegate = delegate;
+    }
+
+    /**
+     * Retrieves the wrapped {@link IRequestHandler}.
+     *
+     * @return The wrapped {@link IRequestHandler}.
+     */
+    public IRequestHandler<C, R> getDelegate(){
+        return delegate;
+    }
+
+    /**
+     * Retrieves the registered {@link IRequestHandler} from any number of {@link DelegatingRequestHandler} around it.
+     *
+     * @param requestHandler The {@link IRequestHandler} which might wrap the registered {@link IRequestHandler}.
+     * @return The registered {@link IRequestHandler}.
+     */
+    public static IRequestHandler<?, ?> unwrap(IRequestHandler<?, ?> requestHandler){
+        IRequestHandler<?, ?> target = requestHandler;
+        while (target instanceof DelegatingRequestHandler){
+            target = ((DelegatingRequestHandler<?, ?>) target).getDelegate();
+        }
+        return target;
+    }
+
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dirkheijnen.mediator.implementation;
+
+import com.dirkheijnen.mediator.interfaces.INotification;
+import com.dirkheijnen.mediator.interfaces.INotificationHandler;
+import com.dirkheijnen.mediator.interfaces.INotificationPublisher;
+import com.dirkheijnen.mediator.interfaces.IRequest;
+import com.dirkheijnen.mediator.interfaces.IRequestHandler;
+import com.dirkheijnen.mediator.interfaces.IRequestHandlerProvider;
+import jdk.jfr.FlightRecorder;
+
+import java.util.List;
+
+/**
+ *  Dispatches requests and notifications while recording a {@link RequestDispatchEvent} or
+ *  {@link NotificationPublishEvent}. The attributes of an event are only collected when the event is going to be
+ *  committed, so a disabled event costs little more than two reads of the clock.
+ *
+ *  This class may only be used when {@link Mediator} found the JDK Flight Recorder on the classpath.
+ *
+ *  @author Dirk Heijnen
+ *  @since 1.1
+ */
+final class FlightRecorderEvents {
+
+    private static final String SUCCESS = "SUCCESS";
+
+    private static final String FAILURE = "FAILURE";
+
+    /**
+     * The {@link FlightRecorderEvents} class only has static methods.
+     */
+    private FlightRecorderEvents(){
+    }
+
+    /**
+     * Checks whether the JDK Flight Recorder has been started. Until then no event can be recorded, and the events are
+     * not used at all, because registering them takes a noticeable amount of time.
+     *
+     * @return True if the JDK Flight Recorder has been started.
+     */
+    static boolean isInitialized(){
+        return FlightRecorder.isInitialized();
+    }
+
+    /**
+     * Sends an {@link IRequest} to its {@link IRequestHandler} and records a {@link RequestDispatchEvent}.
+     *
+     * @param requestHandler The {@link IRequestHandler} of the request.
+     * @param request The {@link IRequest} which is sent.
+     * @param requestHandlerProvider The {@link IRequestHandlerProvider} which knows the bean name of the handler.
+     * @param <C> The type of the request which must implement the {@link IRequest} interface.
+     * @param <R> The type of the response which must match the type of the {@link IRequest}.
+     * @return The return value of the {@link IRequestHandler} handle method.
+     */
+    static <C extends IRequest<R>, R> R send(IRequestHandler<C, R> requestHandler, C request, IRequestHandlerProvider requestHandlerProvider){
+        RequestDispatchEvent event = new RequestDispatchEvent();
+        event.begin();
+        Throwable failure = null;
+        try {
+            return requestHandler.handle(request);
+        } catch (Throwable e){
+            failure = e;
+            throw e;
+        } finally {
+            event.end();
+            if(event.shouldCommit()){
+                event.requestType = request.getClass();
+                event.handlerBeanName = requestHandlerProvider.getRequestHandlerBeanName(request.getClass());
+                event.outcome = failure == null ? SUCCESS : FAILURE;
+                event.exceptionType = failure == null ? null : failure.getClass();
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Publishes an {@link INotification} to its {@link INotificationHandler} and records a {@link NotificationPublishEvent}.
+     *
+     * @param notificationPublisher The {@link INotificationPublisher} which invokes the handlers.
+     * @param notification The {@link INotification} which is published.
+     * @param notificationHandlers The {@link INotificationHandler} of the notification.
+     * @param <T> The type of the notification which must implement the {@link INotification} interface.
+     */
+    static <T extends INotification> void publish(INotificationPublisher notificationPublisher, T notification, List<INotificationHandler<T>> notificationHandlers){
+        NotificationPublishEvent event = new NotificationPublishEvent();
+        event.begin();
+        Throwable failure = null;
+        try {
+            notificationPublisher.publish(notification, notificationHandlers);
+        } catch (Throwable e){
+            failure = e;
+            throw e;
+        } finally {
+            event.end();
+            if(event.shouldCommit()){
+                event.notificationType = notification.getClass();
+                event.handlerCount = notificationHandlers.size();
+                event.outcome = failure == null ? SUCCESS : FAILURE;
+                event.exceptionType = failure == null ? null : failure.getClass();
+                event.commit();
+            }
+        }
+    }
+
+}
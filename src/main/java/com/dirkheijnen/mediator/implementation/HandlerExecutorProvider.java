@@ -0,0 +1,145 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dirkheijnen.mediator.implementation;
+
+import com.dirkheijnen.mediator.annotations.HandlerExecutor;
+import com.dirkheijnen.mediator.interfaces.INotificationHandler;
+import com.dirkheijnen.mediator.interfaces.IRequestHandler;
+import org.springframework.context.ApplicationContext;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ *  The {@link HandlerExecutorProvider} selects the {@link Executor} on which an {@link IRequestHandler} or
+ *  {@link INotificationHandler} is invoked asynchronously.
+ *
+ *  A handler annotated with {@link HandlerExecutor} runs on the executor bean named by the annotation. Every other
+ *  handler runs on the default executor, which is the bean named {@value #DEFAULT_EXECUTOR_BEAN_NAME} when it exists.
+ *  Otherwise, when the {@value #VIRTUAL_THREADS_PROPERTY} property is true and the JVM supports virtual threads, every
+ *  handler invocation starts its own virtual thread. In all other cases the {@link ForkJoinPool#commonPool()} is used.
+ *  The executor of a handler class is resolved once and cached.
+ *
+ *  @author Dirk Heijnen
+ *  @since 1.1
+ */
+public class HandlerExecutorProvider {
+
+    /**
+     * The name of the {@link Executor} bean which replaces the default executor of the mediator.
+     */
+    public static final String DEFAULT_EXECUTOR_BEAN_NAME = "mediatorExecutor";
+
+    /**
+     * The property which enables the virtual thread executor as the default executor of the mediator.
+     */
+    public static final String VIRTUAL_THREADS_PROPERTY = "mediator.virtual-threads.enabled";
+
+    private final MediatorContext mediatorContext;
+
+    private final Executor defaultExecutor;
+
+    private final ClassDispatchTable<Executor> handlerExecutors;
+
+    /**
+     * The constructor of the {@link HandlerExecutorProvider} class.
+     *
+     * @param applicationContext {@link ApplicationContext};
+     */
+    public HandlerExecutorProvider(ApplicationContext applicationContext){
+        this(new ApplicationContextHelper(applicationContext));
+    }
+
+    /**
+     * The constructor of the {@link HandlerExecutorProvider} class.
+     *
+     * @param mediatorContext The {@link MediatorContext} from which the executors are retrieved.
+     */
+    public HandlerExecutorProvider(MediatorContext mediatorContext){
+        this.mediatorContext = mediatorContext;
+
+        this.defaultExecutor = resolveDefaultExecutor();
+        this.handlerExecutors = new ClassDispatchTable<>(this::resolveExecutor);
+    }
+
+    /**
+     * Retrieves the {@link Executor} on which the given {@link IRequestHandler} must be invoked.
+     *
+     * @param requestHandler The {@link IRequestHandler} which is about to be invoked.
+     * @return The {@link Executor} of the registered {@link IRequestHandler}.
+     */
+    public Executor getExecutor(IRequestHandler<?, ?> requestHandler){
+        return handlerExecutors.get(DelegatingRequestHandler.unwrap(requestHandler).getClass());
+    }
+
+    /**
+     * Retrieves the {@link Executor} on which the given {@link INotificationHandler} must be invoked.
+     *
+     * @param notificationHandler The {@link INotificationHandler} which is about to be invoked.
+     * @return The {@link Executor} of the registered {@link INotificationHandler}.
+     */
+    public Executor getExecutor(INotificationHandler<?> notificationHandler){
+        return handlerExecutors.get(DelegatingNotificationHandler.unwrap(notificationHandler).getClass());
+    }
+
+    /**
+     * Retrieves the default {@link Executor}, used for handlers without a {@link HandlerExecutor} annotation.
+     *
+     * @return The default {@link Executor}.
+     */
+    public Executor getDefaultExecutor(){
+        return defaultExecutor;
+    }
+
+    /**
+     * Resolves the default {@link Executor} from the configured bean, the virtual threads property or the common pool.
+     *
+     * @return The default {@link Executor}.
+     */
+    private Executor resolveDefaultExecutor(){
+        Executor configuredExecutor = mediatorContext.getExecutorByBeanName(DEFAULT_EXECUTOR_BEAN_NAME);
+        if(configuredExecutor != null){
+            return configuredExecutor;
+        }
+
+        if(mediatorContext.getProperty(VIRTUAL_THREADS_PROPERTY, Boolean.class, false) && VirtualThreads.isSupported()){
+            return VirtualThreads.newVirtualThreadPerTaskExecutor();
+        }
+        return ForkJoinPool.commonPool();
+    }
+
+    /**
+     * Resolves the {@link Executor} of a handler class based on its {@link HandlerExecutor} annotation.
+     *
+     * @param handlerType The class of the handler.
+     * @return The {@link Executor} of the handler class.
+     * @throws IllegalStateException If the annotation names an executor bean which does not exist.
+     */
+    private Executor resolveExecutor(Class<?> handlerType){
+        String executorBeanName = mediatorContext.getHandlerExecutorBeanName(handlerType);
+        if(executorBeanName == null){
+            return defaultExecutor;
+        }
+
+        Executor executor = mediatorContext.getExecutorByBeanName(executorBeanName);
+        if(executor == null){
+            throw new IllegalStateException("No executor bean named '" + executorBeanName + "' exists for the handler: " + handlerType.getCanonicalName());
+        }
+        return executor;
+    }
+
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dirkheijnen.mediator.implementation;
+
+import com.dirkheijnen.mediator.interfaces.INotification;
+import com.dirkheijnen.mediator.interfaces.INotificationHandler;
+import com.dirkheijnen.mediator.interfaces.IRequest;
+import com.dirkheijnen.mediator.interfaces.IRequestHandler;
+import org.springframework.util.ClassUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ *  The index of the {@link IRequest} and {@link INotification} types of the handler classes, generated at compile
+ *  time by the {@link com.dirkheijnen.mediator.processor.HandlerIndexProcessor}. The handler providers read the types
+ *  of an indexed handler from the index, instead of resolving the generic types of the handler through reflection.
+ *
+ *  Every jar or directory on the classpath can contain an index at {@value #INDEX_LOCATION}. Each line of an index
+ *  holds the kind of the handler, the binary name of the handler class and the binary names of its type arguments.
+ *
+ *  @author Dirk Heijnen
+ *  @since 1.1
+ */
+public class HandlerIndex {
+
+    /**
+     * The location of the index resources on the classpath.
+     */
+    public static final String INDEX_LOCATION = "META-INF/mediator/handlers.index";
+
+    /**
+     * The kind of the index entry of an {@link IRequestHandler}.
+     */
+    public static final String REQUEST_HANDLER = "request";
+
+    /**
+     * The kind of the index entry of an {@link INotificationHandler}.
+     */
+    public static final String NOTIFICATION_HANDLER = "notification";
+
+    private final ClassLoader classLoader;
+
+    private final Map<String, String[]> requestHandlerTypes = new HashMap<>();
+
+    private final Map<String, String> notificationHandlerTypes = new HashMap<>();
+
+    /**
+     * The constructor of the {@link HandlerIndex} class.
+     *
+     * @param classLoader The {@link ClassLoader} which loads the indexed types.
+     */
+    private HandlerIndex(ClassLoader classLoader){
+        this.classLoader = classLoader;
+    }
+
+    /**
+     * Reads all the index resources which are visible to the given {@link ClassLoader}.
+     *
+     * @param classLoader The {@link ClassLoader} which finds the index resources and loads the indexed types.
+     * @return The combined {@link HandlerIndex} of all the index resources, which is empty if there are none.
+     * @throws IllegalStateException If an index resource cannot be read.
+     */
+    public static HandlerIndex load(ClassLoader classLoader){
+        HandlerIndex handlerIndex = new HandlerIndex(classLoader);
+        try {
+            Enumeration<URL> indexResources = classLoader.getResources(INDEX_LOCATION);
+            while (indexResources.hasMoreElements()){
+                handlerIndex.read(indexResources.nextElement());
+            }
+        } catch (IOException e){
+            throw new IllegalStateException("Unable to read the handler index " + INDEX_LOCATION, e);
+        }
+        return handlerIndex;
+    }
+
+    /**
+     * Retrieves the generic types of an indexed {@link IRequestHandler} class.
+     *
+     * @param handlerType The class of the {@link IRequestHandler}.
+     * @return The {@link IRequest} type and the response type, or null if the handler class is not indexed.
+     */
+    public Class<?>[] getRequestHandlerTypes(Class<?> handlerType){
+        String[] typeNames = requestHandlerTypes.get(ClassUtils.getUserClass(handlerType).getName());
+        if(typeNames == null){
+            return null;
+        }
+
+        Class<?>[] types = new Class<?>[typeNames.length];
+        for(int i = 0; i < typeNames.length; i++){
+            types[i] = resolve(typeNames[i]);
+        }
+        return types;
+    }
+
+    /**
+     * Retrieves the generic type of an indexed {@link INotificationHandler} class.
+     *
+     * @param handlerType The class of the {@link INotificationHandler}.
+     * @return The {@link INotification} type, or null if the handler class is not indexed.
+     */
+    public Class<?> getNotificationHandlerType(Class<?> handlerType){
+        String typeName = notificationHandlerTypes.get(ClassUtils.getUserClass(handlerType).getName());
+        return typeName != null ? resolve(typeName) : null;
+    }
+
+    /**
+     * Reads the entries of one index resource.
+     *
+     * @param indexResource The {@link URL} of the index resource.
+     * @throws IOException If the index resource cannot be read.
+     */
+    private void read(URL indexResource) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(indexResource.openStream(), StandardCharsets.UTF_8))){
+            String line;
+            while ((line = reader.readLine()) != null){
+                String[] fields = line.trim().split(" ");
+                if(fields.length == 4 && REQUEST_HANDLER.equals(fields[0])){
+                    requestHandlerTypes.put(fields[1], new String[]{ fields[2], fields[3] });
+                } else if(fields.length == 3 && NOTIFICATION_HANDLER.equals(fields[0])){
+                    notificationHandlerTypes.put(fields[1], fields[2]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Loads an indexed type.
+     *
+     * @param typeName The binary name of the type.
+     * @return The loaded type.
+     * @throws IllegalStateException If the indexed type does not exist.
+     */
+    private Class<?> resolve(String typeName){
+        try {
+            return ClassUtils.forName(typeName, classLoader);
+        } catch (ClassNotFoundException | LinkageError e){
+            throw new IllegalStateException("The handler index refers to the type " + typeName + " which cannot be loaded", e);
+        }
+    }
+
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dirkheijnen.mediator.implementation;
+
+import com.dirkheijnen.mediator.interfaces.IHandlerMetrics;
+import com.dirkheijnen.mediator.interfaces.IHandlerStatistics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ *  The built-in {@link IHandlerMetrics} of a handler type, which keeps its counters and latencies in memory.
+ *
+ *  @author Dirk Heijnen
+ *  @since 1.1
+ */
+public class HandlerMetrics implements IHandlerMetrics, IHandlerStatistics {
+
+    private final LongAdder errorCount = new LongAdder();
+
+    private final LongAdder inFlightCount = new LongAdder();
+
+    private final LatencyHistogram latencyHistogram = new LatencyHistogram();
+
+    @Override
+    public void onStart() {
+        inFlightCount.increment();
+    }
+
+    @Override
+    public void onComplete(long durationNanos, Throwable failure) {
+        inFlightCount.decrement();
+        latencyHistogram.record(durationNanos);
+        if(failure != null){
+            errorCount.increment();
+        }
+    }
+
+    @Override
+    public long getCallCount() {
+        return latencyHistogram.getTotalCount();
+    }
+
+    @Override
+    public long getErrorCount() {
+        return errorCount.sum();
+    }
+
+    @Override
+    public long getInFlightCount() {
+        return inFlightCount.sum();
+    }
+
+    @Override
+    public long getLatencyAtPercentile(double percentile) {
+        return latencyHistogram.getValueAtPercentile(percentile);
+    }
+
+    @Override
+    public double getMeanLatency() {
+        return latencyHistogram.getMean();
+    }
+
+    @Override
+    public long getMaxLatency() {
+        return latencyHistogram.getMax();
+    }
+
+}
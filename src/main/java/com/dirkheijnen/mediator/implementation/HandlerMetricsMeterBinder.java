@@ -0,0 +1,85 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dirkheijnen.mediator.implementation;
+
+import com.dirkheijnen.mediator.interfaces.IHandlerStatistics;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *  A Micrometer {@link MeterBinder} which publishes the statistics of a {@link HandlerMetricsRegistry}.
+ *  Micrometer is an optional dependency of the mediator, so this class may only be used when it is on the classpath.
+ *
+ *  Every handler type gets the meters below, tagged with the name of the handler class:
+ *  <ul>
+ *      <li>{@code mediator.handler.calls}: the number of completed invocations.</li>
+ *      <li>{@code mediator.handler.errors}: the number of invocations which threw an exception.</li>
+ *      <li>{@code mediator.handler.in.flight}: the number of running invocations.</li>
+ *      <li>{@code mediator.handler.latency}: the latency at the 50th, 90th, 99th and 99.9th percentile, and the maximum.</li>
+ *  </ul>
+ *
+ *  The handlers are bound when the binder is bound to a {@link MeterRegistry}, for example by registering it as a bean:
+ *  {@code new HandlerMetricsMeterBinder((HandlerMetricsRegistry) mediator.getHandlerMetricsProvider())}.
+ *
+ *  @author Dirk Heijnen
+ *  @since 1.1
+ */
+public class HandlerMetricsMeterBinder implements MeterBinder {
+
+    private static final double[] PERCENTILES = { 0.5, 0.9, 0.99, 0.999 };
+
+    private final HandlerMetricsRegistry handlerMetricsRegistry;
+
+    /**
+     * The constructor of the {@link HandlerMetricsMeterBinder} class.
+     *
+     * @param handlerMetricsRegistry The {@link HandlerMetricsRegistry} whose statistics are published.
+     */
+    public HandlerMetricsMeterBinder(HandlerMetricsRegistry handlerMetricsRegistry){
+        this.handlerMetricsRegistry = handlerMetricsRegistry;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        for(Map.Entry<Class<?>, IHandlerStatistics> entry : handlerMetricsRegistry.getAllStatistics().entrySet()){
+            Tags tags = Tags.of("handler", entry.getKey().getName());
+            IHandlerStatistics statistics = entry.getValue();
+
+            FunctionCounter.builder("mediator.handler.calls", statistics, IHandlerStatistics::getCallCount)
+                    .tags(tags).description("The number of completed handler invocations").register(meterRegistry);
+            FunctionCounter.builder("mediator.handler.errors", statistics, IHandlerStatistics::getErrorCount)
+                    .tags(tags).description("The number of handler invocations which threw an exception").register(meterRegistry);
+            Gauge.builder("mediator.handler.in.flight", statistics, IHandlerStatistics::getInFlightCount)
+                    .tags(tags).description("The number of running handler invocations").register(meterRegistry);
+
+            for(double percentile : PERCENTILES){
+                TimeGauge.builder("mediator.handler.latency", statistics, TimeUnit.NANOSECONDS, handlerStatistics -> handlerStatistics.getLatencyAtPercentile(percentile * 100))
+                        .tags(tags).tag("percentile", String.valueOf(percentile)).register(meterRegistry);
+            }
+            TimeGauge.builder("mediator.handler.latency", statistics, TimeUnit.NANOSECONDS, IHandlerStatistics::getMaxLatency)
+                    .tags(tags).tag("percentile", "max").register(meterRegistry);
+        }
+    }
+
+}
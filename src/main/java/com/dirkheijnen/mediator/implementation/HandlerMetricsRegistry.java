@@ -0,0 +1,63 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dirkheijnen.mediator.implementation;
+
+import com.dirkheijnen.mediator.interfaces.IHandlerMetricsProvider;
+import com.dirkheijnen.mediator.interfaces.IHandlerStatistics;
+import com.dirkheijnen.mediator.interfaces.INotificationHandler;
+import com.dirkheijnen.mediator.interfaces.IRequestHandler;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ *  The built-in {@link IHandlerMetricsProvider}, which keeps a {@link HandlerMetrics} for every handler type.
+ *  It is used when the {@code mediator.metrics.enabled} property is true and no other provider is registered.
+ *
+ *  @author Dirk Heijnen
+ *  @since 1.1
+ */
+public class HandlerMetricsRegistry implements IHandlerMetricsProvider {
+
+    private final Map<Class<?>, HandlerMetrics> handlerMetrics = new ConcurrentHashMap<>();
+
+    @Override
+    public HandlerMetrics getHandlerMetrics(Class<?> handlerType) {
+        return handlerMetrics.computeIfAbsent(handlerType, type -> new HandlerMetrics());
+    }
+
+    /**
+     * Retrieves the statistics of a handler type.
+     *
+     * @param handlerType The class of the registered {@link IRequestHandler} or {@link INotificationHandler}.
+     * @return The {@link IHandlerStatistics} of the handler type, or null if the handler type is not registered.
+     */
+    public IHandlerStatistics getStatistics(Class<?> handlerType){
+        return handlerMetrics.get(handlerType);
+    }
+
+    /**
+     * Retrieves the statistics of all the handler types.
+     *
+     * @return An unmodifiable view of the {@link IHandlerStatistics} by handler type.
+     */
+    public Map<Class<?>, IHandlerStatistics> getAllStatistics(){
+        return Collections.unmodifiableMap(handlerMetrics);
+    }
+
+}
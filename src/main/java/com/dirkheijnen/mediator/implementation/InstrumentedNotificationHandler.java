@@ -0,0 +1,60 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dirkheijnen.mediator.implementation;
+
+import com.dirkheijnen.mediator.interfaces.IHandlerMetrics;
+import com.dirkheijnen.mediator.interfaces.INotification;
+import com.dirkheijnen.mediator.interfaces.INotificationHandler;
+
+/**
+ *  Records every invocation of an {@link INotificationHandler} in its {@link IHandlerMetrics}.
+ *  The mediator only wraps handlers in this class when metrics are enabled.
+ *
+ *  @author Dirk Heijnen
+ *  @since 1.1
+ *
+ *  @param <T> The type of the notification which must implement the {@link INotification} interface.
+ */
+public class InstrumentedNotificationHandler<T extends INotification> extends DelegatingNotificationHandler<T> {
+
+    private final IHandlerMetrics handlerMetrics;
+
+    /**
+     * The constructor of the {@link InstrumentedNotificationHandler} class.
+     *
+     * @param delegate The {@link INotificationHandler} which is measured.
+     * @param handlerMetrics The {@link IHandlerMetrics} in which the invocations are recorded.
+     */
+    public InstrumentedNotificationHandler(INotificationHandler<T> delegate, IHandlerMetrics handlerMetrics){
+        super(delegate);
+        this.handlerMetrics = handlerMetrics;
+    }
+
+    @Override
+    public void handle(T notification) {
+        handlerMetrics.onStart();
+        long start = System.nanoTime();
+        try {
+            delegate.handle(notification);
+            handlerMetrics.onComplete(System.nanoTime() - start, null);
+        } catch (Throwable e){
+            handlerMetrics.onComplete(System.nanoTime() - start, e);
+            throw e;
+        }
+    }
+
+}
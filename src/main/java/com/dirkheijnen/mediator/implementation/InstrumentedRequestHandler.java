@@ -0,0 +1,116 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dirkheijnen.mediator.implementation;
+
+import com.dirkheijnen.mediator.interfaces.IBatchRequestHandler;
+import com.dirkheijnen.mediator.interfaces.IHandlerMetrics;
+import com.dirkheijnen.mediator.interfaces.IRequest;
+import com.dirkheijnen.mediator.interfaces.IRequestHandler;
+
+import java.util.List;
+
+/**
+ *  Records every invocation of an {@link IRequestHandler} in its {@link IHandlerMetrics}.
+ *  The mediator only wraps handlers in this class when metrics are enabled.
+ *
+ *  @author Dirk Heijnen
+ *  @since 1.1
+ *
+ *  @param <C> The type of the request which must implement the {@link IRequest} interface.
+ *  @param <R> The type of the response which must match the type of the {@link IRequest}.
+ */
+public class InstrumentedRequestHandler<C extends IRequest<R>, R> extends DelegatingRequestHandler<C, R> {
+
+    protected final IHandlerMetrics handlerMetrics;
+
+    /**
+     * The constructor of the {@link InstrumentedRequestHandler} class.
+     *
+     * @param delegate The {@link IRequestHandler} which is measured.
+     * @param handlerMetrics The {@link IHandlerMetrics} in which the invocations are recorded.
+     */
+    public InstrumentedRequestHandler(IRequestHandler<C, R> delegate, IHandlerMetrics handlerMetrics){
+        super(delegate);
+        this.handlerMetrics = handlerMetrics;
+    }
+
+    /**
+     * Creates the {@link InstrumentedRequestHandler} of an {@link IRequestHandler}, which is an
+     * {@link IBatchRequestHandler} itself when the given handler is one.
+     *
+     * @param delegate The {@link IRequestHandler} which is measured.
+     * @param handlerMetrics The {@link IHandlerMetrics} in which the invocations are recorded.
+     * @param <C> The type of the request which must implement the {@link IRequest} interface.
+     * @param <R> The type of the response which must match the type of the {@link IRequest}.
+     * @return The {@link InstrumentedRequestHandler} of the given handler.
+     */
+    public static <C extends IRequest<R>, R> InstrumentedRequestHandler<C, R> of(IRequestHandler<C, R> delegate, IHandlerMetrics handlerMetrics){
+        if(delegate instanceof IBatchRequestHandler){
+            return new Batch<>((IBatchRequestHandler<C, R>) delegate, handlerMetrics);
+        }
+        return new InstrumentedRequestHandler<>(delegate, handlerMetrics);
+    }
+
+    @Override
+    public R handle(C request) {
+        handlerMetrics.onStart();
+        long start = System.nanoTime();
+        try {
+            R response = delegate.handle(request);
+            handlerMetrics.onComplete(System.nanoTime() - start, null);
+            return response;
+        } catch (Throwable e){
+            handlerMetrics.onComplete(System.nanoTime() - start, e);
+            throw e;
+        }
+    }
+
+    /**
+     * The {@link InstrumentedRequestHandler} of an {@link IBatchRequestHandler}, which records a whole batch as one invocation.
+     *
+     * @param <C> The type of the request which must implement the {@link IRequest} interface.
+     * @param <R> The type of the response which must match the type of the {@link IRequest}.
+     */
+    private static class Batch<C extends IRequest<R>, R> extends InstrumentedRequestHandler<C, R> implements IBatchRequestHandler<C, R> {
+
+        /**
+         * The constructor of the {@link Batch} class.
+         *
+         * @param delegate The {@link IBatchRequestHandler} which is measured.
+         * @param handlerMetrics The {@link IHandlerMetrics} in which the invocations are recorded.
+         */
+        private Batch(IBatchRequestHandler<C, R> delegate, IHandlerMetrics handlerMetrics){
+            super(delegate, handlerMetrics);
+        }
+
+        @Override
+        public List<R> handleAll(List<C> requests) {
+            handlerMetrics.onStart();
+            long start = System.nanoTime();
+            try {
+                List<R> responses = ((IBatchRequestHandler<C, R>) delegate).handleAll(requests);
+                handlerMetrics.onComplete(System.nanoTime() - start, null);
+                return responses;
+            } catch (Throwable e){
+                handlerMetrics.onComplete(System.nanoTime() - start, e);
+                throw e;
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dirkheijnen.mediator.implementation;
+
+import com.dirkheijnen.mediator.interfaces.INotification;
+import com.dirkheijnen.mediator.interfaces.INotificationSerializer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+
+/**
+ *  The default {@link INotificationSerializer} of the durable outbox, which uses Java serialization. The notifications
+ *  must implement {@link java.io.Serializable}.
+ *
+ *  @author Dirk Heijnen
+ *  @since 1.1
+ */
+public class JavaNotificationSerializer implements INotificationSerializer {
+
+    /**
+     * Converts a notification to bytes with an {@link ObjectOutputStream}.
+     *
+     * @param notification The {@link INotification} which is written to the journal.
+     * @return The bytes of the notification.
+     * @throws IllegalArgumentException If the notification cannot be serialized.
+     */
+    @Override
+    public byte[] serialize(INotification notification) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream output = new ObjectOutputStream(bytes)) {
+            output.writeObject(notification);
+        } catch (NotSerializableException e) {
+            throw new IllegalArgumentException("The notification " + notification.getClass().getCanonicalName() + " does not implement Serializable", e);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Could not serialize the notification " + notification.getClass().getCanonicalName(), e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Converts bytes back to a notification with an {@link ObjectInputStream}, which resolves classes with the class
+     * loader of the notification type.
+     *
+     * @param type The class of the {@link INotification} which was serialized.
+     * @param data The bytes of the notification.
+     * @param <T> The type of the {@link INotification}.
+     * @return The notification.
+     * @throws IllegalArgumentException If the bytes cannot be deserialized to the given type.
+     */
+    @Override
+    public <T extends INotification> T deserialize(Class<T> type, byte[] data) {
+        try (ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(data)) {
+            @Override
+            protected Class<?> resolveClass(ObjectStreamClass descriptor) throws IOException, ClassNotFoundException {
+                try {
+                    return Class.forName(descriptor.getName(), false, type.getClassLoader());
+                } catch (ClassNotFoundException e) {
+                    return super.resolveClass(descriptor);
+                }
+            }
+        }) {
+            return type.cast(input.readObject());
+        } catch (IOException | ClassNotFoundException | ClassCastException e) {
+            throw new IllegalArgumentException("Could not deserialize a notification of type " + type.getCanonicalName(), e);
+        }
+    }
+
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dirkheijnen.mediator.implementation;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ *  A lock free histogram of latencies in nanoseconds, with log-linear buckets in the style of HdrHistogram.
+ *
+ *  Every power of two range of values is split into {@value #SUB_BUCKETS} equally wide buckets, so a recorded value
+ *  is never more than 1/{@value #SUB_BUCKETS} of itself away from the upper bound of its bucket. Recording a value
+ *  increments one element of an {@link AtomicLongArray}, without allocating or locking.
+ *
+ *  @author Dirk Heijnen
+ *  @since 1.1
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    private final LongAdder totalCount = new LongAdder();
+
+    private final LongAdder totalValue = new LongAdder();
+
+    private final AtomicLong maxValue = new AtomicLong();
+
+    /**
+     * Records a latency in the histogram.
+     *
+     * @param value The latency in nanoseconds, negative values are recorded as zero.
+     */
+    public void record(long value){
+        long latency = Math.max(0, value);
+        counts.incrementAndGet(bucketOf(latency));
+        totalCount.increment();
+        totalValue.add(latency);
+
+        long max = maxValue.get();
+        while (latency > max && !maxValue.compareAndSet(max, latency)){
+            max = maxValue.get();
+        }
+    }
+
+    /**
+     * Retrieves the number of recorded latencies.
+     *
+     * @return The number of recorded latencies.
+     */
+    public long getTotalCount(){
+        return totalCount.sum();
+    }
+
+    /**
+     * Retrieves the latency below which the given percentage of the recorded latencies fall.
+     *
+     * @param percentile The percentile, between 0 and 100.
+     * @return The upper bound of the bucket containing the percentile, or 0 if nothing is recorded.
+     */
+    public long getValueAtPercentile(double percentile){
+        long[] snapshot = new long[BUCKETS];
+        long count = 0;
+        for(int i = 0; i < BUCKETS; i++){
+            snapshot[i] = counts.get(i);
+            count += snapshot[i];
+        }
+        if(count == 0){
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(Math.min(100, Math.max(0, percentile)) / 100 * count));
+        long seen = 0;
+        for(int i = 0; i < BUCKETS; i++){
+            seen += snapshot[i];
+            if(seen >= rank){
+                return Math.min(upperBoundOf(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * Retrieves the mean of the recorded latencies.
+     *
+     * @return The mean latency, or 0 if nothing is recorded.
+     */
+    public double getMean(){
+        long count = totalCount.sum();
+        return count == 0 ? 0 : (double) totalValue.sum() / count;
+    }
+
+    /**
+     * Retrieves the highest recorded latency.
+     *
+     * @return The highest latency, or 0 if nothing is recorded.
+     */
+    public long getMax(){
+        return maxValue.get();
+    }
+
+    /**
+     * Calculates the bucket of a value. Values below {@value #SUB_BUCKETS} have a bucket of their own, larger values
+     * share a bucket with the values which have the same highest bit and the same {@value #SUB_BUCKET_BITS} bits after it.
+     *
+     * @param value The value, zero or more.
+     * @return The index of the bucket.
+     */
+    private static int bucketOf(long value){
+        if(value < SUB_BUCKETS){
+            return (int) value;
+        }
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * Calculates the highest value which falls in a bucket.
+     *
+     * @param bucket The index of the bucket.
+     * @return The highest value of the bucket.
+     */
+    private static long upperBoundOf(int bucket){
+        if(bucket < SUB_BUCKETS){
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long lowerBound = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+        return lowerBound + (1L << shift) - 1;
+    }
+
+}
@@ -17,32 +17,174 @@
 package com.dirkheijnen.mediator.implementation;
 
 import com.dirkheijnen.mediator.interfaces.*;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationContext;
 import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
 
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 /**
  *  The {@link Mediator} is used to send an {@link IRequest} to its {@link IRequestHandler} and call the handle method.
- *  This class is directly injectable in any spring bean.
+ *  This class is directly injectable in any spring bean. Without Spring, a {@link Mediator} is created with the
+ *  {@link MediatorBuilder}, which registers the handlers and other components explicitly.
+ *
+ *  When the JDK Flight Recorder is available, send and publish record a {@link RequestDispatchEvent} and a
+ *  {@link NotificationPublishEvent}, which are enabled and thresholded through the settings of a recording.
+ *
+ *  When {@value #PARTITIONED_PUBLISH_PROPERTY} is set, an {@link IPartitionedNotification} is handed to the lane of
+ *  its partition key in a {@link PartitionedNotificationDispatcher} and handled there, so publish only waits when the
+ *  queue of the lane is full. Exceptions of its handlers go to the uncaught exception handler of the lane, or to the
+ *  future returned by publishAsync. Closing the mediator waits until the queued notifications are handled.
+ *
+ *  When {@value #RING_BUFFER_SIZE_PROPERTY} is set, publish hands notifications to a
+ *  {@link RingBufferNotificationPublisher}, which handles them on its own thread without creating garbage.
+ *
+ *  When {@value #OUTBOX_DIRECTORY_PROPERTY} is set, publish appends notifications to the journal of a
+ *  {@link NotificationOutbox} in that directory, which delivers them to their handlers at least once, also after a
+ *  restart. The future returned by publishAsync then completes as soon as the notification is appended, not when its
+ *  handlers have received it. The notifications are serialized by the {@link INotificationSerializer} bean when one
+ *  exists, and by a {@link JavaNotificationSerializer} otherwise.
  *
  *  @author Dirk Heijnen
  *  @since 1.0
  */
 @Component
-public class Mediator implements IMediator {
+public class Mediator implements IMediator, AutoCloseable {
+
+    /**
+     * The property which makes the mediator invoke the handlers of a notification in parallel.
+     */
+    public static final String PARALLEL_PUBLISH_PROPERTY = "mediator.publish.parallel";
+
+    /**
+     * The property which selects the {@link PublishFailurePolicy} of parallel publishing.
+     */
+    public static final String PUBLISH_FAILURE_POLICY_PROPERTY = "mediator.publish.failure-policy";
+
+    /**
+     * The property which enables the built-in {@link HandlerMetricsRegistry} of the mediator.
+     */
+    public static final String METRICS_PROPERTY = "mediator.metrics.enabled";
+
+    /**
+     * The property which makes the mediator retrieve the handler beans on the first dispatch instead of at startup.
+     */
+    public static final String LAZY_HANDLERS_PROPERTY = "mediator.lazy-handlers.enabled";
+
+    /**
+     * The property which makes publishing a notification without handlers do nothing, instead of throwing a
+     * {@link com.dirkheijnen.mediator.exceptions.HandlerNotFoundException}.
+     */
+    public static final String IGNORE_UNHANDLED_NOTIFICATIONS_PROPERTY = "mediator.publish.ignore-unhandled";
+
+    /**
+     * The property which sets the number of lanes on which an {@link IPartitionedNotification} is handled, or zero
+     * to publish it like any other notification.
+     */
+    public static final String PARTITIONED_PUBLISH_PROPERTY = "mediator.publish.partitions";
+
+    /**
+     * The property which sets the number of notifications each lane can hold before publishing threads must wait.
+     */
+    public static final String PARTITION_QUEUE_CAPACITY_PROPERTY = "mediator.publish.partition-queue-capacity";
+
+    /**
+     * The property which sets the size of the ring buffer of a {@link RingBufferNotificationPublisher}, a power of
+     * two, or zero to publish without a ring buffer.
+     */
+    public static final String RING_BUFFER_SIZE_PROPERTY = "mediator.publish.ring-buffer.size";
+
+    /**
+     * The property which selects the {@link WaitStrategy} of the ring buffer.
+     */
+    public static final String RING_BUFFER_WAIT_STRATEGY_PROPERTY = "mediator.publish.ring-buffer.wait-strategy";
+
+    /**
+     * The property which allows notifications to be published to the ring buffer by several threads at the same time.
+     */
+    public static final String RING_BUFFER_MULTI_PRODUCER_PROPERTY = "mediator.publish.ring-buffer.multi-producer";
+
+    /**
+     * The property which sets the directory of the durable notification outbox, which is disabled when it is not set.
+     */
+    public static final String OUTBOX_DIRECTORY_PROPERTY = "mediator.outbox.directory";
+
+    /**
+     * The property which sets the size in bytes of the journal segments of the durable notification outbox.
+     */
+    public static final String OUTBOX_SEGMENT_SIZE_PROPERTY = "mediator.outbox.segment-size";
+
+    /**
+     * The property which sets the milliseconds after which the outbox retries a handler which threw an exception.
+     */
+    public static final String OUTBOX_RETRY_DELAY_PROPERTY = "mediator.outbox.retry-delay-ms";
+
+    /**
+     * The property which sets the number of times the outbox delivers a notification to a failing handler before it
+     * parks the notification for that handler, zero or less to retry forever.
+     */
+    public static final String OUTBOX_MAX_ATTEMPTS_PROPERTY = "mediator.outbox.max-attempts";
+
+    /**
+     * The prefix of the property which sets the timeout of a request type in milliseconds, followed by the name of
+     * the request type. It takes precedence over the {@link com.dirkheijnen.mediator.annotations.Timeout} annotation.
+     */
+    public static final String TIMEOUT_PROPERTY_PREFIX = "mediator.timeout.";
+
+    private static final boolean FLIGHT_RECORDER_PRESENT = ClassUtils.isPresent("jdk.jfr.Event", Mediator.class.getClassLoader());
 
     private final IRequestHandlerProvider requestHandlerProvider;
     private final INotificationHandlerProvider notificationHandlerProvider;
+    private final HandlerExecutorProvider handlerExecutorProvider;
+    private final INotificationPublisher notificationPublisher;
+    private final ResponseCacheManager responseCacheManager;
+    private final IHandlerMetricsProvider handlerMetricsProvider;
+    private final PartitionedNotificationDispatcher partitionedNotificationDispatcher;
+    private final NotificationOutbox notificationOutbox;
+    private final ClassDispatchTable<IRequestInvoker<?, ?>> requestInvokers = new ClassDispatchTable<>(this::createRequestInvoker);
 
     /**
      * The constructor of the {@link Mediator} class.
+     * Notifications are published by the {@link INotificationPublisher} bean when one exists, in parallel when
+     * {@value #PARALLEL_PUBLISH_PROPERTY} is true, and sequentially on the calling thread otherwise.
+     * The handlers are measured by the {@link IHandlerMetricsProvider} bean when one exists, by a
+     * {@link HandlerMetricsRegistry} when {@value #METRICS_PROPERTY} is true, and not at all otherwise.
      *
      * @param applicationContext {@link ApplicationContext};
      */
+    @Autowired
     public Mediator(ApplicationContext applicationContext){
-        this.requestHandlerProvider = new RequestHandlerProvider(applicationContext);
-        this.notificationHandlerProvider = new NotificationHandlerProvider(applicationContext);
+        this(new ApplicationContextHelper(applicationContext));
+    }
+
+    /**
+     * The constructor of the {@link Mediator} class, which retrieves its handlers and configuration from the given
+     * {@link MediatorContext}.
+     *
+     * @param mediatorContext The {@link MediatorContext} of the handlers and configuration.
+     */
+    public Mediator(MediatorContext mediatorContext){
+        this.responseCacheManager = new ResponseCacheManager();
+        this.handlerMetricsProvider = createHandlerMetricsProvider(mediatorContext);
+        this.requestHandlerProvider = new RequestHandlerProvider(mediatorContext, responseCacheManager, handlerMetricsProvider);
+        NotificationHandlerProvider notificationHandlerProvider = new NotificationHandlerProvider(mediatorContext, handlerMetricsProvider);
+        this.notificationHandlerProvider = notificationHandlerProvider;
+        this.handlerExecutorProvider = new HandlerExecutorProvider(mediatorContext);
+        this.notificationPublisher = createNotificationPublisher(mediatorContext);
+        this.partitionedNotificationDispatcher = createPartitionedNotificationDispatcher(mediatorContext);
+        this.notificationOutbox = createNotificationOutbox(mediatorContext, notificationHandlerProvider);
     }
 
     /**
@@ -52,14 +194,173 @@ public class Mediator implements IMediator {
      * @param <C> The type of the request which must implement the {@link IRequest} interface.
      * @param <R> The type of the response which must match the type of the {@link IRequest}.
      * @return The return value of the {@link IRequestHandler} handle method.
+     * @throws com.dirkheijnen.mediator.exceptions.RequestTimeoutException If the deadline of the sending request has already passed.
      */
     @Override
     @SuppressWarnings("unchecked")
     public <C extends IRequest<R>, R> R send(C request) {
+        Deadline.checkCurrent();
         IRequestHandler<C, R> requestHandler = requestHandlerProvider.getRequestHandler(request.getClass());
+        if(FLIGHT_RECORDER_PRESENT && FlightRecorderEvents.isInitialized()){
+            return FlightRecorderEvents.send(requestHandler, request, requestHandlerProvider);
+        }
         return requestHandler.handle(request);
     }
 
+    /**
+     * Sends a given {@link IRequest} to its {@link IRequestHandler} with a deadline, which also applies to the
+     * requests sent while it is handled. The deadline of the request which sends this one still applies if it
+     * expires sooner.
+     *
+     * @param request The {@link IRequest} which should be send to its {@link IRequestHandler}.
+     * @param timeout The time which the request may take.
+     * @param unit The {@link TimeUnit} of the timeout.
+     * @param <C> The type of the request which must implement the {@link IRequest} interface.
+     * @param <R> The type of the response which must match the type of the {@link IRequest}.
+     * @return The return value of the {@link IRequestHandler} handle method.
+     * @throws com.dirkheijnen.mediator.exceptions.RequestTimeoutException If the deadline passes before the request completes.
+     */
+    @Override
+    public <C extends IRequest<R>, R> R send(C request, long timeout, TimeUnit unit) {
+        return Deadline.call(Deadline.current(), request.getClass(), unit.toNanos(timeout), () -> send(request));
+    }
+
+    /**
+     * Retrieves the {@link IRequestInvoker} of a request type, which is generated on the first call for the type.
+     * The invoker calls the handle method of the concrete {@link IRequestHandler} directly, so a caller which keeps it
+     * lets the JIT compiler inline the handler. Unlike send, the invoker does not record a {@link RequestDispatchEvent}.
+     *
+     * @param requestType The type of the {@link IRequest}.
+     * @param <C> The type of the request which must implement the {@link IRequest} interface.
+     * @param <R> The type of the response which must match the type of the {@link IRequest}.
+     * @return The {@link IRequestInvoker} of the request type.
+     * @throws com.dirkheijnen.mediator.exceptions.HandlerNotFoundException If no {@link IRequestHandler} exists for the request type.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <C extends IRequest<R>, R> IRequestInvoker<C, R> getRequestInvoker(Class<C> requestType) {
+        return (IRequestInvoker<C, R>) requestInvokers.get(requestType);
+    }
+
+    /**
+     * Sends a given {@link IRequest} to its {@link IRequestHandler} on the executor of the {@link IRequestHandler}.
+     *
+     * @param request The {@link IRequest} which should be send to its {@link IRequestHandler}.
+     * @param <C> The type of the request which must implement the {@link IRequest} interface.
+     * @param <R> The type of the response which must match the type of the {@link IRequest}.
+     * @return A {@link CompletableFuture} which completes with the return value of the {@link IRequestHandler} handle
+     *         method, or which is completed exceptionally if no {@link IRequestHandler} exists for the request.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <C extends IRequest<R>, R> CompletableFuture<R> sendAsync(C request) {
+        IRequestHandler<C, R> requestHandler;
+        try {
+            requestHandler = requestHandlerProvider.getRequestHandler(request.getClass());
+        } catch (RuntimeException e) {
+            return failedFuture(e);
+        }
+        return CompletableFuture.supplyAsync(withDeadline(() -> requestHandler.handle(request)), handlerExecutorProvider.getExecutor(requestHandler));
+    }
+
+    /**
+     * Sends a given {@link IRequest} to its {@link IRequestHandler} on the given {@link Executor}.
+     *
+     * @param request The {@link IRequest} which should be send to its {@link IRequestHandler}.
+     * @param executor The {@link Executor} on which the {@link IRequestHandler} is invoked.
+     * @param <C> The type of the request which must implement the {@link IRequest} interface.
+     * @param <R> The type of the response which must match the type of the {@link IRequest}.
+     * @return A {@link CompletableFuture} which completes with the return value of the {@link IRequestHandler} handle
+     *         method, or which is completed exceptionally if no {@link IRequestHandler} exists for the request.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <C extends IRequest<R>, R> CompletableFuture<R> sendAsync(C request, Executor executor) {
+        IRequestHandler<C, R> requestHandler;
+        try {
+            requestHandler = requestHandlerProvider.getRequestHandler(request.getClass());
+        } catch (RuntimeException e) {
+            return failedFuture(e);
+        }
+        return CompletableFuture.supplyAsync(withDeadline(() -> requestHandler.handle(request)), executor);
+    }
+
+    /**
+     * Creates a {@link CompletableFuture} which is already completed with an exception, so a failure to dispatch a
+     * request surfaces through the future like a failure of its {@link IRequestHandler}.
+     *
+     * @param failure The exception of the future.
+     * @param <R> The type of the response of the future.
+     * @return The exceptionally completed {@link CompletableFuture}.
+     */
+    private static <R> CompletableFuture<R> failedFuture(Throwable failure){
+        CompletableFuture<R> future = new CompletableFuture<>();
+        future.completeExceptionally(failure);
+        return future;
+    }
+
+    /**
+     * Sends multiple {@link IRequest} to their {@link IRequestHandler}, one group of request types after another.
+     *
+     * @param requests The {@link IRequest} which should be send to their {@link IRequestHandler}.
+     * @param <C> The type of the request which must implement the {@link IRequest} interface.
+     * @param <R> The type of the response which must match the type of the {@link IRequest}.
+     * @return The return values of the {@link IRequestHandler}, in the same order as the requests.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <C extends IRequest<R>, R> List<R> sendAll(Collection<? extends C> requests) {
+        Deadline.checkCurrent();
+        Object[] responses = new Object[requests.size()];
+        for (RequestBatch<C, R> requestBatch : this.<C, R>groupByRequestType(requests)){
+            requestBatch.dispatch(responses);
+        }
+        return (List<R>) Arrays.asList(responses);
+    }
+
+    /**
+     * Sends multiple {@link IRequest} to their {@link IRequestHandler}, with the groups of request types in parallel.
+     * The first group is dispatched on the calling thread, the other groups on the given {@link Executor}.
+     *
+     * @param requests The {@link IRequest} which should be send to their {@link IRequestHandler}.
+     * @param executor The {@link Executor} on which the groups of requests are dispatched.
+     * @param <C> The type of the request which must implement the {@link IRequest} interface.
+     * @param <R> The type of the response which must match the type of the {@link IRequest}.
+     * @return The return values of the {@link IRequestHandler}, in the same order as the requests.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <C extends IRequest<R>, R> List<R> sendAll(Collection<? extends C> requests, Executor executor) {
+        Deadline.checkCurrent();
+        Object[] responses = new Object[requests.size()];
+        List<RequestBatch<C, R>> requestBatches = this.<C, R>groupByRequestType(requests);
+        if (requestBatches.isEmpty()){
+            return (List<R>) Arrays.asList(responses);
+        }
+
+        CompletableFuture<?>[] batchFutures = new CompletableFuture<?>[requestBatches.size() - 1];
+        for (int i = 0; i < batchFutures.length; i++){
+            RequestBatch<C, R> requestBatch = requestBatches.get(i + 1);
+            batchFutures[i] = CompletableFuture.supplyAsync(withDeadline(() -> {
+                requestBatch.dispatch(responses);
+                return null;
+            }), executor);
+        }
+        requestBatches.get(0).dispatch(responses);
+
+        try {
+            CompletableFuture.allOf(batchFutures).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException){
+                throw (RuntimeException) e.getCause();
+            } else if (e.getCause() instanceof Error){
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+        return (List<R>) Arrays.asList(responses);
+    }
+
     /**
      * Publishes an {@link INotification} to all of its {@link INotificationHandler}
      *
@@ -67,12 +368,294 @@ public class Mediator implements IMediator {
      * @param <T> The type of the {@link INotification}
      */
     @Override
-    @SuppressWarnings("unchecked")
     public <T extends INotification> void publish(T notification) {
-        List<INotificationHandler<T>> notificationHandlers = (List<INotificationHandler<T>>)(Object)notificationHandlerProvider.getNotificationHandlers(notification.getClass());
-        for (INotificationHandler<T> notificationHandler : notificationHandlers){
-            notificationHandler.handle(notification);
+        List<INotificationHandler<T>> notificationHandlers = resolveNotificationHandlers(notification);
+        if(notificationHandlers.isEmpty()){
+            return;
+        }
+        if(notificationOutbox != null){
+            notificationOutbox.append(notification);
+            return;
+        }
+        if(partitionedNotificationDispatcher != null && notification instanceof IPartitionedNotification){
+            partitionedNotificationDispatcher.execute(((IPartitionedNotification) notification).getPartitionKey(), () -> {
+                try {
+                    publishToHandlers(notification, notificationHandlers);
+                } catch (Throwable e) {
+                    Thread thread = Thread.currentThread();
+                    thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+                }
+            });
+            return;
+        }
+        publishToHandlers(notification, notificationHandlers);
+    }
+
+    /**
+     * Publishes an {@link INotification} to all of its {@link INotificationHandler}, each on the executor of the
+     * {@link INotificationHandler}. With the durable outbox, the notification is appended to its journal instead.
+     *
+     * @param notification The {@link INotification} which should be send to all of its {@link INotificationHandler}
+     * @param <T> The type of the {@link INotification}
+     * @return A {@link CompletableFuture} which completes when all the {@link INotificationHandler} are finished, or
+     *         with the durable outbox as soon as the notification is appended to the journal.
+     */
+    @Override
+    public <T extends INotification> CompletableFuture<Void> publishAsync(T notification) {
+        return publishOnExecutors(notification, null);
+    }
+
+    /**
+     * Publishes an {@link INotification} to all of its {@link INotificationHandler} on the given {@link Executor}.
+     *
+     * @param notification The {@link INotification} which should be send to all of its {@link INotificationHandler}
+     * @param executor The {@link Executor} on which the {@link INotificationHandler} are invoked.
+     * @param <T> The type of the {@link INotification}
+     * @return A {@link CompletableFuture} which completes when all the {@link INotificationHandler} are finished.
+     */
+    @Override
+    public <T extends INotification> CompletableFuture<Void> publishAsync(T notification, Executor executor) {
+        return publishOnExecutors(notification, executor);
+    }
+
+    /**
+     * Invokes every {@link INotificationHandler} of an {@link INotification} asynchronously.
+     *
+     * @param notification The {@link INotification} which should be send to all of its {@link INotificationHandler}
+     * @param executor The {@link Executor} on which the {@link INotificationHandler} are invoked, or null to use the
+     *                 lane of an {@link IPartitionedNotification} or the executor of each {@link INotificationHandler}.
+     * @param <T> The type of the {@link INotification}
+     * @return A {@link CompletableFuture} which completes when all the {@link INotificationHandler} are finished.
+     */
+    private <T extends INotification> CompletableFuture<Void> publishOnExecutors(T notification, Executor executor) {
+        List<INotificationHandler<T>> notificationHandlers = resolveNotificationHandlers(notification);
+        if(notificationHandlers.isEmpty()){
+            return CompletableFuture.completedFuture(null);
+        }
+        if(executor == null && notificationOutbox != null){
+            notificationOutbox.append(notification);
+            return CompletableFuture.completedFuture(null);
+        }
+        if(executor == null && partitionedNotificationDispatcher != null && notification instanceof IPartitionedNotification){
+            CompletableFuture<Void> published = new CompletableFuture<>();
+            partitionedNotificationDispatcher.execute(((IPartitionedNotification) notification).getPartitionKey(), () -> {
+                try {
+                    publishToHandlers(notification, notificationHandlers);
+                    published.complete(null);
+                } catch (Throwable e) {
+                    published.completeExceptionally(e);
+                }
+            });
+            return published;
+        }
+
+        CompletableFuture<?>[] handlerFutures = new CompletableFuture<?>[notificationHandlers.size()];
+        for (int i = 0; i < handlerFutures.length; i++){
+            INotificationHandler<T> notificationHandler = notificationHandlers.get(i);
+            Executor handlerExecutor = executor != null ? executor : handlerExecutorProvider.getExecutor(notificationHandler);
+            handlerFutures[i] = CompletableFuture.runAsync(() -> notificationHandler.handle(notification), handlerExecutor);
+        }
+        return CompletableFuture.allOf(handlerFutures);
+    }
+
+    /**
+     * Retrieves the {@link IResponseCacheManager}, which invalidates and reports on the response caches of the
+     * request types annotated with {@link com.dirkheijnen.mediator.annotations.CacheResponse}.
+     *
+     * @return The {@link IResponseCacheManager} of this mediator.
+     */
+    public IResponseCacheManager getResponseCacheManager(){
+        return responseCacheManager;
+    }
+
+    /**
+     * Retrieves the {@link IHandlerMetricsProvider} which measures the handlers of this mediator. When the built-in
+     * metrics are enabled, this is a {@link HandlerMetricsRegistry} which exposes the statistics of every handler.
+     *
+     * @return The {@link IHandlerMetricsProvider} of this mediator, or null if metrics are disabled.
+     */
+    public IHandlerMetricsProvider getHandlerMetricsProvider(){
+        return handlerMetricsProvider;
+    }
+
+    /**
+     * Groups requests by their type and resolves the {@link IRequestHandler} once per type.
+     *
+     * @param requests The {@link IRequest} which must be grouped.
+     * @param <C> The type of the request which must implement the {@link IRequest} interface.
+     * @param <R> The type of the response which must match the type of the {@link IRequest}.
+     * @return The groups of requests, in the order in which their request type first occurs.
+     */
+    @SuppressWarnings("unchecked")
+    private <C extends IRequest<R>, R> List<RequestBatch<C, R>> groupByRequestType(Collection<? extends C> requests){
+        Map<Class<?>, RequestBatch<C, R>> requestBatches = new LinkedHashMap<>();
+        int position = 0;
+        for (C request : requests){
+            RequestBatch<C, R> requestBatch = requestBatches.get(request.getClass());
+            if (requestBatch == null){
+                IRequestHandler<C, R> requestHandler = requestHandlerProvider.getRequestHandler(request.getClass());
+                requestBatch = new RequestBatch<>(requestHandler);
+                requestBatches.put(request.getClass(), requestBatch);
+            }
+            requestBatch.add(request, position++);
+        }
+        return new ArrayList<>(requestBatches.values());
+    }
+
+    /**
+     * Stops the lanes of partitioned publishing and the ring buffer, after the notifications which were already
+     * published are handled, and closes the durable outbox, which delivers its remaining notifications after a restart.
+     */
+    @Override
+    public void close() {
+        if(notificationOutbox != null){
+            notificationOutbox.close();
+        }
+        if(partitionedNotificationDispatcher != null){
+            partitionedNotificationDispatcher.close();
+        }
+        if(notificationPublisher instanceof RingBufferNotificationPublisher){
+            ((RingBufferNotificationPublisher) notificationPublisher).close();
+        }
+    }
+
+    /**
+     * Invalidates the cached responses which a notification affects and retrieves the {@link INotificationHandler} of
+     * the notification.
+     *
+     * @param notification The {@link INotification} which is published.
+     * @param <T> The type of the {@link INotification}.
+     * @return The {@link INotificationHandler} of the notification, which is empty if unhandled notifications are ignored.
+     */
+    @SuppressWarnings("unchecked")
+    <T extends INotification> List<INotificationHandler<T>> resolveNotificationHandlers(T notification){
+        responseCacheManager.onNotificationPublished(notification);
+        return (List<INotificationHandler<T>>)(Object)notificationHandlerProvider.getNotificationHandlers(notification.getClass());
+    }
+
+    /**
+     * Hands a notification to the {@link INotificationPublisher}, recording a {@link NotificationPublishEvent} when
+     * the JDK Flight Recorder is running.
+     *
+     * @param notification The {@link INotification} which should be send to all of its {@link INotificationHandler}.
+     * @param notificationHandlers The {@link INotificationHandler} of the notification.
+     * @param <T> The type of the {@link INotification}.
+     */
+    private <T extends INotification> void publishToHandlers(T notification, List<INotificationHandler<T>> notificationHandlers){
+        if(FLIGHT_RECORDER_PRESENT && FlightRecorderEvents.isInitialized()){
+            FlightRecorderEvents.publish(notificationPublisher, notification, notificationHandlers);
+            return;
+        }
+        notificationPublisher.publish(notification, notificationHandlers);
+    }
+
+    /**
+     * Carries the {@link Deadline} of the current thread over to an action which runs on another thread.
+     *
+     * @param action The action which handles a request.
+     * @param <R> The type of the response.
+     * @return The action, which runs under the current {@link Deadline} if there is one.
+     */
+    private static <R> Supplier<R> withDeadline(Supplier<R> action){
+        Deadline deadline = Deadline.current();
+        if(deadline == null){
+            return action;
+        }
+        return () -> Deadline.call(deadline, null, 0, action);
+    }
+
+    /**
+     * Creates the {@link IRequestInvoker} of a request type from its decorated {@link IRequestHandler}.
+     *
+     * @param requestType The type of the {@link IRequest}.
+     * @return The {@link IRequestInvoker} of the request type.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private IRequestInvoker<?, ?> createRequestInvoker(Class<?> requestType){
+        return RequestInvokers.create(requestType, requestHandlerProvider.getRequestHandler((Class) requestType));
+    }
+
+    /**
+     * Creates the {@link INotificationPublisher} which is used by the publish method.
+     *
+     * @param mediatorContext The {@link MediatorContext} of the handlers and configuration.
+     * @return The {@link INotificationPublisher} bean, or a publisher based on the configuration properties.
+     */
+    private INotificationPublisher createNotificationPublisher(MediatorContext mediatorContext){
+        INotificationPublisher configuredPublisher = mediatorContext.getNotificationPublisher();
+        if(configuredPublisher != null){
+            return configuredPublisher;
+        }
+
+        int ringBufferSize = mediatorContext.getProperty(RING_BUFFER_SIZE_PROPERTY, Integer.class, 0);
+        if(ringBufferSize > 0){
+            WaitStrategy waitStrategy = mediatorContext.getProperty(RING_BUFFER_WAIT_STRATEGY_PROPERTY, WaitStrategy.class, WaitStrategy.PARK);
+            boolean multiProducer = mediatorContext.getProperty(RING_BUFFER_MULTI_PRODUCER_PROPERTY, Boolean.class, true);
+            return new RingBufferNotificationPublisher(ringBufferSize, waitStrategy, multiProducer);
+        }
+
+        if(mediatorContext.getProperty(PARALLEL_PUBLISH_PROPERTY, Boolean.class, false)){
+            PublishFailurePolicy failurePolicy = mediatorContext.getProperty(PUBLISH_FAILURE_POLICY_PROPERTY, PublishFailurePolicy.class, PublishFailurePolicy.FAIL_FAST);
+            return new ParallelNotificationPublisher(handlerExecutorProvider.getDefaultExecutor(), failurePolicy);
+        }
+        return new SequentialNotificationPublisher();
+    }
+
+    /**
+     * Creates the {@link PartitionedNotificationDispatcher} which handles the {@link IPartitionedNotification}.
+     *
+     * @param mediatorContext The {@link MediatorContext} of the handlers and configuration.
+     * @return The {@link PartitionedNotificationDispatcher}, or null if partitioned publishing is disabled.
+     */
+    private PartitionedNotificationDispatcher createPartitionedNotificationDispatcher(MediatorContext mediatorContext){
+        int partitionCount = mediatorContext.getProperty(PARTITIONED_PUBLISH_PROPERTY, Integer.class, 0);
+        if(partitionCount <= 0){
+            return null;
+        }
+        return new PartitionedNotificationDispatcher(partitionCount, mediatorContext.getProperty(PARTITION_QUEUE_CAPACITY_PROPERTY, Integer.class, 1024));
+    }
+
+    /**
+     * Creates the {@link NotificationOutbox} which makes publishing durable.
+     *
+     * @param mediatorContext The {@link MediatorContext} of the handlers and configuration.
+     * @param notificationHandlerProvider The {@link NotificationHandlerProvider} of the handlers.
+     * @return The {@link NotificationOutbox}, or null if the outbox is disabled.
+     */
+    private NotificationOutbox createNotificationOutbox(MediatorContext mediatorContext, NotificationHandlerProvider notificationHandlerProvider){
+        String directory = mediatorContext.getProperty(OUTBOX_DIRECTORY_PROPERTY, String.class, null);
+        if(directory == null || directory.isEmpty()){
+            return null;
+        }
+
+        INotificationSerializer notificationSerializer = mediatorContext.getNotificationSerializer();
+        return new NotificationOutbox(
+                Paths.get(directory),
+                mediatorContext.getProperty(OUTBOX_SEGMENT_SIZE_PROPERTY, Integer.class, 64 * 1024 * 1024),
+                notificationSerializer != null ? notificationSerializer : new JavaNotificationSerializer(),
+                notificationHandlerProvider,
+                mediatorContext.getClassLoader(),
+                TimeUnit.MILLISECONDS.toNanos(mediatorContext.getProperty(OUTBOX_RETRY_DELAY_PROPERTY, Long.class, 1000L)),
+                mediatorContext.getProperty(OUTBOX_MAX_ATTEMPTS_PROPERTY, Integer.class, 10)
+        );
+    }
+
+    /**
+     * Creates the {@link IHandlerMetricsProvider} which measures the handlers.
+     *
+     * @param mediatorContext The {@link MediatorContext} of the handlers and configuration.
+     * @return The {@link IHandlerMetricsProvider} bean, a {@link HandlerMetricsRegistry} if {@value #METRICS_PROPERTY} is true, or null.
+     */
+    private IHandlerMetricsProvider createHandlerMetricsProvider(MediatorContext mediatorContext){
+        IHandlerMetricsProvider configuredProvider = mediatorContext.getHandlerMetricsProvider();
+        if(configuredProvider != null){
+            return configuredProvider;
+        }
+
+        if(mediatorContext.getProperty(METRICS_PROPERTY, Boolean.class, false)){
+            return new HandlerMetricsRegistry();
         }
+        return null;
     }
 
 }
@@ -0,0 +1,491 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dirkheijnen.mediator.implementation;
+
+import com.dirkheijnen.mediator.interfaces.IHandlerMetricsProvider;
+import com.dirkheijnen.mediator.interfaces.INotification;
+import com.dirkheijnen.mediator.interfaces.INotificationHandler;
+import com.dirkheijnen.mediator.interfaces.INotificationPublisher;
+import com.dirkheijnen.mediator.interfaces.INotificationSerializer;
+import com.dirkheijnen.mediator.interfaces.IPipelineBehavior;
+import com.dirkheijnen.mediator.interfaces.IRequest;
+import com.dirkheijnen.mediator.interfaces.IRequestHandler;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.NumberUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ *  Builds a {@link Mediator} without a Spring application context, from handlers and other components which are
+ *  registered explicitly. The {@link Mediator} behaves the same as the {@link Mediator} bean: the annotations on the
+ *  handlers and requests are honoured, and the configuration properties of the {@link Mediator} can be set with
+ *  {@link #property(String, Object)}.
+ *
+ *  A handler is registered as an instance, or as a {@link Supplier} which is called once when the handler is first
+ *  needed. The request or notification type of a handler is resolved from its generic types, unless it is given
+ *  explicitly, which is required for lambdas and suppliers.
+ *
+ *  @author Dirk Heijnen
+ *  @since 1.1
+ */
+public class MediatorBuilder {
+
+    private final Map<String, Supplier<?>> requestHandlers = new LinkedHashMap<>();
+
+    private final Map<String, Supplier<?>> notificationHandlers = new LinkedHashMap<>();
+
+    private final Map<String, Class<?>[]> handlerTypes = new HashMap<>();
+
+    private final List<IPipelineBehavior<?, ?>> pipelineBehaviors = new ArrayList<>();
+
+    private final Map<String, Executor> executors = new HashMap<>();
+
+    private final List<Object> components = new ArrayList<>();
+
+    private final Map<String, Object> properties = new HashMap<>();
+
+    private INotificationPublisher notificationPublisher;
+
+    private IHandlerMetricsProvider handlerMetricsProvider;
+
+    private INotificationSerializer notificationSerializer;
+
+    /**
+     * Registers an {@link IRequestHandler}, whose request type is resolved from its generic types.
+     *
+     * @param requestHandler The {@link IRequestHandler}.
+     * @return This {@link MediatorBuilder}.
+     */
+    public MediatorBuilder requestHandler(IRequestHandler<?, ?> requestHandler){
+        requestHandlers.put("requestHandler#" + requestHandlers.size(), () -> requestHandler);
+        return this;
+    }
+
+    /**
+     * Registers an {@link IRequestHandler} for the given request type.
+     *
+     * @param requestType The {@link IRequest} type which is handled.
+     * @param requestHandler The {@link IRequestHandler}.
+     * @param <C> The type of the request which must implement the {@link IRequest} interface.
+     * @param <R> The type of the response which must match the type of the {@link IRequest}.
+     * @return This {@link MediatorBuilder}.
+     */
+    public <C extends IRequest<R>, R> MediatorBuilder requestHandler(Class<C> requestType, IRequestHandler<C, R> requestHandler){
+        return requestHandler(requestType, () -> requestHandler);
+    }
+
+    /**
+     * Registers the {@link Supplier} of an {@link IRequestHandler} for the given request type. The supplier is called
+     * once, when the {@link Mediator} is built, or on the first dispatch when the handlers are lazy.
+     *
+     * @param requestType The {@link IRequest} type which is handled.
+     * @param requestHandler The {@link Supplier} of the {@link IRequestHandler}.
+     * @param <C> The type of the request which must implement the {@link IRequest} interface.
+     * @param <R> The type of the response which must match the type of the {@link IRequest}.
+     * @return This {@link MediatorBuilder}.
+     */
+    public <C extends IRequest<R>, R> MediatorBuilder requestHandler(Class<C> requestType, Supplier<? extends IRequestHandler<C, R>> requestHandler){
+        String name = "requestHandler#" + requestHandlers.size();
+        requestHandlers.put(name, requestHandler);
+        handlerTypes.put(name, new Class<?>[]{ requestType, Object.class });
+        return this;
+    }
+
+    /**
+     * Registers an {@link INotificationHandler}, whose notification type is resolved from its generic type.
+     *
+     * @param notificationHandler The {@link INotificationHandler}.
+     * @return This {@link MediatorBuilder}.
+     */
+    public MediatorBuilder notificationHandler(INotificationHandler<?> notificationHandler){
+        notificationHandlers.put("notificationHandler#" + notificationHandlers.size(), () -> notificationHandler);
+        return this;
+    }
+
+    /**
+     * Registers an {@link INotificationHandler} for the given notification type.
+     *
+     * @param notificationType The {@link INotification} type which is handled.
+     * @param notificationHandler The {@link INotificationHandler}.
+     * @param <T> The type of the notification which must implement the {@link INotification} interface.
+     * @return This {@link MediatorBuilder}.
+     */
+    public <T extends INotification> MediatorBuilder notificationHandler(Class<T> notificationType, INotificationHandler<T> notificationHandler){
+        return notificationHandler(notificationType, () -> notificationHandler);
+    }
+
+    /**
+     * Registers the {@link Supplier} of an {@link INotificationHandler} for the given notification type. The supplier
+     * is called once, when the {@link Mediator} is built, or on the first publish when the handlers are lazy.
+     *
+     * @param notificationType The {@link INotification} type which is handled.
+     * @param notificationHandler The {@link Supplier} of the {@link INotificationHandler}.
+     * @param <T> The type of the notification which must implement the {@link INotification} interface.
+     * @return This {@link MediatorBuilder}.
+     */
+    public <T extends INotification> MediatorBuilder notificationHandler(Class<T> notificationType, Supplier<? extends INotificationHandler<T>> notificationHandler){
+        String name = "notificationHandler#" + notificationHandlers.size();
+        notificationHandlers.put(name, notificationHandler);
+        handlerTypes.put(name, new Class<?>[]{ notificationType });
+        return this;
+    }
+
+    /**
+     * Registers an {@link IPipelineBehavior}. The behaviors are ordered by their order annotation or interface, and
+     * otherwise run in the order in which they are registered.
+     *
+     * @param pipelineBehavior The {@link IPipelineBehavior}.
+     * @return This {@link MediatorBuilder}.
+     */
+    public MediatorBuilder pipelineBehavior(IPipelineBehavior<?, ?> pipelineBehavior){
+        pipelineBehaviors.add(pipelineBehavior);
+        return this;
+    }
+
+    /**
+     * Sets the {@link INotificationPublisher} which invokes the handlers of a published notification.
+     *
+     * @param notificationPublisher The {@link INotificationPublisher}.
+     * @return This {@link MediatorBuilder}.
+     */
+    public MediatorBuilder notificationPublisher(INotificationPublisher notificationPublisher){
+        this.notificationPublisher = notificationPublisher;
+        return this;
+    }
+
+    /**
+     * Sets the {@link IHandlerMetricsProvider} which measures the handlers.
+     *
+     * @param handlerMetricsProvider The {@link IHandlerMetricsProvider}.
+     * @return This {@link MediatorBuilder}.
+     */
+    public MediatorBuilder handlerMetricsProvider(IHandlerMetricsProvider handlerMetricsProvider){
+        this.handlerMetricsProvider = handlerMetricsProvider;
+        return this;
+    }
+
+    /**
+     * Sets the {@link INotificationSerializer} which writes notifications to the journal of the durable outbox.
+     *
+     * @param notificationSerializer The {@link INotificationSerializer}.
+     * @return This {@link MediatorBuilder}.
+     */
+    public MediatorBuilder notificationSerializer(INotificationSerializer notificationSerializer){
+        this.notificationSerializer = notificationSerializer;
+        return this;
+    }
+
+    /**
+     * Registers an {@link Executor} under a name, which handlers select with their
+     * {@link com.dirkheijnen.mediator.annotations.HandlerExecutor} annotation.
+     *
+     * @param name The name of the {@link Executor}.
+     * @param executor The {@link Executor}.
+     * @return This {@link MediatorBuilder}.
+     */
+    public MediatorBuilder executor(String name, Executor executor){
+        executors.put(name, executor);
+        return this;
+    }
+
+    /**
+     * Sets the default {@link Executor}, which runs the asynchronous handlers without an executor of their own.
+     *
+     * @param executor The default {@link Executor}.
+     * @return This {@link MediatorBuilder}.
+     */
+    public MediatorBuilder defaultExecutor(Executor executor){
+        return executor(HandlerExecutorProvider.DEFAULT_EXECUTOR_BEAN_NAME, executor);
+    }
+
+    /**
+     * Registers a component which is used instead of a new instance of its class, such as an
+     * {@link com.dirkheijnen.mediator.interfaces.IResponseWeigher} which needs constructor arguments.
+     *
+     * @param component The component.
+     * @return This {@link MediatorBuilder}.
+     */
+    public MediatorBuilder component(Object component){
+        components.add(component);
+        return this;
+    }
+
+    /**
+     * Sets a configuration property, such as {@value Mediator#PARALLEL_PUBLISH_PROPERTY}.
+     *
+     * @param key The name of the property.
+     * @param value The value of the property, which is converted to the type of the property.
+     * @return This {@link MediatorBuilder}.
+     */
+    public MediatorBuilder property(String key, Object value){
+        properties.put(key, value);
+        return this;
+    }
+
+    /**
+     * Builds the {@link Mediator} from the registered handlers and components.
+     *
+     * @return The {@link Mediator}.
+     */
+    public Mediator build(){
+        return new Mediator(new RegisteredMediatorContext(this));
+    }
+
+    /**
+     * The {@link MediatorContext} of the handlers and components registered on a {@link MediatorBuilder}.
+     * It takes a copy of the registrations, so the builder can be reused.
+     *
+     * Annotations and orders are read with plain reflection instead of the merged annotation support of Spring, which
+     * takes longer to initialize than a short-lived process can spare. Composed annotations are therefore not supported.
+     */
+    private static final class RegisteredMediatorContext extends MediatorContext {
+
+        private final Map<String, Supplier<?>> handlers = new HashMap<>();
+
+        private final String[] requestHandlerNames;
+
+        private final String[] notificationHandlerNames;
+
+        private final Map<String, Class<?>[]> handlerTypes;
+
+        private final Map<String, Object> resolvedHandlers = new ConcurrentHashMap<>();
+
+        private final List<IPipelineBehavior<?, ?>> pipelineBehaviors;
+
+        private final Map<String, Executor> executors;
+
+        private final List<Object> components;
+
+        private final Map<String, Object> properties;
+
+        private final INotificationPublisher notificationPublisher;
+
+        private final IHandlerMetricsProvider handlerMetricsProvider;
+
+        private final INotificationSerializer notificationSerializer;
+
+        /**
+         * The constructor of the {@link RegisteredMediatorContext} class.
+         *
+         * @param builder The {@link MediatorBuilder} whose registrations are copied.
+         */
+        private RegisteredMediatorContext(MediatorBuilder builder){
+            this.handlers.putAll(builder.requestHandlers);
+            this.handlers.putAll(builder.notificationHandlers);
+            this.requestHandlerNames = builder.requestHandlers.keySet().toArray(new String[0]);
+            this.notificationHandlerNames = builder.notificationHandlers.keySet().toArray(new String[0]);
+            this.handlerTypes = new HashMap<>(builder.handlerTypes);
+            this.pipelineBehaviors = new ArrayList<>(builder.pipelineBehaviors);
+            this.pipelineBehaviors.sort(Comparator.comparingInt(RegisteredMediatorContext::getOrder));
+            this.executors = new HashMap<>(builder.executors);
+            this.components = new ArrayList<>(builder.components);
+            this.properties = new HashMap<>(builder.properties);
+            this.notificationPublisher = builder.notificationPublisher;
+            this.handlerMetricsProvider = builder.handlerMetricsProvider;
+            this.notificationSerializer = builder.notificationSerializer;
+        }
+
+        @Override
+        public String[] getRequestHandlerBeanNames() {
+            return requestHandlerNames.clone();
+        }
+
+        @Override
+        public String[] getNotificationHandlerBeanNames() {
+            return notificationHandlerNames.clone();
+        }
+
+        @Override
+        public IRequestHandler<?, ?> getRequestHandlerByBeanName(String beanName) {
+            return (IRequestHandler<?, ?>) getHandler(beanName);
+        }
+
+        @Override
+        public INotificationHandler<?> getNotificationHandlerByBeanName(String beanName) {
+            return (INotificationHandler<?>) getHandler(beanName);
+        }
+
+        @Override
+        public Class<?>[] getGenericTypesOfRequestHandler(String beanName) {
+            Class<?>[] registeredTypes = handlerTypes.get(beanName);
+            return registeredTypes != null ? registeredTypes : super.getGenericTypesOfRequestHandler(beanName);
+        }
+
+        @Override
+        public Class<?> getGenericTypeOfNotificationHandler(String beanName) {
+            Class<?>[] registeredTypes = handlerTypes.get(beanName);
+            return registeredTypes != null ? registeredTypes[0] : super.getGenericTypeOfNotificationHandler(beanName);
+        }
+
+        @Override
+        public List<IPipelineBehavior<?, ?>> getPipelineBehaviors() {
+            return pipelineBehaviors;
+        }
+
+        @Override
+        public INotificationPublisher getNotificationPublisher() {
+            return notificationPublisher;
+        }
+
+        @Override
+        public IHandlerMetricsProvider getHandlerMetricsProvider() {
+            return handlerMetricsProvider;
+        }
+
+        @Override
+        public INotificationSerializer getNotificationSerializer() {
+            return notificationSerializer;
+        }
+
+        @Override
+        public <T> T getOrCreateBean(Class<T> type) {
+            for(Object component : components){
+                if(type.isInstance(component)){
+                    return type.cast(component);
+                }
+            }
+
+            try {
+                return ReflectionUtils.accessibleConstructor(type).newInstance();
+            } catch (ReflectiveOperationException e){
+                throw new IllegalStateException("Unable to create an instance of " + type.getCanonicalName() + ", register it as a component instead", e);
+            }
+        }
+
+        /**
+         * Retrieves a configuration property, converting a {@link String} value to a boolean, number or enum.
+         * The conversion is done here rather than with a conversion service, to keep the startup of the mediator short.
+         *
+         * @param key The name of the property.
+         * @param type The type to which the value of the property is converted.
+         * @param defaultValue The value which is returned if the property is not set.
+         * @param <T> The type of the property.
+         * @return The value of the property, or the default value if the property is not set.
+         * @throws IllegalArgumentException If the value cannot be converted to the type of the property.
+         */
+        @Override
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        public <T> T getProperty(String key, Class<T> type, T defaultValue) {
+            Object value = properties.get(key);
+            if(value == null){
+                return defaultValue;
+            }
+
+            Class<?> targetType = ClassUtils.resolvePrimitiveIfNecessary(type);
+            if(targetType.isInstance(value)){
+                return (T) value;
+            }
+
+            String text = value.toString().trim();
+            if(targetType == String.class){
+                return (T) text;
+            } else if(targetType == Boolean.class){
+                return (T) Boolean.valueOf(text);
+            } else if(Number.class.isAssignableFrom(targetType)){
+                return (T) NumberUtils.parseNumber(text, (Class<? extends Number>) targetType);
+            } else if(targetType.isEnum()){
+                return (T) Enum.valueOf((Class<? extends Enum>) targetType, text);
+            }
+            throw new IllegalArgumentException("The property " + key + " cannot be converted to " + type.getCanonicalName());
+        }
+
+        /**
+         * Finds an annotation on a handler or request class, its superclasses or its interfaces.
+         *
+         * @param type The class on which the annotation must be found.
+         * @param annotationType The type of the annotation.
+         * @param <A> The type of the annotation.
+         * @return The annotation, or null if the class is not annotated.
+         */
+        @Override
+        public <A extends Annotation> A findAnnotation(Class<?> type, Class<A> annotationType) {
+            for(Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()){
+                A annotation = current.getDeclaredAnnotation(annotationType);
+                if(annotation != null){
+                    return annotation;
+                }
+                for(Class<?> implementedInterface : current.getInterfaces()){
+                    annotation = findAnnotation(implementedInterface, annotationType);
+                    if(annotation != null){
+                        return annotation;
+                    }
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public Executor getExecutorByBeanName(String beanName) {
+            return executors.get(beanName);
+        }
+
+        @Override
+        protected Class<?> getBeanType(String beanName) {
+            return null;
+        }
+
+        @Override
+        protected ClassLoader getClassLoader() {
+            return ClassUtils.getDefaultClassLoader();
+        }
+
+        /**
+         * Retrieves the order of a component, from the {@link Ordered} interface or the {@link Order} annotation.
+         *
+         * @param component The component.
+         * @return The order of the component, or {@link Ordered#LOWEST_PRECEDENCE} if it has none.
+         */
+        private static int getOrder(Object component){
+            if(component instanceof Ordered){
+                return ((Ordered) component).getOrder();
+            }
+            Order order = component.getClass().getAnnotation(Order.class);
+            return order != null ? order.value() : Ordered.LOWEST_PRECEDENCE;
+        }
+
+        /**
+         * Retrieves the handler with the given name, calling its {@link Supplier} on first use.
+         *
+         * @param name The name of the handler.
+         * @return The handler.
+         * @throws IllegalStateException If the {@link Supplier} of the handler returns null.
+         */
+        private Object getHandler(String name){
+            return resolvedHandlers.computeIfAbsent(name, handlerName -> {
+                Object handler = handlers.get(handlerName).get();
+                if(handler == null){
+                    throw new IllegalStateException("The supplier of " + handlerName + " returned null");
+                }
+                return handler;
+            });
+        }
+
+    }
+
+}
@@ -0,0 +1,272 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dirkheijnen.mediator.implementation;
+
+import com.dirkheijnen.mediator.annotations.HandlerExecutor;
+import com.dirkheijnen.mediator.interfaces.IHandlerMetricsProvider;
+import com.dirkheijnen.mediator.interfaces.INotificationHandler;
+import com.dirkheijnen.mediator.interfaces.INotificationPublisher;
+import com.dirkheijnen.mediator.interfaces.INotificationSerializer;
+import com.dirkheijnen.mediator.interfaces.IPipelineBehavior;
+import com.dirkheijnen.mediator.interfaces.IRequest;
+import com.dirkheijnen.mediator.interfaces.IRequestHandler;
+import org.springframework.core.GenericTypeResolver;
+import org.springframework.core.annotation.AnnotationUtils;
+
+import java.lang.annotation.Annotation;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ *  The source of the handlers, extensions and configuration of a {@link Mediator}. Every handler, executor and other
+ *  component is registered under a name, which the providers use to retrieve it.
+ *
+ *  The {@link ApplicationContextHelper} reads all of these from a Spring application context, the
+ *  {@link MediatorBuilder} from the components which are registered on it.
+ *
+ *  @author Dirk Heijnen
+ *  @since 1.1
+ */
+public abstract class MediatorContext {
+
+    private HandlerIndex handlerIndex;
+
+    /**
+     * Retrieves the names of all the registered {@link IRequestHandler}.
+     *
+     * @return An array of {@link String} which contains all the names of the {@link IRequestHandler}.
+     */
+    public abstract String[] getRequestHandlerBeanNames();
+
+    /**
+     * Retrieves the names of all the registered {@link INotificationHandler}.
+     *
+     * @return An array of {@link String} which contains all the names of the {@link INotificationHandler}.
+     */
+    public abstract String[] getNotificationHandlerBeanNames();
+
+    /**
+     * Retrieves the {@link IRequestHandler} with the given name, creating it if that did not happen yet.
+     *
+     * @param beanName The name of the {@link IRequestHandler} to be found.
+     * @return The {@link IRequestHandler} matching the provided name.
+     */
+    public abstract IRequestHandler<?, ?> getRequestHandlerByBeanName(String beanName);
+
+    /**
+     * Retrieves the {@link INotificationHandler} with the given name, creating it if that did not happen yet.
+     *
+     * @param beanName The name of the {@link INotificationHandler} to be found.
+     * @return The {@link INotificationHandler} matching the provided name.
+     */
+    public abstract INotificationHandler<?> getNotificationHandlerByBeanName(String beanName);
+
+    /**
+     * Retrieves all the {@link IPipelineBehavior}, sorted by their order.
+     *
+     * @return The {@link IPipelineBehavior}, the behavior with the highest precedence first.
+     */
+    public abstract List<IPipelineBehavior<?, ?>> getPipelineBehaviors();
+
+    /**
+     * Retrieves the registered {@link INotificationPublisher}.
+     *
+     * @return The {@link INotificationPublisher}, or null if there is no unique {@link INotificationPublisher}.
+     */
+    public abstract INotificationPublisher getNotificationPublisher();
+
+    /**
+     * Retrieves the registered {@link IHandlerMetricsProvider}.
+     *
+     * @return The {@link IHandlerMetricsProvider}, or null if there is no unique {@link IHandlerMetricsProvider}.
+     */
+    public abstract IHandlerMetricsProvider getHandlerMetricsProvider();
+
+    /**
+     * Retrieves the registered {@link INotificationSerializer}.
+     *
+     * @return The {@link INotificationSerializer}, or null if there is no unique {@link INotificationSerializer}.
+     */
+    public abstract INotificationSerializer getNotificationSerializer();
+
+    /**
+     * Retrieves the registered component of the given type, or creates a new instance of the type if there is none.
+     *
+     * @param type The type of the component.
+     * @param <T> The type of the component.
+     * @return The component of the given type, or a new instance created with the no-argument constructor of the type.
+     */
+    public abstract <T> T getOrCreateBean(Class<T> type);
+
+    /**
+     * Retrieves a configuration property.
+     *
+     * @param key The name of the property.
+     * @param type The type to which the value of the property is converted.
+     * @param defaultValue The value which is returned if the property is not set.
+     * @param <T> The type of the property.
+     * @return The value of the property, or the default value if the property is not set.
+     */
+    public abstract <T> T getProperty(String key, Class<T> type, T defaultValue);
+
+    /**
+     * Retrieves the {@link Executor} with the given name.
+     *
+     * @param beanName The name of the {@link Executor} to be found.
+     * @return The {@link Executor} matching the provided name, or null if no such {@link Executor} exists.
+     */
+    public abstract Executor getExecutorByBeanName(String beanName);
+
+    /**
+     * Retrieves the type of the handler with the given name, without creating the handler.
+     *
+     * @param beanName The name of the handler.
+     * @return The type of the handler, or null if it cannot be determined without creating the handler.
+     */
+    protected abstract Class<?> getBeanType(String beanName);
+
+    /**
+     * Retrieves the {@link ClassLoader} which loads the handler classes.
+     *
+     * @return The {@link ClassLoader} of the handler classes.
+     */
+    protected abstract ClassLoader getClassLoader();
+
+    /**
+     * Retrieves the generic types of the {@link IRequestHandler}, from the {@link HandlerIndex} when the handler is indexed.
+     * This will have 2 entries:
+     *      [0] = The {@link IRequest} type.
+     *      [1] = The response type of the {@link IRequest}.
+     *
+     * @param requestHandler The {@link IRequestHandler} for which the generic types must be found.
+     * @return An array of the generics types of the provided {@link IRequestHandler}.
+     */
+    public Class<?>[] getGenericTypesOfRequestHandler(IRequestHandler<?, ?> requestHandler){
+        return getGenericTypesOfRequestHandler(requestHandler.getClass());
+    }
+
+    /**
+     * Retrieves the generic types of the {@link IRequestHandler} with the given name, from its type if possible.
+     * The handler is only created when its generic types cannot be determined without creating it.
+     *
+     * @param beanName The name of the {@link IRequestHandler}.
+     * @return An array of the generics types of the {@link IRequestHandler}.
+     */
+    public Class<?>[] getGenericTypesOfRequestHandler(String beanName){
+        Class<?> beanType = getBeanType(beanName);
+        Class<?>[] requestHandlerTypes = beanType != null ? getGenericTypesOfRequestHandler(beanType) : null;
+        return requestHandlerTypes != null ? requestHandlerTypes : getGenericTypesOfRequestHandler(getRequestHandlerByBeanName(beanName));
+    }
+
+    /**
+     * Retrieves the generic types of an {@link IRequestHandler} class, from the {@link HandlerIndex} when the class is indexed.
+     *
+     * @param requestHandlerType The {@link IRequestHandler} class for which the generic types must be found.
+     * @return An array of the generics types of the {@link IRequestHandler} class, or null if they cannot be resolved.
+     */
+    protected Class<?>[] getGenericTypesOfRequestHandler(Class<?> requestHandlerType){
+        Class<?>[] indexedTypes = getHandlerIndex().getRequestHandlerTypes(requestHandlerType);
+        if(indexedTypes != null){
+            return indexedTypes;
+        }
+        return GenericTypeResolver.resolveTypeArguments(requestHandlerType, IRequestHandler.class);
+    }
+
+    /**
+     * Retrieves the generic type of the {@link INotificationHandler}, from the {@link HandlerIndex} when the handler is indexed.
+     *
+     * @param notificationHandler The {@link IRequestHandler} for which the generic types must be found.
+     * @return The generic type of the provided {@link INotificationHandler}.
+     */
+    public Class<?> getGenericTypeOfNotificationHandler(INotificationHandler<?> notificationHandler) {
+        return getGenericTypeOfNotificationHandler(notificationHandler.getClass());
+    }
+
+    /**
+     * Retrieves the generic type of the {@link INotificationHandler} with the given name, from its type if possible.
+     * The handler is only created when its generic type cannot be determined without creating it.
+     *
+     * @param beanName The name of the {@link INotificationHandler}.
+     * @return The generic type of the {@link INotificationHandler}.
+     */
+    public Class<?> getGenericTypeOfNotificationHandler(String beanName) {
+        Class<?> beanType = getBeanType(beanName);
+        Class<?> notificationType = beanType != null ? getGenericTypeOfNotificationHandler(beanType) : null;
+        return notificationType != null ? notificationType : getGenericTypeOfNotificationHandler(getNotificationHandlerByBeanName(beanName));
+    }
+
+    /**
+     * Retrieves the generic type of an {@link INotificationHandler} class, from the {@link HandlerIndex} when the class is indexed.
+     *
+     * @param notificationHandlerType The {@link INotificationHandler} class for which the generic type must be found.
+     * @return The generic type of the {@link INotificationHandler} class, or null if it cannot be resolved.
+     */
+    protected Class<?> getGenericTypeOfNotificationHandler(Class<?> notificationHandlerType) {
+        Class<?> indexedType = getHandlerIndex().getNotificationHandlerType(notificationHandlerType);
+        if(indexedType != null){
+            return indexedType;
+        }
+        return GenericTypeResolver.resolveTypeArgument(notificationHandlerType, INotificationHandler.class);
+    }
+
+    /**
+     * Retrieves the request type to which an {@link IPipelineBehavior} applies.
+     *
+     * @param pipelineBehavior The {@link IPipelineBehavior} for which the request type must be found.
+     * @return The request type of the {@link IPipelineBehavior}, or {@link IRequest} if its type argument is generic.
+     */
+    public Class<?> getRequestTypeOfPipelineBehavior(IPipelineBehavior<?, ?> pipelineBehavior){
+        Class<?>[] pipelineBehaviorTypes = GenericTypeResolver.resolveTypeArguments(pipelineBehavior.getClass(), IPipelineBehavior.class);
+        return pipelineBehaviorTypes != null ? pipelineBehaviorTypes[0] : IRequest.class;
+    }
+
+    /**
+     * Finds an annotation on a handler or request class, its superclasses or its interfaces.
+     *
+     * @param type The class on which the annotation must be found.
+     * @param annotationType The type of the annotation.
+     * @param <A> The type of the annotation.
+     * @return The annotation, or null if the class is not annotated.
+     */
+    public <A extends Annotation> A findAnnotation(Class<?> type, Class<A> annotationType){
+        return AnnotationUtils.findAnnotation(type, annotationType);
+    }
+
+    /**
+     * Retrieves the name of the {@link Executor} which is selected by the {@link HandlerExecutor} annotation of a handler.
+     *
+     * @param handlerType The class of the {@link IRequestHandler} or {@link INotificationHandler}.
+     * @return The name of the {@link Executor}, or null if the handler is not annotated.
+     */
+    public String getHandlerExecutorBeanName(Class<?> handlerType){
+        HandlerExecutor handlerExecutor = findAnnotation(handlerType, HandlerExecutor.class);
+        return handlerExecutor != null ? handlerExecutor.value() : null;
+    }
+
+    /**
+     * Retrieves the {@link HandlerIndex} of the {@link ClassLoader} of the handler classes, which is read on first use.
+     *
+     * @return The {@link HandlerIndex}.
+     */
+    private HandlerIndex getHandlerIndex(){
+        if(handlerIndex == null){
+            handlerIndex = HandlerIndex.load(getClassLoader());
+        }
+        return handlerIndex;
+    }
+
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dirkheijnen.mediator.implementation;
+
+import com.dirkheijnen.mediator.annotations.MicroBatch;
+import com.dirkheijnen.mediator.interfaces.IBatchRequestHandler;
+import com.dirkheijnen.mediator.interfaces.IRequest;
+
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *  The {@link MicroBatchingRequestHandler} coalesces concurrent requests into batches for an {@link IBatchRequestHandler}
+ *  annotated with {@link MicroBatch}.
+ *
+ *  The first request of a batch becomes its leader. The leader waits until the batch is full or the maximum wait time
+ *  has passed, then invokes the {@link IBatchRequestHandler} on its own thread and hands every waiting caller the
+ *  response of its own request. No additional threads are used.
+ *
+ *  @author Dirk Heijnen
+ *  @since 1.1
+ *
+ *  @param <C> The type of the request which must implement the {@link IRequest} interface.
+ *  @param <R> The type of the response which must match the type of the {@link IRequest}.
+ */
+public class MicroBatchingRequestHandler<C extends IRequest<R>, R> extends DelegatingRequestHandler<C, R> implements IBatchRequestHandler<C, R> {
+
+    private final IBatchRequestHandler<C, R> batchRequestHandler;
+
+    private final int maxSize;
+
+    private final long maxWaitNanos;
+
+    private final Object lock = new Object();
+
+    private Batch<C, R> pendingBatch;
+
+    /**
+     * The constructor of the {@link MicroBatchingRequestHandler} class.
+     *
+     * @param batchRequestHandler The {@link IBatchRequestHandler} which handles the batches.
+     * @param maxSize The maximum amount of requests in one batch.
+     * @param maxWaitNanos The maximum time in nanoseconds the leader of a batch waits for other requests.
+     */
+    public MicroBatchingRequestHandler(IBatchRequestHandler<C, R> batchRequestHandler, int maxSize, long maxWaitNanos){
+        super(batchRequestHandler);
+        if(maxSize < 1){
+            throw new IllegalArgumentException("The maximum batch size must be at least 1, but was " + maxSize);
+        }
+        this.batchRequestHandler = batchRequestHandler;
+        this.maxSize = maxSize;
+        this.maxWaitNanos = maxWaitNanos;
+    }
+
+    /**
+     * Adds the request to the pending batch and waits for the response of the request.
+     *
+     * @param request The {@link IRequest} containing the input data send with the request.
+     * @return The response of the request.
+     */
+    @Override
+    public R handle(C request) {
+        Batch<C, R> batch;
+        int index;
+        boolean leader = false;
+
+        synchronized (lock){
+            batch = pendingBatch;
+            if(batch == null){
+                batch = new Batch<>(maxSize);
+                pendingBatch = batch;
+                leader = true;
+            }
+            index = batch.add(request);
+            if(batch.requests.size() == maxSize){
+                pendingBatch = null;
+                batch.full.countDown();
+            }
+        }
+
+        if(leader){
+            awaitFullOrTimeout(batch);
+            synchronized (lock){
+                if(pendingBatch == batch){
+                    pendingBatch = null;
+                }
+            }
+            batch.execute(batchRequestHandler);
+        } else {
+            batch.awaitCompletion();
+        }
+
+        return batch.getResponse(index);
+    }
+
+    /**
+     * Passes an explicit batch of requests directly to the {@link IBatchRequestHandler}, without coalescing.
+     *
+     * @param requests The {@link IRequest} containing the input data send with the requests.
+     * @return The responses of the requests, in the same order as the requests.
+     */
+    @Override
+    public List<R> handleAll(List<C> requests) {
+        return batchRequestHandler.handleAll(requests);
+    }
+
+    /**
+     * Waits until the batch is full or the maximum wait time has passed.
+     * An interrupt ends the wait early, the batch is then executed immediately.
+     */
+    private void awaitFullOrTimeout(Batch<C, R> batch){
+        try {
+            batch.full.await(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * The requests of one micro-batch together with the outcome of the batch.
+     */
+    private static final class Batch<C extends IRequest<R>, R> {
+
+        private final List<C> requests;
+
+        private final CountDownLatch full = new CountDownLatch(1);
+
+        private final CountDownLatch completed = new CountDownLatch(1);
+
+        private List<R> responses;
+
+        private Throwable failure;
+
+        private Batch(int maxSize){
+            this.requests = new ArrayList<>(Math.min(maxSize, 64));
+        }
+
+        private int add(C request){
+            requests.add(request);
+            return requests.size() - 1;
+        }
+
+        /**
+         * Invokes the {@link IBatchRequestHandler} and releases every caller waiting for the batch.
+         */
+        private void execute(IBatchRequestHandler<C, R> batchRequestHandler){
+            try {
+                List<R> batchResponses = batchRequestHandler.handleAll(requests);
+                if(batchResponses.size() != requests.size()){
+                    throw new IllegalStateException("The batch request handler " + DelegatingRequestHandler.unwrap(batchRequestHandler).getClass().getCanonicalName() + " returned " + batchResponses.size() + " responses for " + requests.size() + " requests");
+                }
+                responses = batchResponses;
+            } catch (Throwable e) {
+                failure = e;
+            } finally {
+                completed.countDown();
+            }
+        }
+
+        /**
+         * Waits until the leader has executed the batch. An interrupt, for example by the deadline of the caller, ends
+         * the wait. The request is already part of the batch, so it is still handled, but its response is discarded.
+         *
+         * @throws IllegalStateException If the waiting thread is interrupted.
+         */
+        private void awaitCompletion(){
+            try {
+                completed.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for the micro-batch of the request", e);
+            }
+        }
+
+        /**
+         * Retrieves the response of one request of the executed batch, or rethrows the failure of the batch. A
+         * checked exception thrown by the {@link IBatchRequestHandler} is wrapped in an
+         * {@link UndeclaredThrowableException}, since {@link MicroBatchingRequestHandler#handle(IRequest)} cannot declare it.
+         */
+        private R getResponse(int index){
+            if(failure instanceof RuntimeException){
+                throw (RuntimeException) failure;
+            } else if(failure instanceof Error){
+                throw (Error) failure;
+            } else if(failure != null){
+                throw new UndeclaredThrowableException(failure);
+            }
+            return responses.get(index);
+        }
+
+    }
+
+}
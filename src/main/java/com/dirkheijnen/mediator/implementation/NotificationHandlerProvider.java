@@ -17,28 +17,56 @@
 package com.dirkheijnen.mediator.implementation;
 
 import com.dirkheijnen.mediator.exceptions.HandlerNotFoundException;
+import com.dirkheijnen.mediator.interfaces.IHandlerMetricsProvider;
 import com.dirkheijnen.mediator.interfaces.INotification;
 import com.dirkheijnen.mediator.interfaces.INotificationHandler;
 import com.dirkheijnen.mediator.interfaces.INotificationHandlerProvider;
 import org.springframework.context.ApplicationContext;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  *  The {@link NotificationHandlerProvider} is used to store the {@link INotification} and {@link INotificationHandler} classes.
- *  Every {@link INotification} is linked to multiple {@link INotificationHandler} using a hashmap.
+ *  Every {@link INotification} is linked to multiple {@link INotificationHandler} using a {@link ClassDispatchTable},
+ *  which is frozen once all the handlers are registered.
+ *
+ *  A notification is delivered to the handlers of its own class and to the handlers of all of its superclasses and
+ *  interfaces. The combined list of handlers is computed on the first publish of a notification class and cached.
+ *  When metrics are enabled, every handler is wrapped in an {@link InstrumentedNotificationHandler}.
+ *
+ *  A notification without handlers is rejected with a {@link HandlerNotFoundException}, unless
+ *  {@value Mediator#IGNORE_UNHANDLED_NOTIFICATIONS_PROPERTY} is true. Then it receives an empty list of handlers, so
+ *  publishing it does nothing. The outcome of the lookup is cached per notification class either way.
+ *
+ *  When {@value Mediator#LAZY_HANDLERS_PROPERTY} is true, the notification type of a handler is resolved from its
+ *  bean definition, and the handler bean is only retrieved on the first publish of a notification it handles.
  *
  *  @author Dirk Heijnen
  *  @since 1.0
  */
 public class NotificationHandlerProvider implements INotificationHandlerProvider {
 
-    private final ApplicationContextHelper applicationContextHelper;
+    private final MediatorContext mediatorContext;
+
+    private final IHandlerMetricsProvider handlerMetricsProvider;
+
+    private final Map<Class<?>, List<String>> registeredNotificationHandlers;
+
+    private final ConcurrentMap<String, INotificationHandler<?>> resolvedNotificationHandlers = new ConcurrentHashMap<>();
+
+    private final ClassDispatchTable<List<String>> notificationHandlerBeanNames;
+
+    private final ClassDispatchTable<List<INotificationHandler<?>>> notificationHandlers;
 
-    private final Map<Class<? extends INotification>, List<INotificationHandler<?>>> notificationHandlers = new HashMap<>();
+    private final boolean ignoreUnhandledNotifications;
 
     /**
      * The constructor of the {@link RequestHandlerProvider} class.
@@ -46,53 +74,190 @@ public class NotificationHandlerProvider implements INotificationHandlerProvider
      * @param applicationContext {@link ApplicationContext};
      */
     public NotificationHandlerProvider(ApplicationContext applicationContext) {
-        this.applicationContextHelper = new ApplicationContextHelper(applicationContext);
+        this(applicationContext, null);
+    }
+
+    /**
+     * The constructor of the {@link NotificationHandlerProvider} class.
+     *
+     * @param applicationContext {@link ApplicationContext};
+     * @param handlerMetricsProvider The {@link IHandlerMetricsProvider} of the handlers, or null to disable metrics.
+     */
+    public NotificationHandlerProvider(ApplicationContext applicationContext, IHandlerMetricsProvider handlerMetricsProvider) {
+        this(new ApplicationContextHelper(applicationContext), handlerMetricsProvider);
+    }
 
+    /**
+     * The constructor of the {@link NotificationHandlerProvider} class.
+     *
+     * @param mediatorContext The {@link MediatorContext} from which the handlers are retrieved.
+     * @param handlerMetricsProvider The {@link IHandlerMetricsProvider} of the handlers, or null to disable metrics.
+     */
+    public NotificationHandlerProvider(MediatorContext mediatorContext, IHandlerMetricsProvider handlerMetricsProvider) {
+        this.mediatorContext = mediatorContext;
+        this.handlerMetricsProvider = handlerMetricsProvider;
+        this.ignoreUnhandledNotifications = mediatorContext.getProperty(Mediator.IGNORE_UNHANDLED_NOTIFICATIONS_PROPERTY, Boolean.class, false);
 
-        for(String notificationHandlerBeanName : applicationContextHelper.getNotificationHandlerBeanNames()){
-            this.addNotificationHandler(notificationHandlerBeanName);
+        boolean lazy = mediatorContext.getProperty(Mediator.LAZY_HANDLERS_PROPERTY, Boolean.class, false);
+        Map<Class<?>, List<String>> notificationHandlers = new HashMap<>();
+        for(String notificationHandlerBeanName : mediatorContext.getNotificationHandlerBeanNames()){
+            this.addNotificationHandler(notificationHandlerBeanName, lazy, notificationHandlers);
         }
+
+        this.registeredNotificationHandlers = Collections.unmodifiableMap(notificationHandlers);
+        this.notificationHandlerBeanNames = new ClassDispatchTable<>(this::resolveNotificationHandlerBeanNames);
+        this.notificationHandlers = new ClassDispatchTable<>(this::resolveNotificationHandlers);
     }
 
     /**
-     * Retrieve all the {@link INotificationHandler} for a given {@link INotification} class.
+     * Retrieve all the {@link INotificationHandler} for a given {@link INotification} class, including the
+     * {@link INotificationHandler} of its superclasses and interfaces.
      *
      * @param notification The {@link INotification} class for which all the corresponding {@link INotificationHandler} must be found.
      * @param <T> The type of the notification which must implement the {@link INotification} interface.
-     * @return All the {@link INotificationHandler} for the given {@link INotification} class.
-     * @throws HandlerNotFoundException If no {@link INotificationHandler} exists for the provided {@link INotification}.
+     * @return All the {@link INotificationHandler} for the given {@link INotification} class, or an empty list if
+     * none exists and unhandled notifications are ignored.
+     * @throws HandlerNotFoundException If no {@link INotificationHandler} exists for the provided {@link INotification},
+     * and unhandled notifications are not ignored.
      */
     @Override
     @SuppressWarnings("unchecked")
     public <T extends INotification> List<INotificationHandler<T>> getNotificationHandlers(Class<? extends T> notification) {
-        if(notificationHandlers.get(notification) != null) {
-            return (List<INotificationHandler<T>>)(Object) notificationHandlers.get(notification);
+        List<INotificationHandler<?>> handlers = notificationHandlers.get(notification);
+        if(handlers != null) {
+            return (List<INotificationHandler<T>>)(Object) handlers;
+        } else if(ignoreUnhandledNotifications) {
+            return Collections.emptyList();
         } else {
-            throw new HandlerNotFoundException("No notification handler exists for the notification: " + notification.getCanonicalName());
+            throw new HandlerNotFoundException("notification", notification);
         }
     }
 
     /**
-     * Find a given {@link INotificationHandler} by its bean name and stores it in a map with its {@link INotification} as key.
+     * Retrieve the bean names of all the {@link INotificationHandler} for a given {@link INotification} class, in the
+     * same order as the handlers returned by getNotificationHandlers.
      *
-     * @param beanName The name of the bean for the {@link INotificationHandler} to be found.
+     * @param notification The {@link INotification} class for which the bean names must be found.
+     * @return The bean names of the {@link INotificationHandler}, or an empty list if none exists.
      */
-    @SuppressWarnings("unchecked")
-    private void addNotificationHandler(String beanName){
-        INotificationHandler<?> notificationHandler = applicationContextHelper.getNotificationHandlerByBeanName(beanName);
-        Class<?> notificationHandlerType = applicationContextHelper.getGenericTypeOfNotificationHandler(notificationHandler);
-        Class<? extends INotification> notificationType = (Class<? extends INotification>) notificationHandlerType;
+    public List<String> getNotificationHandlerBeanNames(Class<?> notification){
+        return notificationHandlerBeanNames.get(notification);
+    }
 
+    /**
+     * Retrieve the bean names of every registered {@link INotificationHandler}.
+     *
+     * @return The bean names of the {@link INotificationHandler}.
+     */
+    public Set<String> getNotificationHandlerBeanNames(){
+        Set<String> beanNames = new LinkedHashSet<>();
+        for(List<String> registeredHandlers : registeredNotificationHandlers.values()){
+            beanNames.addAll(registeredHandlers);
+        }
+        return beanNames;
+    }
 
-        List<INotificationHandler<?>> notificationHandlers;
+    /**
+     * Registers the bean name of an {@link INotificationHandler} with its {@link INotification} as key. Unless the
+     * handlers are lazy, the {@link INotificationHandler} bean is retrieved right away.
+     *
+     * @param beanName The name of the bean for the {@link INotificationHandler} to be registered.
+     * @param lazy Whether the {@link INotificationHandler} bean is retrieved on the first publish of its notification.
+     * @param notificationHandlers The map in which the bean name is stored.
+     */
+    private void addNotificationHandler(String beanName, boolean lazy, Map<Class<?>, List<String>> notificationHandlers){
+        Class<?> notificationType = mediatorContext.getGenericTypeOfNotificationHandler(beanName);
+        if(!lazy){
+            getNotificationHandler(beanName);
+        }
 
-        if(this.notificationHandlers.containsKey(notificationType)){
-            notificationHandlers = this.notificationHandlers.get(notificationType);
-        } else {
-            notificationHandlers = new ArrayList<>();
+        notificationHandlers.computeIfAbsent(notificationType, type -> new ArrayList<>()).add(beanName);
+    }
+
+    /**
+     * Retrieves the {@link INotificationHandler} bean with the given name, wrapped for metrics when they are enabled.
+     * The bean is retrieved once and cached.
+     *
+     * @param beanName The name of the bean for the {@link INotificationHandler}.
+     * @return The {@link INotificationHandler} which is invoked for the bean.
+     */
+    public INotificationHandler<?> getNotificationHandler(String beanName){
+        return resolvedNotificationHandlers.computeIfAbsent(beanName, this::createNotificationHandler);
+    }
+
+    /**
+     * Retrieves the {@link INotificationHandler} bean with the given name and wraps it for metrics when they are enabled.
+     *
+     * @param beanName The name of the bean for the {@link INotificationHandler}.
+     * @return The {@link INotificationHandler} which is invoked for the bean.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private INotificationHandler<?> createNotificationHandler(String beanName){
+        INotificationHandler<?> notificationHandler = mediatorContext.getNotificationHandlerByBeanName(beanName);
+        if(handlerMetricsProvider != null){
+            return new InstrumentedNotificationHandler(notificationHandler, handlerMetricsProvider.getHandlerMetrics(notificationHandler.getClass()));
+        }
+        return notificationHandler;
+    }
+
+    /**
+     * Retrieves the {@link INotificationHandler} of the given notification class and of all of its supertypes.
+     *
+     * @param notification The {@link INotification} class for which all the {@link INotificationHandler} must be collected.
+     * @return The {@link INotificationHandler} of the given class, or null if none of its types has a handler.
+     */
+    private List<INotificationHandler<?>> resolveNotificationHandlers(Class<?> notification){
+        List<String> beanNames = notificationHandlerBeanNames.get(notification);
+        if(beanNames.isEmpty()){
+            return null;
+        }
+
+        List<INotificationHandler<?>> handlers = new ArrayList<>(beanNames.size());
+        for(String beanName : beanNames){
+            handlers.add(getNotificationHandler(beanName));
+        }
+        return Collections.unmodifiableList(handlers);
+    }
+
+    /**
+     * Collects the bean names of the {@link INotificationHandler} of the given notification class and of all of its
+     * supertypes. The handlers of the most specific type come first, followed by those of the superclasses and then
+     * the interfaces.
+     *
+     * @param notification The {@link INotification} class for which the bean names must be collected.
+     * @return The bean names of the {@link INotificationHandler}, or an empty list if none of its types has a handler.
+     */
+    private List<String> resolveNotificationHandlerBeanNames(Class<?> notification){
+        Set<Class<?>> notificationTypes = new LinkedHashSet<>();
+        for(Class<?> type = notification; type != null; type = type.getSuperclass()){
+            notificationTypes.add(type);
+        }
+        for(Class<?> type = notification; type != null; type = type.getSuperclass()){
+            collectInterfaces(type, notificationTypes);
         }
 
-        notificationHandlers.add(notificationHandler);
-        this.notificationHandlers.put(notificationType, notificationHandlers);
+        List<String> beanNames = new ArrayList<>();
+        for(Class<?> notificationType : notificationTypes){
+            List<String> registeredHandlers = registeredNotificationHandlers.get(notificationType);
+            if(registeredHandlers != null){
+                beanNames.addAll(registeredHandlers);
+            }
+        }
+
+        return beanNames.isEmpty() ? Collections.emptyList() : Collections.unmodifiableList(beanNames);
+    }
+
+    /**
+     * Adds the interfaces of the given type, and the interfaces they extend, to the given set.
+     *
+     * @param type The type for which the interfaces must be collected.
+     * @param interfaces The set to which the interfaces are added.
+     */
+    private static void collectInterfaces(Class<?> type, Set<Class<?>> interfaces){
+        for(Class<?> implementedInterface : type.getInterfaces()){
+            if(interfaces.add(implementedInterface)){
+                collectInterfaces(implementedInterface, interfaces);
+            }
+        }
     }
 }
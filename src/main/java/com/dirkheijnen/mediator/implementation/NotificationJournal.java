@@ -0,0 +1,343 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dirkheijnen.mediator.implementation;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.zip.CRC32;
+
+/**
+ *  An append-only journal of serialized notifications, stored in memory-mapped segment files of a fixed size.
+ *  Every entry has an offset, its position in the journal, which starts at zero and increases by one per entry. A
+ *  segment file is named after the offset of its first entry.
+ *
+ *  An entry is written as its length, a CRC32 checksum and its body, which holds the class name of the notification
+ *  and its bytes. The length is written last, so an entry whose append was interrupted has a length of zero and ends
+ *  the journal when it is opened again. An entry whose checksum does not match, for example after a crash of the
+ *  operating system, ends its segment. In the last segment this ends the journal, in an earlier segment the entries
+ *  from there up to the next segment are lost, and reading them returns null instead of decoding the damaged bytes.
+ *
+ *  Entries may be appended by any number of threads. They must be read by a single thread.
+ *
+ *  @author Dirk Heijnen
+ *  @since 1.1
+ */
+final class NotificationJournal implements AutoCloseable {
+
+    private static final String SEGMENT_SUFFIX = ".journal";
+
+    private static final int ENTRY_HEADER_SIZE = 8;
+
+    private final Path directory;
+
+    private final int segmentSize;
+
+    private final ConcurrentSkipListMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+
+    private Segment activeSegment;
+
+    private volatile long endOffset;
+
+    /**
+     * The constructor of the {@link NotificationJournal} class, which opens the segments in the directory and finds
+     * the end of the journal, or creates the first segment if the directory is empty.
+     *
+     * @param directory The directory of the segment files.
+     * @param segmentSize The size of a segment file in bytes.
+     * @throws IOException If the directory or a segment file cannot be opened.
+     */
+    NotificationJournal(Path directory, int segmentSize) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.segmentSize = segmentSize;
+
+        try (DirectoryStream<Path> segmentFiles = Files.newDirectoryStream(directory, "*" + SEGMENT_SUFFIX)) {
+            for(Path segmentFile : segmentFiles){
+                String fileName = segmentFile.getFileName().toString();
+                long baseOffset = Long.parseLong(fileName.substring(0, fileName.length() - SEGMENT_SUFFIX.length()));
+                segments.put(baseOffset, new Segment(segmentFile, baseOffset, segmentSize));
+            }
+        }
+
+        if(segments.isEmpty()){
+            segments.put(0L, new Segment(segmentPath(0), 0, segmentSize));
+        }
+        this.activeSegment = segments.lastEntry().getValue();
+        this.endOffset = activeSegment.baseOffset + activeSegment.count;
+    }
+
+    /**
+     * Appends an entry to the journal.
+     *
+     * @param typeName The class name of the notification.
+     * @param data The bytes of the notification.
+     * @return The offset of the entry.
+     * @throws IllegalArgumentException If the entry does not fit in a segment.
+     * @throws IOException If a new segment file cannot be created.
+     */
+    synchronized long append(String typeName, byte[] data) throws IOException {
+        byte[] type = typeName.getBytes(StandardCharsets.UTF_8);
+        int bodyLength = 2 + type.length + data.length;
+        if(ENTRY_HEADER_SIZE + bodyLength > segmentSize){
+            throw new IllegalArgumentException("The notification " + typeName + " of " + data.length + " bytes does not fit in a journal segment of " + segmentSize + " bytes");
+        }
+
+        if(activeSegment.writePosition + ENTRY_HEADER_SIZE + bodyLength > segmentSize){
+            activeSegment = new Segment(segmentPath(endOffset), endOffset, segmentSize);
+            segments.put(endOffset, activeSegment);
+        }
+
+        CRC32 checksum = new CRC32();
+        checksum.update(type.length >>> 8);
+        checksum.update(type.length);
+        checksum.update(type, 0, type.length);
+        checksum.update(data, 0, data.length);
+
+        ByteBuffer buffer = activeSegment.writeBuffer;
+        int position = activeSegment.writePosition;
+        buffer.position(position + ENTRY_HEADER_SIZE);
+        buffer.putShort((short) type.length);
+        buffer.put(type);
+        buffer.put(data);
+        buffer.putInt(position + 4, (int) checksum.getValue());
+        buffer.putInt(position, bodyLength);
+
+        activeSegment.addEntry(position);
+        activeSegment.writePosition = position + ENTRY_HEADER_SIZE + bodyLength;
+        long offset = endOffset;
+        endOffset = offset + 1;
+        return offset;
+    }
+
+    /**
+     * Reads the entry at the given offset.
+     *
+     * @param offset The offset of the entry, which must be between the start offset and the end offset.
+     * @return The entry, or null if the entry was lost because its segment was damaged.
+     * @throws IllegalArgumentException If the journal has no entry at the offset.
+     */
+    Entry read(long offset){
+        Map.Entry<Long, Segment> segmentEntry = segments.floorEntry(offset);
+        if(segmentEntry == null || offset >= endOffset){
+            throw new IllegalArgumentException("The journal has no entry at offset " + offset);
+        }
+
+        Segment segment = segmentEntry.getValue();
+        if(offset - segment.baseOffset >= segment.count){
+            return null;
+        }
+        ByteBuffer buffer = segment.readBuffer;
+        int position = segment.positions[(int) (offset - segment.baseOffset)];
+        int bodyLength = buffer.getInt(position);
+        buffer.position(position + ENTRY_HEADER_SIZE);
+        byte[] type = new byte[buffer.getShort() & 0xFFFF];
+        buffer.get(type);
+        byte[] data = new byte[bodyLength - 2 - type.length];
+        buffer.get(data);
+        return new Entry(new String(type, StandardCharsets.UTF_8), data);
+    }
+
+    /**
+     * Retrieves the offset of the first entry after the lost entries of a damaged segment, the first entry of the next
+     * segment.
+     *
+     * @param offset The offset of a lost entry.
+     * @return The offset of the first entry of the next segment, or the end offset if there is no next segment.
+     */
+    long getNextSegmentOffset(long offset){
+        Long nextBaseOffset = segments.higherKey(offset);
+        return nextBaseOffset != null ? nextBaseOffset : endOffset;
+    }
+
+    /**
+     * Retrieves the offset of the first entry which is still stored in the journal.
+     *
+     * @return The start offset.
+     */
+    long getStartOffset(){
+        return segments.firstKey();
+    }
+
+    /**
+     * Retrieves the offset which the next appended entry will get.
+     *
+     * @return The end offset.
+     */
+    long getEndOffset(){
+        return endOffset;
+    }
+
+    /**
+     * Deletes the segments whose offsets, up to the first offset of the next segment, are all lower than the given
+     * offset, so a damaged segment is kept until its lost entries have been passed as well. The segment to which
+     * entries are appended is never deleted.
+     *
+     * @param offset The offset below which the entries are no longer needed.
+     * @throws IOException If a segment file cannot be deleted.
+     */
+    synchronized void deleteSegmentsBefore(long offset) throws IOException {
+        Map.Entry<Long, Segment> first = segments.firstEntry();
+        while (first.getValue() != activeSegment && segments.higherKey(first.getKey()) <= offset){
+            segments.remove(first.getKey());
+            first.getValue().close();
+            Files.deleteIfExists(first.getValue().path);
+            first = segments.firstEntry();
+        }
+    }
+
+    /**
+     * Flushes the segments to the storage device and closes their files.
+     *
+     * @throws IOException If a segment file cannot be closed.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        for(Segment segment : segments.values()){
+            segment.writeBuffer.force();
+            segment.close();
+        }
+    }
+
+    /**
+     * Builds the path of the segment file whose first entry has the given offset.
+     *
+     * @param baseOffset The offset of the first entry of the segment.
+     * @return The path of the segment file.
+     */
+    private Path segmentPath(long baseOffset){
+        return directory.resolve(String.format("%020d%s", baseOffset, SEGMENT_SUFFIX));
+    }
+
+    /**
+     * An entry of the journal.
+     */
+    static final class Entry {
+
+        final String typeName;
+
+        final byte[] data;
+
+        /**
+         * The constructor of the {@link Entry} class.
+         *
+         * @param typeName The class name of the notification.
+         * @param data The bytes of the notification.
+         */
+        Entry(String typeName, byte[] data){
+            this.typeName = typeName;
+            this.data = data;
+        }
+
+    }
+
+    /**
+     * A memory-mapped segment file of the journal, with the positions of its entries.
+     */
+    private static final class Segment {
+
+        private final Path path;
+
+        private final long baseOffset;
+
+        private final FileChannel channel;
+
+        private final MappedByteBuffer writeBuffer;
+
+        private final ByteBuffer readBuffer;
+
+        private int[] positions = new int[1024];
+
+        private int count;
+
+        private int writePosition;
+
+        /**
+         * The constructor of the {@link Segment} class, which maps the file and scans its valid entries.
+         *
+         * @param path The path of the segment file.
+         * @param baseOffset The offset of the first entry of the segment.
+         * @param segmentSize The size of the segment file in bytes.
+         * @throws IOException If the segment file cannot be opened or mapped.
+         */
+        private Segment(Path path, long baseOffset, int segmentSize) throws IOException {
+            this.path = path;
+            this.baseOffset = baseOffset;
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.writeBuffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(segmentSize, channel.size()));
+            this.readBuffer = writeBuffer.duplicate();
+            recover();
+        }
+
+        /**
+         * Scans the entries of the segment until the first entry which is missing or whose checksum does not match.
+         */
+        private void recover(){
+            int position = 0;
+            while (position + ENTRY_HEADER_SIZE <= writeBuffer.capacity()){
+                int bodyLength = writeBuffer.getInt(position);
+                if(bodyLength < 2 || position + ENTRY_HEADER_SIZE + bodyLength > writeBuffer.capacity()){
+                    break;
+                }
+
+                ByteBuffer body = writeBuffer.duplicate();
+                body.position(position + ENTRY_HEADER_SIZE);
+                body.limit(position + ENTRY_HEADER_SIZE + bodyLength);
+                CRC32 checksum = new CRC32();
+                checksum.update(body);
+                if((int) checksum.getValue() != writeBuffer.getInt(position + 4)){
+                    break;
+                }
+
+                addEntry(position);
+                position += ENTRY_HEADER_SIZE + bodyLength;
+            }
+            writePosition = position;
+        }
+
+        /**
+         * Records the position of the next entry of the segment.
+         *
+         * @param position The position of the entry in the segment file.
+         */
+        private void addEntry(int position){
+            if(count == positions.length){
+                positions = Arrays.copyOf(positions, count * 2);
+            }
+            positions[count++] = position;
+        }
+
+        /**
+         * Closes the file of the segment. The mapping is released when the buffer is garbage collected.
+         *
+         * @throws IOException If the file cannot be closed.
+         */
+        private void close() throws IOException {
+            channel.close();
+        }
+
+    }
+
+}
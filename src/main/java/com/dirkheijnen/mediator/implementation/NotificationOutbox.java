@@ -0,0 +1,420 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dirkheijnen.mediator.implementation;
+
+import com.dirkheijnen.mediator.interfaces.INotification;
+import com.dirkheijnen.mediator.interfaces.INotificationHandler;
+import com.dirkheijnen.mediator.interfaces.INotificationSerializer;
+import org.springframework.util.ClassUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URLEncoder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ *  The {@link NotificationOutbox} makes publishing durable. A published notification is appended to a
+ *  {@link NotificationJournal} in a local directory, and a delivery thread hands the journal entries to the handlers.
+ *
+ *  Every handler has its own committed offset, the offset of the next entry it must receive, which is stored in a
+ *  small memory-mapped file next to the journal. The offset of a handler is committed after the handler returns, so
+ *  an entry is delivered again after a crash if its handler did not finish, which gives at-least-once delivery. A
+ *  handler which throws is retried after the retry delay, while the other handlers continue. After the maximum number
+ *  of attempts the entry is parked for that handler: the failure is reported to the uncaught exception handler of the
+ *  delivery thread and the handler moves on to its next entry, so a poison entry cannot hold up the handler or the
+ *  deletion of the segments forever. A handler which is registered for the first time starts at the end of the journal.
+ *
+ *  Segments are deleted once every handler has committed all of their entries. An entry whose notification class no
+ *  longer exists, or which cannot be deserialized, is reported to the uncaught exception handler of the delivery
+ *  thread and skipped, so it does not block the journal. The same happens to the entries which were lost from a
+ *  damaged segment, which are skipped up to the next segment.
+ *
+ *  The journal is written through the page cache and survives a crash of the process. It is only flushed to the
+ *  storage device when the outbox is closed.
+ *
+ *  @author Dirk Heijnen
+ *  @since 1.1
+ */
+public class NotificationOutbox implements AutoCloseable {
+
+    private static final String OFFSET_SUFFIX = ".offset";
+
+    private static final long IDLE_NANOS = 1_000_000L;
+
+    private final NotificationJournal journal;
+
+    private final INotificationSerializer notificationSerializer;
+
+    private final NotificationHandlerProvider notificationHandlerProvider;
+
+    private final ClassLoader classLoader;
+
+    private final long retryDelayNanos;
+
+    private final int maxAttempts;
+
+    private final List<HandlerCursor> cursors = new ArrayList<>();
+
+    private final Map<String, Class<? extends INotification>> notificationTypes = new HashMap<>();
+
+    private final Thread deliverer;
+
+    private volatile boolean idle;
+
+    private volatile boolean running = true;
+
+    /**
+     * The constructor of the {@link NotificationOutbox} class, which opens the journal and the committed offsets in
+     * the directory and starts delivering the entries which were not delivered yet.
+     *
+     * @param directory The directory of the journal and the committed offsets.
+     * @param segmentSize The size of a journal segment in bytes, which limits the size of a single notification.
+     * @param notificationSerializer The {@link INotificationSerializer} of the journal entries.
+     * @param notificationHandlerProvider The {@link NotificationHandlerProvider} of the handlers.
+     * @param classLoader The class loader which loads the notification classes of the journal entries.
+     * @param retryDelayNanos The time after which a handler which threw an exception receives its entry again.
+     * @param maxAttempts The number of times a handler receives an entry before the entry is parked for it, zero or
+     *                    less to retry forever.
+     * @throws IllegalStateException If the journal or an offset file cannot be opened.
+     */
+    public NotificationOutbox(Path directory, int segmentSize, INotificationSerializer notificationSerializer, NotificationHandlerProvider notificationHandlerProvider, ClassLoader classLoader, long retryDelayNanos, int maxAttempts){
+        this.notificationSerializer = notificationSerializer;
+        this.notificationHandlerProvider = notificationHandlerProvider;
+        this.classLoader = classLoader;
+        this.retryDelayNanos = retryDelayNanos;
+        this.maxAttempts = maxAttempts;
+
+        try {
+            this.journal = new NotificationJournal(directory, segmentSize);
+            for(String beanName : notificationHandlerProvider.getNotificationHandlerBeanNames()){
+                cursors.add(new HandlerCursor(beanName, directory.resolve(URLEncoder.encode(beanName, "UTF-8") + OFFSET_SUFFIX), journal));
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not open the notification outbox in " + directory, e);
+        }
+
+        this.deliverer = new Thread(this::deliver, "mediator-outbox");
+        this.deliverer.setDaemon(true);
+        this.deliverer.start();
+    }
+
+    /**
+     * Appends a notification to the journal, from which it is delivered to its handlers on the delivery thread. The
+     * notification is durable once this method returns, but its handlers have not necessarily received it yet.
+     *
+     * @param notification The {@link INotification} which must be delivered.
+     * @return The offset of the notification in the journal.
+     * @throws IllegalStateException If the outbox is closed.
+     * @throws UncheckedIOException If a new journal segment cannot be created.
+     */
+    public long append(INotification notification){
+        if(!running){
+            throw new IllegalStateException("The notification outbox is closed");
+        }
+
+        long offset;
+        try {
+            offset = journal.append(notification.getClass().getName(), notificationSerializer.serialize(notification));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not append the notification to the outbox journal", e);
+        }
+
+        if(idle){
+            LockSupport.unpark(deliverer);
+        }
+        return offset;
+    }
+
+    /**
+     * Retrieves the offset which the next appended notification will get.
+     *
+     * @return The end offset of the journal.
+     */
+    public long getEndOffset(){
+        return journal.getEndOffset();
+    }
+
+    /**
+     * Retrieves the committed offset of a handler, the offset of the next notification it must receive.
+     *
+     * @param beanName The bean name of the {@link INotificationHandler}.
+     * @return The committed offset, or -1 if the outbox has no handler with the given bean name.
+     */
+    public long getCommittedOffset(String beanName){
+        for(HandlerCursor cursor : cursors){
+            if(cursor.beanName.equals(beanName)){
+                return cursor.offset;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Stops the delivery thread after the entry it is delivering, and closes the journal. The entries which were not
+     * delivered yet are delivered when the outbox is opened again.
+     *
+     * @throws UncheckedIOException If the journal cannot be closed.
+     */
+    @Override
+    public void close(){
+        running = false;
+        LockSupport.unpark(deliverer);
+
+        boolean interrupted = false;
+        while (deliverer.isAlive()){
+            try {
+                deliverer.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+
+        try {
+            for(HandlerCursor cursor : cursors){
+                cursor.close();
+            }
+            journal.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not close the outbox journal", e);
+        } finally {
+            if(interrupted){
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * The loop of the delivery thread, which delivers the entry with the lowest offset that a handler is waiting for.
+     */
+    private void deliver(){
+        while (running){
+            long now = System.nanoTime();
+            long offset = Long.MAX_VALUE;
+            for(HandlerCursor cursor : cursors){
+                if(cursor.isReady(now)){
+                    offset = Math.min(offset, cursor.offset);
+                }
+            }
+
+            if(offset >= journal.getEndOffset()){
+                idle = true;
+                if(running && offset >= journal.getEndOffset()){
+                    LockSupport.parkNanos(this, IDLE_NANOS);
+                }
+                idle = false;
+                continue;
+            }
+
+            deliverEntry(offset, now);
+            compact();
+        }
+    }
+
+    /**
+     * Delivers one journal entry to the handlers which are waiting for it, and commits their offsets.
+     *
+     * @param offset The offset of the entry.
+     * @param now The current value of {@link System#nanoTime()}.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void deliverEntry(long offset, long now){
+        NotificationJournal.Entry entry = journal.read(offset);
+        if(entry == null){
+            skipLostEntries(offset);
+            return;
+        }
+        Class<? extends INotification> notificationType = resolveNotificationType(entry.typeName);
+        List<String> beanNames = notificationType != null ? notificationHandlerProvider.getNotificationHandlerBeanNames(notificationType) : Collections.emptyList();
+
+        INotification notification = null;
+        for(HandlerCursor cursor : cursors){
+            if(cursor.offset != offset || !cursor.isReady(now)){
+                continue;
+            }
+
+            if(beanNames.contains(cursor.beanName)){
+                if(notification == null){
+                    try {
+                        notification = notificationSerializer.deserialize(notificationType, entry.data);
+                    } catch (RuntimeException e) {
+                        report(e);
+                        beanNames = Collections.emptyList();
+                        cursor.commit(offset + 1);
+                        continue;
+                    }
+                }
+
+                try {
+                    ((INotificationHandler) notificationHandlerProvider.getNotificationHandler(cursor.beanName)).handle(notification);
+                } catch (Throwable e) {
+                    if(maxAttempts <= 0 || ++cursor.attempts < maxAttempts){
+                        report(e);
+                        cursor.retryAt = now + retryDelayNanos;
+                        continue;
+                    }
+                    report(new IllegalStateException("The notification at offset " + offset + " of the outbox journal is parked for the handler " + cursor.beanName + " after " + cursor.attempts + " failed attempts", e));
+                }
+            }
+            cursor.commit(offset + 1);
+        }
+    }
+
+    /**
+     * Moves the handlers which are waiting for a lost entry past the lost entries of its damaged segment, and reports
+     * the loss.
+     *
+     * @param offset The offset of the lost entry.
+     */
+    private void skipLostEntries(long offset){
+        long nextOffset = journal.getNextSegmentOffset(offset);
+        report(new IllegalStateException("The entries from offset " + offset + " up to offset " + nextOffset + " of the outbox journal are lost, because their segment is damaged"));
+        for(HandlerCursor cursor : cursors){
+            if(cursor.offset >= offset && cursor.offset < nextOffset){
+                cursor.commit(nextOffset);
+            }
+        }
+    }
+
+    /**
+     * Deletes the journal segments which every handler has passed.
+     */
+    private void compact(){
+        long committedOffset = journal.getEndOffset();
+        for(HandlerCursor cursor : cursors){
+            committedOffset = Math.min(committedOffset, cursor.offset);
+        }
+
+        try {
+            journal.deleteSegmentsBefore(committedOffset);
+        } catch (IOException e) {
+            report(e);
+        }
+    }
+
+    /**
+     * Loads the notification class of a journal entry, caching the result.
+     *
+     * @param typeName The class name of the notification.
+     * @return The notification class, or null if it cannot be loaded.
+     */
+    @SuppressWarnings("unchecked")
+    private Class<? extends INotification> resolveNotificationType(String typeName){
+        if(notificationTypes.containsKey(typeName)){
+            return notificationTypes.get(typeName);
+        }
+
+        Class<? extends INotification> notificationType = null;
+        try {
+            notificationType = (Class<? extends INotification>) ClassUtils.forName(typeName, classLoader);
+        } catch (ClassNotFoundException | LinkageError e) {
+            report(new IllegalStateException("The notification class " + typeName + " of the outbox journal cannot be loaded", e));
+        }
+        notificationTypes.put(typeName, notificationType);
+        return notificationType;
+    }
+
+    /**
+     * Passes an exception to the uncaught exception handler of the delivery thread.
+     *
+     * @param exception The exception.
+     */
+    private void report(Throwable exception){
+        deliverer.getUncaughtExceptionHandler().uncaughtException(deliverer, exception);
+    }
+
+    /**
+     * The delivery position of one handler, backed by a memory-mapped offset file.
+     */
+    private static final class HandlerCursor {
+
+        private final String beanName;
+
+        private final FileChannel channel;
+
+        private final MappedByteBuffer committedOffset;
+
+        private long offset;
+
+        private long retryAt;
+
+        private int attempts;
+
+        /**
+         * The constructor of the {@link HandlerCursor} class, which reads the committed offset of the handler, or
+         * starts at the end of the journal if the handler has no offset file yet.
+         *
+         * @param beanName The bean name of the {@link INotificationHandler}.
+         * @param path The path of the offset file.
+         * @param journal The journal from which the handler receives its entries.
+         * @throws IOException If the offset file cannot be opened.
+         */
+        private HandlerCursor(String beanName, Path path, NotificationJournal journal) throws IOException {
+            this.beanName = beanName;
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            boolean exists = channel.size() >= Long.BYTES;
+            this.committedOffset = channel.map(FileChannel.MapMode.READ_WRITE, 0, Long.BYTES);
+            long startOffset = exists ? committedOffset.getLong(0) : journal.getEndOffset();
+            commit(Math.min(Math.max(startOffset, journal.getStartOffset()), journal.getEndOffset()));
+        }
+
+        /**
+         * Checks whether the handler may receive its next entry.
+         *
+         * @param now The current value of {@link System#nanoTime()}.
+         * @return True if the handler is not waiting for its retry delay.
+         */
+        private boolean isReady(long now){
+            if(retryAt != 0 && now - retryAt < 0){
+                return false;
+            }
+            retryAt = 0;
+            return true;
+        }
+
+        /**
+         * Commits the offset of the next entry which the handler must receive, and resets the failed attempts.
+         *
+         * @param nextOffset The offset of the next entry.
+         */
+        private void commit(long nextOffset){
+            offset = nextOffset;
+            attempts = 0;
+            committedOffset.putLong(0, nextOffset);
+        }
+
+        /**
+         * Flushes the committed offset to the storage device and closes the offset file.
+         *
+         * @throws IOException If the offset file cannot be closed.
+         */
+        private void close() throws IOException {
+            committedOffset.force();
+            channel.close();
+        }
+
+    }
+
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dirkheijnen.mediator.implementation;
+
+import com.dirkheijnen.mediator.interfaces.INotification;
+import com.dirkheijnen.mediator.interfaces.INotificationHandler;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ *  The JDK Flight Recorder event of an {@link INotification} which is published to its {@link INotificationHandler}.
+ *  By default only publishes of {@value #DEFAULT_THRESHOLD} or longer are recorded, which can be changed through
+ *  the {@code com.dirkheijnen.mediator.NotificationPublish#threshold} setting of a recording.
+ *
+ *  @author Dirk Heijnen
+ *  @since 1.1
+ */
+@Name("com.dirkheijnen.mediator.NotificationPublish")
+@Label("Notification Publish")
+@Description("A notification published to its notification handlers by the mediator")
+@Category("Mediator")
+@StackTrace(false)
+@Threshold(NotificationPublishEvent.DEFAULT_THRESHOLD)
+class NotificationPublishEvent extends jdk.jfr.Event {
+
+    static final String DEFAULT_THRESHOLD = "10 ms";
+
+    @Label("Notification Type")
+    Class<?> notificationType;
+
+    @Label("Handler Count")
+    int handlerCount;
+
+    @Label("Outcome")
+    String outcome;
+
+    @Label("Exception Type")
+    Class<?> exceptionType;
+
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dirkheijnen.mediator.implementation;
+
+import com.dirkheijnen.mediator.exceptions.AggregateHandlerException;
+import com.dirkheijnen.mediator.interfaces.INotification;
+import com.dirkheijnen.mediator.interfaces.INotificationHandler;
+import com.dirkheijnen.mediator.interfaces.INotificationPublisher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ *  The {@link ParallelNotificationPublisher} invokes all the {@link INotificationHandler} of a notification concurrently,
+ *  so the latency of a publish is that of the slowest handler instead of the sum of all handlers.
+ *
+ *  When the publishing thread waits for the handlers, the first handler runs on the publishing thread while the others
+ *  run on the {@link Executor}. With {@link PublishFailurePolicy#FIRE_AND_FORGET} the publishing thread does not wait,
+ *  so every handler runs on the {@link Executor}. The {@link PublishFailurePolicy} also determines how the exceptions
+ *  of the handlers are reported.
+ *
+ *  @author Dirk Heijnen
+ *  @since 1.1
+ */
+public class ParallelNotificationPublisher implements INotificationPublisher {
+
+    private final Executor executor;
+
+    private final PublishFailurePolicy failurePolicy;
+
+    /**
+     * The constructor of the {@link ParallelNotificationPublisher} class, which runs the handlers on the
+     * {@link ForkJoinPool#commonPool()} and fails on the first exception.
+     */
+    public ParallelNotificationPublisher(){
+        this(ForkJoinPool.commonPool(), PublishFailurePolicy.FAIL_FAST);
+    }
+
+    /**
+     * The constructor of the {@link ParallelNotificationPublisher} class.
+     *
+     * @param executor The {@link Executor} on which the handlers are invoked.
+     * @param failurePolicy The {@link PublishFailurePolicy} which determines how handler exceptions are reported.
+     */
+    public ParallelNotificationPublisher(Executor executor, PublishFailurePolicy failurePolicy){
+        this.executor = executor;
+        this.failurePolicy = failurePolicy;
+    }
+
+    /**
+     * Invokes the given {@link INotificationHandler} concurrently.
+     *
+     * @param notification The {@link INotification} which should be send to the {@link INotificationHandler}.
+     * @param notificationHandlers The {@link INotificationHandler} which must handle the {@link INotification}.
+     * @param <T> The type of the {@link INotification}.
+     * @throws AggregateHandlerException If one or more handlers fail under the {@link PublishFailurePolicy#COLLECT_ALL} policy.
+     */
+    @Override
+    public <T extends INotification> void publish(T notification, List<INotificationHandler<T>> notificationHandlers) {
+        if(notificationHandlers.isEmpty()){
+            return;
+        }
+
+        switch (failurePolicy){
+            case FIRE_AND_FORGET:
+                publishAndForget(notification, notificationHandlers);
+                break;
+            case COLLECT_ALL:
+                publishCollectingAll(notification, notificationHandlers);
+                break;
+            default:
+                publishFailingFast(notification, notificationHandlers);
+                break;
+        }
+    }
+
+    /**
+     * Schedules every handler on the {@link Executor} and returns without waiting for them.
+     */
+    private <T extends INotification> void publishAndForget(T notification, List<INotificationHandler<T>> notificationHandlers){
+        for(INotificationHandler<T> notificationHandler : notificationHandlers){
+            executor.execute(() -> {
+                try {
+                    notificationHandler.handle(notification);
+                } catch (Throwable e) {
+                    Thread thread = Thread.currentThread();
+                    thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+                }
+            });
+        }
+    }
+
+    /**
+     * Invokes the handlers and waits until either all of them are finished or one of them has failed.
+     */
+    private <T extends INotification> void publishFailingFast(T notification, List<INotificationHandler<T>> notificationHandlers){
+        if(notificationHandlers.size() == 1){
+            notificationHandlers.get(0).handle(notification);
+            return;
+        }
+
+        CompletableFuture<Void> firstFailure = new CompletableFuture<>();
+        CompletableFuture<?>[] handlerFutures = submitRemainingHandlers(notification, notificationHandlers);
+        for(CompletableFuture<?> handlerFuture : handlerFutures){
+            handlerFuture.whenComplete((result, exception) -> {
+                if(exception != null){
+                    firstFailure.completeExceptionally(exception);
+                }
+            });
+        }
+
+        notificationHandlers.get(0).handle(notification);
+
+        try {
+            CompletableFuture.anyOf(CompletableFuture.allOf(handlerFutures), firstFailure).join();
+        } catch (CompletionException e) {
+            Throwable cause = unwrap(e);
+            if(cause instanceof RuntimeException){
+                throw (RuntimeException) cause;
+            } else if(cause instanceof Error){
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Invokes the handlers, waits for all of them and reports every exception at once.
+     */
+    private <T extends INotification> void publishCollectingAll(T notification, List<INotificationHandler<T>> notificationHandlers){
+        CompletableFuture<?>[] handlerFutures = submitRemainingHandlers(notification, notificationHandlers);
+        List<Throwable> exceptions = null;
+
+        try {
+            notificationHandlers.get(0).handle(notification);
+        } catch (RuntimeException | Error e) {
+            exceptions = new ArrayList<>();
+            exceptions.add(e);
+        }
+
+        for(CompletableFuture<?> handlerFuture : handlerFutures){
+            try {
+                handlerFuture.join();
+            } catch (CompletionException | CancellationException e) {
+                if(exceptions == null){
+                    exceptions = new ArrayList<>();
+                }
+                exceptions.add(unwrap(e));
+            }
+        }
+
+        if(exceptions != null){
+            String message = exceptions.size() + " of " + notificationHandlers.size() + " notification handlers failed for the notification: " + notification.getClass().getCanonicalName();
+            throw new AggregateHandlerException(message, exceptions);
+        }
+    }
+
+    /**
+     * Submits every handler except the first to the {@link Executor}, the first handler runs on the publishing thread.
+     */
+    private <T extends INotification> CompletableFuture<?>[] submitRemainingHandlers(T notification, List<INotificationHandler<T>> notificationHandlers){
+        CompletableFuture<?>[] handlerFutures = new CompletableFuture<?>[notificationHandlers.size() - 1];
+        for(int i = 0; i < handlerFutures.length; i++){
+            INotificationHandler<T> notificationHandler = notificationHandlers.get(i + 1);
+            handlerFutures[i] = CompletableFuture.runAsync(() -> notificationHandler.handle(notification), executor);
+        }
+        return handlerFutures;
+    }
+
+    /**
+     * Retrieves the exception thrown by a handler from the {@link CompletionException} wrapping it.
+     */
+    private static Throwable unwrap(Throwable exception){
+        if(exception instanceof CompletionException && exception.getCause() != null){
+            return exception.getCause();
+        }
+        return exception;
+    }
+
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dirkheijnen.mediator.implementation;
+
+import com.dirkheijnen.mediator.interfaces.IPartitionedNotification;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *  The {@link PartitionedNotificationDispatcher} runs tasks on a fixed number of lanes, each with a single thread and
+ *  a bounded queue. The lane of a task is selected by the hash of its partition key, so the tasks of one key run in
+ *  the order in which they were submitted, while the tasks of different keys are spread over all the lanes.
+ *
+ *  When the queue of a lane is full, the submitting thread waits until there is room again. Dropping the task or
+ *  running it on the submitting thread would break the order of its key. The only exception is a task submitted by the
+ *  thread of a lane, for example a handler which publishes another partitioned notification. When the lane of that
+ *  thread is full itself, or the other lane waits for it in turn, waiting could deadlock, so the task runs inline on the
+ *  submitting lane thread instead. Such a task runs ahead of the tasks which are still queued on its own lane, and
+ *  concurrently with the thread of its own lane when that is another lane.
+ *
+ *  @author Dirk Heijnen
+ *  @since 1.1
+ */
+public class PartitionedNotificationDispatcher implements AutoCloseable {
+
+    private static final ThreadLocal<ThreadPoolExecutor> CURRENT_LANE = new ThreadLocal<>();
+
+    private final ThreadPoolExecutor[] lanes;
+
+    /**
+     * The constructor of the {@link PartitionedNotificationDispatcher} class.
+     *
+     * @param partitionCount The number of lanes, usually the number of available processors.
+     * @param queueCapacity The number of tasks which each lane can hold before submitting threads must wait.
+     * @throws IllegalArgumentException If the partition count or the queue capacity is less than one.
+     */
+    public PartitionedNotificationDispatcher(int partitionCount, int queueCapacity){
+        if(partitionCount < 1 || queueCapacity < 1){
+            throw new IllegalArgumentException("The partition count and the queue capacity must be at least one");
+        }
+
+        this.lanes = new ThreadPoolExecutor[partitionCount];
+        for(int i = 0; i < partitionCount; i++){
+            String threadName = "mediator-partition-" + i;
+            int lane = i;
+            this.lanes[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity), task -> {
+                Thread thread = new Thread(() -> {
+                    CURRENT_LANE.set(lanes[lane]);
+                    task.run();
+                }, threadName);
+                thread.setDaemon(true);
+                return thread;
+            }, PartitionedNotificationDispatcher::waitForCapacity);
+        }
+    }
+
+    /**
+     * Retrieves the number of lanes of the dispatcher.
+     *
+     * @return The number of lanes.
+     */
+    public int getPartitionCount(){
+        return lanes.length;
+    }
+
+    /**
+     * Retrieves the lane on which the tasks of a partition key run.
+     *
+     * @param partitionKey The partition key of an {@link IPartitionedNotification}, may be null.
+     * @return The index of the lane.
+     */
+    public int getPartition(Object partitionKey){
+        if(partitionKey == null){
+            return 0;
+        }
+        int hash = partitionKey.hashCode();
+        return Math.floorMod(hash ^ (hash >>> 16), lanes.length);
+    }
+
+    /**
+     * Runs a task on the lane of its partition key, after the tasks which were submitted to that lane before it.
+     * The task must handle its own exceptions.
+     *
+     * @param partitionKey The partition key of an {@link IPartitionedNotification}, may be null.
+     * @param task The task which must be run.
+     * @throws RejectedExecutionException If the dispatcher is closed, or the thread is interrupted while it waits for room.
+     */
+    public void execute(Object partitionKey, Runnable task){
+        lanes[getPartition(partitionKey)].execute(task);
+    }
+
+    /**
+     * Stops accepting tasks and waits until the tasks which were already submitted are finished.
+     */
+    @Override
+    public void close(){
+        for(ThreadPoolExecutor lane : lanes){
+            lane.shutdown();
+        }
+
+        boolean interrupted = false;
+        for(ThreadPoolExecutor lane : lanes){
+            while (!lane.isTerminated()){
+                try {
+                    lane.awaitTermination(1, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if(interrupted){
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Waits until the queue of a full lane has room for the task, so the task keeps its place in the order of its key.
+     * When the task is submitted by the thread of any lane, waiting could deadlock, so the task runs inline.
+     *
+     * @param task The task which did not fit in the queue.
+     * @param lane The lane of the task.
+     * @throws RejectedExecutionException If the dispatcher is closed, or the thread is interrupted while it waits.
+     */
+    private static void waitForCapacity(Runnable task, ThreadPoolExecutor lane){
+        if(lane.isShutdown()){
+            throw new RejectedExecutionException("The partitioned notification dispatcher is closed");
+        }
+        if(CURRENT_LANE.get() != null){
+            task.run();
+            return;
+        }
+
+        try {
+            lane.getQueue().put(task);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for room in a partition", e);
+        }
+
+        if(lane.isShutdown() && lane.getQueue().remove(task)){
+            throw new RejectedExecutionException("The partitioned notification dispatcher is closed");
+        }
+    }
+
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dirkheijnen.mediator.implementation;
+
+import com.dirkheijnen.mediator.interfaces.IBatchRequestHandler;
+import com.dirkheijnen.mediator.interfaces.IPipelineBehavior;
+import com.dirkheijnen.mediator.interfaces.IRequest;
+import com.dirkheijnen.mediator.interfaces.IRequestHandler;
+
+import java.util.List;
+
+/**
+ *  One link of the precompiled pipeline of a request type, which invokes an {@link IPipelineBehavior} with the next
+ *  link of the pipeline. The links are created once at startup, so handling a request through the pipeline does not
+ *  allocate any objects of its own.
+ *
+ *  @author Dirk Heijnen
+ *  @since 1.1
+ *
+ *  @param <C> The type of the request which must implement the {@link IRequest} interface.
+ *  @param <R> The type of the response which must match the type of the {@link IRequest}.
+ */
+public class PipelineRequestHandler<C extends IRequest<R>, R> extends DelegatingRequestHandler<C, R> {
+
+    protected final IPipelineBehavior<C, R> pipelineBehavior;
+
+    /**
+     * The constructor of the {@link PipelineRequestHandler} class.
+     *
+     * @param pipelineBehavior The {@link IPipelineBehavior} of this link.
+     * @param next The next link of the pipeline, or the {@link IRequestHandler} itself.
+     */
+    public PipelineRequestHandler(IPipelineBehavior<C, R> pipelineBehavior, IRequestHandler<C, R> next){
+        super(next);
+        this.pipelineBehavior = pipelineBehavior;
+    }
+
+    /**
+     * Creates the {@link PipelineRequestHandler} of a link, which is an {@link IBatchRequestHandler} itself when the
+     * next link is one, so a batch keeps passing through the pipeline as a whole.
+     *
+     * @param pipelineBehavior The {@link IPipelineBehavior} of this link.
+     * @param next The next link of the pipeline, or the {@link IRequestHandler} itself.
+     * @param <C> The type of the request which must implement the {@link IRequest} interface.
+     * @param <R> The type of the response which must match the type of the {@link IRequest}.
+     * @return The {@link PipelineRequestHandler} of the link.
+     */
+    public static <C extends IRequest<R>, R> PipelineRequestHandler<C, R> of(IPipelineBehavior<C, R> pipelineBehavior, IRequestHandler<C, R> next){
+        if(next instanceof IBatchRequestHandler){
+            return new Batch<>(pipelineBehavior, (IBatchRequestHandler<C, R>) next);
+        }
+        return new PipelineRequestHandler<>(pipelineBehavior, next);
+    }
+
+    /**
+     * Invokes the {@link IPipelineBehavior} of this link with the next link of the pipeline.
+     *
+     * @param request The {@link IRequest} containing the input data send with the request.
+     * @return The response type which is set on the {@link IRequest}.
+     */
+    @Override
+    public R handle(C request) {
+        return pipelineBehavior.handle(request, delegate);
+    }
+
+    /**
+     * The {@link PipelineRequestHandler} in front of an {@link IBatchRequestHandler}, which passes a batch to the
+     * {@link IPipelineBehavior#handleAll(List, IBatchRequestHandler)} of its behavior.
+     *
+     * @param <C> The type of the request which must implement the {@link IRequest} interface.
+     * @param <R> The type of the response which must match the type of the {@link IRequest}.
+     */
+    private static class Batch<C extends IRequest<R>, R> extends PipelineRequestHandler<C, R> implements IBatchRequestHandler<C, R> {
+
+        /**
+         * The constructor of the {@link Batch} class.
+         *
+         * @param pipelineBehavior The {@link IPipelineBehavior} of this link.
+         * @param next The next link of the pipeline, or the {@link IBatchRequestHandler} itself.
+         */
+        private Batch(IPipelineBehavior<C, R> pipelineBehavior, IBatchRequestHandler<C, R> next){
+            super(pipelineBehavior, next);
+        }
+
+        @Override
+        public List<R> handleAll(List<C> requests) {
+            return pipelineBehavior.handleAll(requests, (IBatchRequestHandler<C, R>) delegate);
+        }
+
+    }
+
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dirkheijnen.mediator.implementation;
+
+import com.dirkheijnen.mediator.exceptions.AggregateHandlerException;
+import com.dirkheijnen.mediator.interfaces.INotificationHandler;
+
+/**
+ *  Determines how the {@link ParallelNotificationPublisher} reacts to {@link INotificationHandler} which throw an exception.
+ *
+ *  @author Dirk Heijnen
+ *  @since 1.1
+ */
+public enum PublishFailurePolicy {
+
+    /**
+     * Publishing fails with the first exception thrown by any handler, without waiting for the remaining handlers.
+     */
+    FAIL_FAST,
+
+    /**
+     * Publishing waits for all the handlers and then fails with an {@link AggregateHandlerException} containing
+     * every exception which was thrown.
+     */
+    COLLECT_ALL,
+
+    /**
+     * Publishing returns as soon as all the handlers are scheduled, and every handler runs on the executor. Exceptions
+     * are passed to the uncaught exception handler of the thread which ran the failing handler.
+     */
+    FIRE_AND_FORGET
+
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dirkheijnen.mediator.implementation;
+
+import com.dirkheijnen.mediator.interfaces.INotification;
+import com.dirkheijnen.mediator.interfaces.INotificationHandler;
+import com.dirkheijnen.mediator.interfaces.IReactiveNotificationHandler;
+import com.dirkheijnen.mediator.interfaces.IReactiveRequest;
+import com.dirkheijnen.mediator.interfaces.IReactiveRequestHandler;
+import com.dirkheijnen.mediator.interfaces.IRequest;
+import com.dirkheijnen.mediator.interfaces.IRequestHandler;
+import com.dirkheijnen.mediator.interfaces.IStreamRequest;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ *  The {@link ReactiveMediator} dispatches requests and notifications through a {@link Mediator} with Project Reactor
+ *  types, for applications which handle requests on an event loop.
+ *
+ *  Nothing is dispatched until the returned {@link Mono} or {@link Flux} is subscribed to, and dispatching happens on
+ *  the subscribing thread. An {@link IReactiveRequestHandler} or {@link IReactiveNotificationHandler} therefore runs
+ *  without blocking or switching threads. Blocking handlers only move to another thread when a {@link Scheduler} for
+ *  blocking work is given.
+ *
+ *  This class requires the optional io.projectreactor:reactor-core dependency on the class path.
+ *
+ *  @author Dirk Heijnen
+ *  @since 1.1
+ */
+public class ReactiveMediator {
+
+    private final Mediator mediator;
+    private final Scheduler blockingScheduler;
+
+    /**
+     * The constructor of the {@link ReactiveMediator} class, which runs blocking handlers on the subscribing thread.
+     *
+     * @param mediator The {@link Mediator} which resolves the handlers.
+     */
+    public ReactiveMediator(Mediator mediator){
+        this(mediator, null);
+    }
+
+    /**
+     * The constructor of the {@link ReactiveMediator} class.
+     *
+     * @param mediator The {@link Mediator} which resolves the handlers.
+     * @param blockingScheduler The {@link Scheduler} on which blocking handlers run, or null to run them on the subscribing thread.
+     */
+    public ReactiveMediator(Mediator mediator, Scheduler blockingScheduler){
+        this.mediator = Objects.requireNonNull(mediator, "The mediator must not be null");
+        this.blockingScheduler = blockingScheduler;
+    }
+
+    /**
+     * Sends an {@link IReactiveRequest} to its {@link IReactiveRequestHandler} when the returned {@link Mono} is
+     * subscribed to.
+     *
+     * @param request The {@link IReactiveRequest} which should be send to its {@link IReactiveRequestHandler}.
+     * @param <R> The type of the response of the {@link IReactiveRequest}.
+     * @return The {@link Mono} of the response.
+     */
+    public <R> Mono<R> send(IReactiveRequest<R> request){
+        Objects.requireNonNull(request, "The request must not be null");
+        return Mono.defer(() -> Mono.from(mediator.send(request)));
+    }
+
+    /**
+     * Sends an {@link IRequest} to its blocking {@link IRequestHandler} when the returned {@link Mono} is subscribed
+     * to, on the blocking {@link Scheduler} if one was given.
+     *
+     * @param request The {@link IRequest} which should be send to its {@link IRequestHandler}.
+     * @param <R> The type of the response of the {@link IRequest}.
+     * @return The {@link Mono} of the response, which is empty if the handler returns null.
+     */
+    public <R> Mono<R> sendBlocking(IRequest<R> request){
+        Objects.requireNonNull(request, "The request must not be null");
+        return onBlockingScheduler(Mono.fromCallable(() -> mediator.send(request)));
+    }
+
+    /**
+     * Sends an {@link IStreamRequest} to its handler when the returned {@link Flux} is subscribed to. The stream is
+     * closed when the {@link Flux} completes, fails or is cancelled.
+     *
+     * @param request The {@link IStreamRequest} which should be send to its handler.
+     * @param <T> The type of the elements of the stream.
+     * @return The {@link Flux} of the elements of the stream.
+     */
+    public <T> Flux<T> stream(IStreamRequest<T> request){
+        Objects.requireNonNull(request, "The request must not be null");
+        Flux<T> elements = Flux.fromStream(() -> mediator.stream(request));
+        return blockingScheduler == null ? elements : elements.subscribeOn(blockingScheduler);
+    }
+
+    /**
+     * Publishes an {@link INotification} to all of its handlers when the returned {@link Mono} is subscribed to.
+     * The publishers of the handlers are merged, so every handler runs even if another one fails, and the
+     * {@link Mono} completes when all of them are finished.
+     *
+     * The notification is passed to the handlers directly: the outbox, the partitions and the
+     * {@link com.dirkheijnen.mediator.interfaces.INotificationPublisher} of the {@link Mediator} are not used.
+     *
+     * @param notification The {@link INotification} which should be send to all of its handlers.
+     * @param <T> The type of the {@link INotification}.
+     * @return The {@link Mono} which completes when all the handlers are finished.
+     */
+    public <T extends INotification> Mono<Void> publish(T notification){
+        Objects.requireNonNull(notification, "The notification must not be null");
+        return Mono.defer(() -> {
+            List<INotificationHandler<T>> notificationHandlers = mediator.resolveNotificationHandlers(notification);
+            if(notificationHandlers.isEmpty()){
+                return Mono.empty();
+            }
+            if(notificationHandlers.size() == 1){
+                return handle(notificationHandlers.get(0), notification);
+            }
+
+            List<Publisher<Void>> handled = new ArrayList<>(notificationHandlers.size());
+            for(INotificationHandler<T> notificationHandler : notificationHandlers){
+                handled.add(handle(notificationHandler, notification));
+            }
+            return Mono.whenDelayError(handled);
+        });
+    }
+
+    /**
+     * Creates the {@link Mono} which passes a notification to one handler. An {@link IReactiveNotificationHandler} is
+     * called through its publisher, any other handler is called on the blocking {@link Scheduler} if one was given.
+     *
+     * @param notificationHandler The {@link INotificationHandler}, which might wrap the registered handler.
+     * @param notification The {@link INotification} which is handled.
+     * @param <T> The type of the {@link INotification}.
+     * @return The {@link Mono} which completes when the notification is handled.
+     */
+    @SuppressWarnings("unchecked")
+    private <T extends INotification> Mono<Void> handle(INotificationHandler<T> notificationHandler, T notification){
+        INotificationHandler<?> target = DelegatingNotificationHandler.unwrap(notificationHandler);
+        if(target instanceof IReactiveNotificationHandler){
+            return Mono.defer(() -> Mono.from(((IReactiveNotificationHandler<T>) target).handleReactive(notification)));
+        }
+        return onBlockingScheduler(Mono.fromRunnable(() -> notificationHandler.handle(notification)));
+    }
+
+    /**
+     * Moves the subscription of a blocking {@link Mono} to the blocking {@link Scheduler}, if one was given.
+     *
+     * @param blocking The {@link Mono} which blocks while it is subscribed to.
+     * @param <R> The type of the value of the {@link Mono}.
+     * @return The {@link Mono} which subscribes on the blocking {@link Scheduler}.
+     */
+    private <R> Mono<R> onBlockingScheduler(Mono<R> blocking){
+        return blockingScheduler == null ? blocking : blocking.subscribeOn(blockingScheduler);
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dirkheijnen.mediator.implementation;
+
+import com.dirkheijnen.mediator.interfaces.IBatchRequestHandler;
+import com.dirkheijnen.mediator.interfaces.IRequest;
+import com.dirkheijnen.mediator.interfaces.IRequestHandler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ *  A group of requests of the same type which are dispatched to their {@link IRequestHandler} together.
+ *  The batch remembers the position of every request in the original input, so the responses can be written back
+ *  in input order.
+ *
+ *  @author Dirk Heijnen
+ *  @since 1.1
+ *
+ *  @param <C> The type of the requests in the batch.
+ *  @param <R> The type of the responses of the requests.
+ */
+class RequestBatch<C extends IRequest<R>, R> {
+
+    private final IRequestHandler<C, R> requestHandler;
+
+    private final List<C> requests = new ArrayList<>();
+
+    private int[] positions = new int[8];
+
+    /**
+     * The constructor of the {@link RequestBatch} class.
+     *
+     * @param requestHandler The {@link IRequestHandler} of the requests in the batch.
+     */
+    RequestBatch(IRequestHandler<C, R> requestHandler){
+        this.requestHandler = requestHandler;
+    }
+
+    /**
+     * Adds a request to the batch.
+     *
+     * @param request The request to add.
+     * @param position The position of the request in the input of the batch send.
+     */
+    void add(C request, int position){
+        if(requests.size() == positions.length){
+            positions = Arrays.copyOf(positions, positions.length * 2);
+        }
+        positions[requests.size()] = position;
+        requests.add(request);
+    }
+
+    /**
+     * Dispatches the requests to the {@link IRequestHandler}, in one call if it is an {@link IBatchRequestHandler}.
+     * The decorators of the mediator keep this interface when they wrap an {@link IBatchRequestHandler}, so a batch
+     * passes through them as a whole.
+     *
+     * @param responses The array in which every response is stored at the position of its request.
+     * @throws IllegalStateException If an {@link IBatchRequestHandler} does not return one response per request.
+     */
+    void dispatch(Object[] responses){
+        if(requestHandler instanceof IBatchRequestHandler){
+            List<R> batchResponses = ((IBatchRequestHandler<C, R>) requestHandler).handleAll(requests);
+            if(batchResponses.size() != requests.size()){
+                throw new IllegalStateException("The batch request handler " + DelegatingRequestHandler.unwrap(requestHandler).getClass().getCanonicalName() + " returned " + batchResponses.size() + " responses for " + requests.size() + " requests");
+            }
+            for(int i = 0; i < batchResponses.size(); i++){
+                responses[positions[i]] = batchResponses.get(i);
+            }
+        } else {
+            for(int i = 0; i < requests.size(); i++){
+                responses[positions[i]] = requestHandler.handle(requests.get(i));
+            }
+        }
+    }
+
+}
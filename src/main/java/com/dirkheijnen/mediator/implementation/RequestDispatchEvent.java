@@ -0,0 +1,58 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dirkheijnen.mediator.implementation;
+
+import com.dirkheijnen.mediator.interfaces.IRequest;
+import com.dirkheijnen.mediator.interfaces.IRequestHandler;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ *  The JDK Flight Recorder event of an {@link IRequest} which is sent to its {@link IRequestHandler}.
+ *  By default only dispatches of {@value #DEFAULT_THRESHOLD} or longer are recorded, which can be changed through
+ *  the {@code com.dirkheijnen.mediator.RequestDispatch#threshold} setting of a recording.
+ *
+ *  @author Dirk Heijnen
+ *  @since 1.1
+ */
+@Name("com.dirkheijnen.mediator.RequestDispatch")
+@Label("Request Dispatch")
+@Description("A request sent to its request handler by the mediator")
+@Category("Mediator")
+@StackTrace(false)
+@Threshold(RequestDispatchEvent.DEFAULT_THRESHOLD)
+class RequestDispatchEvent extends jdk.jfr.Event {
+
+    static final String DEFAULT_THRESHOLD = "10 ms";
+
+    @Label("Request Type")
+    Class<?> requestType;
+
+    @Label("Handler Bean Name")
+    String handlerBeanName;
+
+    @Label("Outcome")
+    String outcome;
+
+    @Label("Exception Type")
+    Class<?> exceptionType;
+
+}
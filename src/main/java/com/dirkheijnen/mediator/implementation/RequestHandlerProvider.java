@@ -16,28 +16,75 @@
 
 package com.dirkheijnen.mediator.implementation;
 
+import com.dirkheijnen.mediator.annotations.Bulkhead;
+import com.dirkheijnen.mediator.annotations.CacheResponse;
+import com.dirkheijnen.mediator.annotations.MicroBatch;
+import com.dirkheijnen.mediator.annotations.SingleFlight;
+import com.dirkheijnen.mediator.annotations.Timeout;
 import com.dirkheijnen.mediator.exceptions.HandlerNotFoundException;
 import com.dirkheijnen.mediator.exceptions.RequestHandlerAlreadyExistsException;
+import com.dirkheijnen.mediator.interfaces.IBatchRequestHandler;
+import com.dirkheijnen.mediator.interfaces.IHandlerMetricsProvider;
+import com.dirkheijnen.mediator.interfaces.IPipelineBehavior;
+import com.dirkheijnen.mediator.interfaces.IReactiveRequest;
 import com.dirkheijnen.mediator.interfaces.IRequest;
 import com.dirkheijnen.mediator.interfaces.IRequestHandler;
 import com.dirkheijnen.mediator.interfaces.IRequestHandlerProvider;
+import com.dirkheijnen.mediator.interfaces.IResponseWeigher;
+import com.dirkheijnen.mediator.interfaces.IStreamRequest;
 import org.springframework.context.ApplicationContext;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongBiFunction;
 
 /**
  *  The {@link RequestHandlerProvider} is used to store the {@link IRequest} and {@link IRequestHandler} classes.
- *  Every {@link IRequest} is linked to it's {@link IRequestHandler} using a hashmap.
+ *  Every {@link IRequest} is linked to it's {@link IRequestHandler} using a {@link ClassDispatchTable}, which is
+ *  frozen once all the handlers are registered.
+ *
+ *  An {@link IBatchRequestHandler} annotated with {@link MicroBatch} is wrapped in a {@link MicroBatchingRequestHandler},
+ *  the {@link IRequestHandler} of a {@link SingleFlight} request type in a {@link SingleFlightRequestHandler}, and the
+ *  {@link IRequestHandler} of a {@link CacheResponse} request type in a {@link CachingRequestHandler}.
+ *
+ *  Around all of these, every request type gets a fixed chain of {@link PipelineRequestHandler} for the
+ *  {@link IPipelineBehavior} which apply to it. Request types without behaviors are dispatched without a pipeline.
+ *  The handler of a {@link Bulkhead} is limited by a {@link BulkheadRequestHandler} around the pipeline, so requests
+ *  which wait for the limit do not run the behaviors yet. A request type with a {@link Timeout}, or with the property
+ *  {@value Mediator#TIMEOUT_PROPERTY_PREFIX} followed by its name, sets its deadline in a {@link TimeoutRequestHandler}
+ *  around both, so the wait counts toward the deadline. When metrics are enabled, the outermost handler is an
+ *  {@link InstrumentedRequestHandler}.
+ *
+ *  When {@value Mediator#LAZY_HANDLERS_PROPERTY} is true, the request type of a handler is resolved from its bean
+ *  definition, and the handler bean is only retrieved and decorated on the first dispatch of its request type.
+ *  The response caches are still created up front, so their invalidation does not depend on the order of dispatches.
  *
  *  @author Dirk Heijnen
  *  @since 1.0
  */
 public class RequestHandlerProvider implements IRequestHandlerProvider {
 
-    private ApplicationContextHelper applicationContextHelper;
+    private final MediatorContext mediatorContext;
+
+    private final ResponseCacheManager responseCacheManager;
+
+    private final IHandlerMetricsProvider handlerMetricsProvider;
+
+    private final List<IPipelineBehavior<?, ?>> pipelineBehaviors;
+
+    private final Map<Class<?>, String> requestHandlerBeanNames;
 
-    private Map<Class<? extends IRequest<?>>, IRequestHandler<?, ?>> requestHandlers = new HashMap<>();
+    private final Map<Class<?>, ResponseCache<?, ?>> responseCaches;
+
+    private final ConcurrentMap<Class<?>, IRequestHandler<?, ?>> resolvedRequestHandlers = new ConcurrentHashMap<>();
+
+    private final ClassDispatchTable<IRequestHandler<?, ?>> requestHandlers;
 
     /**
      * The constructor of the {@link RequestHandlerProvider} class.
@@ -45,11 +92,53 @@ public class RequestHandlerProvider implements IRequestHandlerProvider {
      * @param applicationContext {@link ApplicationContext};
      */
     public RequestHandlerProvider(ApplicationContext applicationContext){
-        this.applicationContextHelper = new ApplicationContextHelper(applicationContext);
+        this(applicationContext, new ResponseCacheManager());
+    }
+
+    /**
+     * The constructor of the {@link RequestHandlerProvider} class.
+     *
+     * @param applicationContext {@link ApplicationContext};
+     * @param responseCacheManager The {@link ResponseCacheManager} in which the response caches are registered.
+     */
+    public RequestHandlerProvider(ApplicationContext applicationContext, ResponseCacheManager responseCacheManager){
+        this(applicationContext, responseCacheManager, null);
+    }
+
+    /**
+     * The constructor of the {@link RequestHandlerProvider} class.
+     *
+     * @param applicationContext {@link ApplicationContext};
+     * @param responseCacheManager The {@link ResponseCacheManager} in which the response caches are registered.
+     * @param handlerMetricsProvider The {@link IHandlerMetricsProvider} of the handlers, or null to disable metrics.
+     */
+    public RequestHandlerProvider(ApplicationContext applicationContext, ResponseCacheManager responseCacheManager, IHandlerMetricsProvider handlerMetricsProvider){
+        this(new ApplicationContextHelper(applicationContext), responseCacheManager, handlerMetricsProvider);
+    }
+
+    /**
+     * The constructor of the {@link RequestHandlerProvider} class.
+     *
+     * @param mediatorContext The {@link MediatorContext} from which the handlers are retrieved.
+     * @param responseCacheManager The {@link ResponseCacheManager} in which the response caches are registered.
+     * @param handlerMetricsProvider The {@link IHandlerMetricsProvider} of the handlers, or null to disable metrics.
+     */
+    public RequestHandlerProvider(MediatorContext mediatorContext, ResponseCacheManager responseCacheManager, IHandlerMetricsProvider handlerMetricsProvider){
+        this.mediatorContext = mediatorContext;
+        this.responseCacheManager = responseCacheManager;
+        this.handlerMetricsProvider = handlerMetricsProvider;
+        this.pipelineBehaviors = mediatorContext.getPipelineBehaviors();
 
-        for(String requestHandlerBeanName : applicationContextHelper.getRequestHandlerBeanNames()){
-            this.addRequestHandler(requestHandlerBeanName);
+        boolean lazy = mediatorContext.getProperty(Mediator.LAZY_HANDLERS_PROPERTY, Boolean.class, false);
+        Map<Class<?>, String> requestHandlerBeanNames = new HashMap<>();
+        Map<Class<?>, ResponseCache<?, ?>> responseCaches = new HashMap<>();
+        for(String requestHandlerBeanName : mediatorContext.getRequestHandlerBeanNames()){
+            this.addRequestHandler(requestHandlerBeanName, lazy, requestHandlerBeanNames, responseCaches);
         }
+
+        this.requestHandlerBeanNames = Collections.unmodifiableMap(requestHandlerBeanNames);
+        this.responseCaches = Collections.unmodifiableMap(responseCaches);
+        this.requestHandlers = new ClassDispatchTable<>(this::resolveRequestHandler);
     }
 
     /**
@@ -64,30 +153,240 @@ public class RequestHandlerProvider implements IRequestHandlerProvider {
     @Override
     @SuppressWarnings("unchecked")
     public <C extends IRequest<R>, R> IRequestHandler<C, R> getRequestHandler(Class<? extends C> request) {
-        if(requestHandlers.get(request) != null){
-            return (IRequestHandler<C, R>) requestHandlers.get(request);
+        IRequestHandler<?, ?> requestHandler = requestHandlers.get(request);
+        if(requestHandler != null){
+            return (IRequestHandler<C, R>) requestHandler;
         } else {
-            throw new HandlerNotFoundException("No request handler exists for the request: " + request.getCanonicalName());
+            throw new HandlerNotFoundException("request", request);
         }
     }
 
     /**
-     * Find a given {@link IRequestHandler} by its bean name and stores it in a map with its {@link IRequest} as key.
+     * Retrieve the bean name of the {@link IRequestHandler} for a given {@link IRequest} class.
      *
-     * @param beanName The name of the bean for the {@link IRequestHandler} to be found.
+     * @param request The {@link IRequest} class for which the bean name of the {@link IRequestHandler} must be found.
+     * @return The bean name of the {@link IRequestHandler}, or null if no {@link IRequestHandler} exists for the {@link IRequest}.
+     */
+    @Override
+    public String getRequestHandlerBeanName(Class<?> request) {
+        return requestHandlerBeanNames.get(request);
+    }
+
+    /**
+     * Registers the bean name of an {@link IRequestHandler} with its {@link IRequest} as key. Unless the handlers are
+     * lazy, the {@link IRequestHandler} bean is retrieved and decorated right away.
+     *
+     * @param beanName The name of the bean for the {@link IRequestHandler} to be registered.
+     * @param lazy Whether the {@link IRequestHandler} bean is retrieved on the first dispatch of its request type.
+     * @param requestHandlerBeanNames The map in which the bean name is stored.
+     * @param responseCaches The map in which the response cache of the request type is stored.
      * @throws RequestHandlerAlreadyExistsException If an {@link IRequestHandler} for the {@link IRequest} already exists.
      */
-    @SuppressWarnings("unchecked")
-    private void addRequestHandler(String beanName){
-        IRequestHandler<?, ?> requestHandler = applicationContextHelper.getRequestHandlerByBeanName(beanName);
-        Class<?>[] requestHandlerTypes = applicationContextHelper.getGenericTypesOfRequestHandler(requestHandler);
-        Class<? extends IRequest<?>> requestType = (Class<? extends IRequest<?>>) requestHandlerTypes[0];
+    private void addRequestHandler(String beanName, boolean lazy, Map<Class<?>, String> requestHandlerBeanNames, Map<Class<?>, ResponseCache<?, ?>> responseCaches){
+        Class<?>[] requestHandlerTypes = mediatorContext.getGenericTypesOfRequestHandler(beanName);
+        Class<?> requestType = requestHandlerTypes[0];
 
-        if(requestHandlers.containsKey(requestType)){
+        if(requestHandlerBeanNames.containsKey(requestType)){
             String exception = "A handler for request: " + requestType.getCanonicalName() + " already exists";
             throw new RequestHandlerAlreadyExistsException(exception);
         }
-        requestHandlers.put(requestType, requestHandler);
+        requestHandlerBeanNames.put(requestType, beanName);
+
+        ResponseCache<?, ?> responseCache = createResponseCache(requestType);
+        if(responseCache != null){
+            responseCaches.put(requestType, responseCache);
+        }
+
+        if(!lazy){
+            IRequestHandler<?, ?> requestHandler = mediatorContext.getRequestHandlerByBeanName(beanName);
+            resolvedRequestHandlers.put(requestType, decorateRequestHandler(requestType, requestHandler, responseCache));
+        }
+    }
+
+    /**
+     * Resolves the decorated {@link IRequestHandler} of a request type, retrieving its bean if that did not happen yet.
+     * Concurrent first dispatches of a request type retrieve and decorate the bean only once.
+     *
+     * @param requestType The {@link IRequest} type of the {@link IRequestHandler}.
+     * @return The decorated {@link IRequestHandler}, or null if no {@link IRequestHandler} exists for the request type.
+     */
+    private IRequestHandler<?, ?> resolveRequestHandler(Class<?> requestType){
+        String beanName = requestHandlerBeanNames.get(requestType);
+        if(beanName == null){
+            return null;
+        }
+        return resolvedRequestHandlers.computeIfAbsent(requestType, type ->
+                decorateRequestHandler(type, mediatorContext.getRequestHandlerByBeanName(beanName), responseCaches.get(type)));
+    }
+
+    /**
+     * Creates and registers the {@link ResponseCache} of a request type annotated with {@link CacheResponse}.
+     *
+     * @param requestType The {@link IRequest} type.
+     * @return The {@link ResponseCache} of the request type, or null if the request type is not annotated.
+     * @throws IllegalStateException If the request type is an {@link IStreamRequest}, whose stream can only be consumed once.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private ResponseCache<?, ?> createResponseCache(Class<?> requestType){
+        CacheResponse cacheResponse = mediatorContext.findAnnotation(requestType, CacheResponse.class);
+        if(cacheResponse == null){
+            return null;
+        }
+        if(IStreamRequest.class.isAssignableFrom(requestType)){
+            String exception = "The request " + requestType.getCanonicalName() + " is annotated with @CacheResponse but its response is a stream which can only be consumed once";
+            throw new IllegalStateException(exception);
+        }
+
+        ResponseCache responseCache = new ResponseCache(cacheResponse.maxEntries(), cacheResponse.maxWeight(), cacheResponse.unit().toNanos(cacheResponse.ttl()), createWeigher(cacheResponse));
+        responseCacheManager.register(requestType, responseCache, cacheResponse.invalidatedBy());
+        return responseCache;
+    }
+
+    /**
+     * Wraps an {@link IRequestHandler} in the {@link DelegatingRequestHandler} selected by the annotations of the
+     * handler and of its request type.
+     *
+     * @param requestType The {@link IRequest} type of the {@link IRequestHandler}.
+     * @param requestHandler The {@link IRequestHandler} which must be decorated.
+     * @param responseCache The {@link ResponseCache} of the request type, or null if its responses are not cached.
+     * @return The decorated {@link IRequestHandler}, or the given {@link IRequestHandler} if nothing is annotated.
+     * @throws IllegalStateException If a {@link MicroBatch} annotation is placed on a handler which is not an {@link IBatchRequestHandler},
+     *                               a {@link SingleFlight}, {@link Bulkhead} or timeout applies to an {@link IStreamRequest},
+     *                               a {@link MicroBatch}, {@link SingleFlight}, {@link Bulkhead} or timeout applies to an {@link IReactiveRequest},
+     *                               or a {@link Bulkhead} annotation has invalid limits.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private IRequestHandler<?, ?> decorateRequestHandler(Class<?> requestType, IRequestHandler<?, ?> requestHandler, ResponseCache<?, ?> responseCache){
+        IRequestHandler<?, ?> decoratedHandler = requestHandler;
+
+        MicroBatch microBatch = mediatorContext.findAnnotation(requestHandler.getClass(), MicroBatch.class);
+        if(microBatch != null){
+            if(!(requestHandler instanceof IBatchRequestHandler)){
+                String exception = "The handler " + requestHandler.getClass().getCanonicalName() + " is annotated with @MicroBatch but does not implement IBatchRequestHandler";
+                throw new IllegalStateException(exception);
+            }
+            rejectReactiveRequest(requestType, "@MicroBatch");
+            decoratedHandler = new MicroBatchingRequestHandler((IBatchRequestHandler) requestHandler, microBatch.maxSize(), microBatch.unit().toNanos(microBatch.maxWait()));
+        }
+
+        if(mediatorContext.findAnnotation(requestType, SingleFlight.class) != null){
+            if(IStreamRequest.class.isAssignableFrom(requestType)){
+                String exception = "The request " + requestType.getCanonicalName() + " is annotated with @SingleFlight but its response is a stream which can only be consumed once";
+                throw new IllegalStateException(exception);
+            }
+            rejectReactiveRequest(requestType, "@SingleFlight");
+            decoratedHandler = SingleFlightRequestHandler.of((IRequestHandler) decoratedHandler);
+        }
+
+        if(responseCache != null){
+            decoratedHandler = CachingRequestHandler.of((IRequestHandler) decoratedHandler, (ResponseCache) responseCache);
+        }
+
+        IRequestHandler<?, ?> pipeline = buildPipeline(requestType, decoratedHandler);
+        Bulkhead bulkhead = mediatorContext.findAnnotation(requestHandler.getClass(), Bulkhead.class);
+        if(bulkhead == null){
+            bulkhead = mediatorContext.findAnnotation(requestType, Bulkhead.class);
+        }
+        if(bulkhead != null){
+            rejectStreamRequest(requestType, "@Bulkhead");
+            rejectReactiveRequest(requestType, "@Bulkhead");
+            pipeline = BulkheadRequestHandler.of((IRequestHandler) pipeline, requestType, bulkhead);
+        }
+        long timeoutNanos = getTimeoutNanos(requestType);
+        if(timeoutNanos > 0){
+            rejectStreamRequest(requestType, "a timeout");
+            rejectReactiveRequest(requestType, "a timeout");
+            pipeline = TimeoutRequestHandler.of((IRequestHandler) pipeline, requestType, timeoutNanos);
+        }
+        if(handlerMetricsProvider != null){
+            return InstrumentedRequestHandler.of((IRequestHandler) pipeline, handlerMetricsProvider.getHandlerMetrics(requestHandler.getClass()));
+        }
+        return pipeline;
+    }
+
+    /**
+     * Rejects a decoration which would only cover the creation of a stream, while the work of an {@link IStreamRequest}
+     * happens when the caller consumes the stream after its handler has returned.
+     *
+     * @param requestType The {@link IRequest} type.
+     * @param decoration The description of the decoration for the exception message.
+     * @throws IllegalStateException If the request type is an {@link IStreamRequest}.
+     */
+    private static void rejectStreamRequest(Class<?> requestType, String decoration){
+        if(IStreamRequest.class.isAssignableFrom(requestType)){
+            String exception = "The request " + requestType.getCanonicalName() + " has " + decoration + " but its response is a stream which is consumed after its handler returns";
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    /**
+     * Rejects a decoration which would block the subscribing thread or only cover the assembly of a publisher, while
+     * an {@link IReactiveRequest} must not block and is only handled when its publisher is subscribed to.
+     *
+     * @param requestType The {@link IRequest} type.
+     * @param decoration The description of the decoration for the exception message.
+     * @throws IllegalStateException If the request type is an {@link IReactiveRequest}.
+     */
+    private static void rejectReactiveRequest(Class<?> requestType, String decoration){
+        if(IReactiveRequest.class.isAssignableFrom(requestType)){
+            String exception = "The request " + requestType.getCanonicalName() + " has " + decoration + " but its response is a publisher which is handled without blocking after its handler returns";
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    /**
+     * Retrieves the timeout of a request type, where the property of the request type takes precedence over its
+     * {@link Timeout} annotation.
+     *
+     * @param requestType The {@link IRequest} type.
+     * @return The timeout in nanoseconds, or zero if the request type has no timeout.
+     */
+    private long getTimeoutNanos(Class<?> requestType){
+        Long timeoutMillis = mediatorContext.getProperty(Mediator.TIMEOUT_PROPERTY_PREFIX + requestType.getName(), Long.class, null);
+        if(timeoutMillis != null){
+            return TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        }
+        Timeout timeout = mediatorContext.findAnnotation(requestType, Timeout.class);
+        return timeout == null ? 0 : timeout.unit().toNanos(timeout.value());
+    }
+
+    /**
+     * Chains the {@link IPipelineBehavior} which apply to a request type around its {@link IRequestHandler}.
+     *
+     * @param requestType The {@link IRequest} type of the {@link IRequestHandler}.
+     * @param requestHandler The {@link IRequestHandler} at the end of the pipeline.
+     * @return The first link of the pipeline, or the given {@link IRequestHandler} if no behavior applies.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private IRequestHandler<?, ?> buildPipeline(Class<?> requestType, IRequestHandler<?, ?> requestHandler){
+        List<IPipelineBehavior<?, ?>> applicableBehaviors = new ArrayList<>();
+        for(IPipelineBehavior<?, ?> pipelineBehavior : pipelineBehaviors){
+            if(mediatorContext.getRequestTypeOfPipelineBehavior(pipelineBehavior).isAssignableFrom(requestType)){
+                applicableBehaviors.add(pipelineBehavior);
+            }
+        }
+
+        IRequestHandler<?, ?> pipeline = requestHandler;
+        for(int i = applicableBehaviors.size() - 1; i >= 0; i--){
+            pipeline = PipelineRequestHandler.of((IPipelineBehavior) applicableBehaviors.get(i), (IRequestHandler) pipeline);
+        }
+        return pipeline;
+    }
+
+    /**
+     * Creates the weigher function of a response cache from its {@link CacheResponse} annotation.
+     *
+     * @param cacheResponse The {@link CacheResponse} annotation of the request type.
+     * @return The weigher function, or null if every response weighs one.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private ToLongBiFunction<Object, Object> createWeigher(CacheResponse cacheResponse){
+        if(cacheResponse.weigher() == IResponseWeigher.class){
+            return null;
+        }
+
+        IResponseWeigher weigher = mediatorContext.getOrCreateBean(cacheResponse.weigher());
+        return (request, response) -> weigher.weigh((IRequest) request, response);
     }
 
 }
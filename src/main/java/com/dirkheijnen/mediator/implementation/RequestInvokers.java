@@ -0,0 +1,135 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dirkheijnen.mediator.implementation;
+
+import com.dirkheijnen.mediator.interfaces.IRequest;
+import com.dirkheijnen.mediator.interfaces.IRequestHandler;
+import com.dirkheijnen.mediator.interfaces.IRequestInvoker;
+import org.springframework.util.ClassUtils;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ *  Generates the {@link IRequestInvoker} of a request type with the {@link LambdaMetafactory}.
+ *  Every invoker is a class of its own, which holds the handler in a field of the concrete handler type and calls the
+ *  handle method of that type directly. The JIT compiler can therefore inline the handler into the invoker without
+ *  relying on a type profile.
+ *
+ *  A handler whose class, handle method or request type is not public, or which is loaded by a class loader the
+ *  mediator cannot see, cannot be called from a generated class. Its invoker calls the handler through the
+ *  {@link IRequestHandler} interface instead.
+ *
+ *  @author Dirk Heijnen
+ *  @since 1.1
+ */
+final class RequestInvokers {
+
+    /**
+     * The constructor of the {@link RequestInvokers} class, which only has static methods.
+     */
+    private RequestInvokers(){
+    }
+
+    /**
+     * Creates the {@link IRequestInvoker} of a request type.
+     *
+     * @param requestType The {@link IRequest} type of the invoker.
+     * @param requestHandler The {@link IRequestHandler} of the request type.
+     * @param <C> The type of the request which must implement the {@link IRequest} interface.
+     * @param <R> The type of the response which must match the type of the {@link IRequest}.
+     * @return The generated {@link IRequestInvoker}, or one which calls the handler through its interface.
+     */
+    @SuppressWarnings("unchecked")
+    static <C extends IRequest<R>, R> IRequestInvoker<C, R> create(Class<?> requestType, IRequestHandler<C, R> requestHandler){
+        Method handleMethod = findHandleMethod(requestHandler.getClass(), requestType);
+        if(handleMethod != null){
+            try {
+                return (IRequestInvoker<C, R>) bind(requestType, handleMethod, requestHandler);
+            } catch (Throwable ignored) {
+                // The handler cannot be called from a generated class, so it is called through its interface.
+            }
+        }
+        return requestHandler::handle;
+    }
+
+    /**
+     * Generates an {@link IRequestInvoker} class for the handle method and binds it to the handler.
+     *
+     * @param requestType The {@link IRequest} type of the invoker.
+     * @param handleMethod The handle method which the invoker calls.
+     * @param requestHandler The {@link IRequestHandler} to which the invoker is bound.
+     * @return The generated {@link IRequestInvoker}.
+     * @throws Throwable If the {@link LambdaMetafactory} cannot generate the invoker.
+     */
+    private static IRequestInvoker<?, ?> bind(Class<?> requestType, Method handleMethod, IRequestHandler<?, ?> requestHandler) throws Throwable {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        CallSite callSite = LambdaMetafactory.metafactory(
+                lookup,
+                "invoke",
+                MethodType.methodType(IRequestInvoker.class, requestHandler.getClass()),
+                MethodType.methodType(Object.class, IRequest.class),
+                lookup.unreflect(handleMethod),
+                MethodType.methodType(handleMethod.getReturnType(), requestType)
+        );
+        return (IRequestInvoker<?, ?>) callSite.getTarget().invoke(requestHandler);
+    }
+
+    /**
+     * Finds the most specific public handle method of a handler class which accepts the request type.
+     *
+     * @param handlerType The class of the {@link IRequestHandler}.
+     * @param requestType The {@link IRequest} type which the handle method must accept.
+     * @return The handle method, or null if it cannot be called from a generated class.
+     */
+    private static Method findHandleMethod(Class<?> handlerType, Class<?> requestType){
+        if(!isAccessible(handlerType) || !isAccessible(requestType)){
+            return null;
+        }
+
+        Method handleMethod = null;
+        for(Method method : handlerType.getMethods()){
+            if(!method.getName().equals("handle") || method.isBridge() || Modifier.isStatic(method.getModifiers()) || method.getParameterCount() != 1){
+                continue;
+            }
+            Class<?> parameterType = method.getParameterTypes()[0];
+            if(parameterType.isAssignableFrom(requestType) && (handleMethod == null || handleMethod.getParameterTypes()[0].isAssignableFrom(parameterType))){
+                handleMethod = method;
+            }
+        }
+
+        if(handleMethod == null || !isAccessible(handleMethod.getDeclaringClass()) || !isAccessible(handleMethod.getParameterTypes()[0]) || !isAccessible(handleMethod.getReturnType())){
+            return null;
+        }
+        return handleMethod;
+    }
+
+    /**
+     * Checks whether a generated class can refer to the given type.
+     *
+     * @param type The type to which the generated class refers.
+     * @return True if the type is public and visible from the class loader of the mediator.
+     */
+    private static boolean isAccessible(Class<?> type){
+        return Modifier.isPublic(type.getModifiers()) && ClassUtils.isVisible(type, RequestInvokers.class.getClassLoader());
+    }
+
+}
@@ -0,0 +1,313 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dirkheijnen.mediator.implementation;
+
+import com.dirkheijnen.mediator.interfaces.IResponseCacheStatistics;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongBiFunction;
+
+/**
+ *  A bounded cache of responses with least recently used eviction and an optional time to live.
+ *
+ *  The cache is split into segments which each guard their own access ordered {@link LinkedHashMap}, so concurrent
+ *  requests for different keys rarely contend on the same lock. The maximum amount of entries and the maximum weight
+ *  are divided over the segments, which makes the eviction order approximately least recently used across the cache.
+ *
+ *  A response is computed between {@link #startLoad(Object)} and {@link #put(Object, Object, Load)}. Invalidating a key
+ *  marks the loads of that key which are in flight, and only those, so a response computed before an invalidation is
+ *  never cached after it, while the loads of other keys are unaffected.
+ *
+ *  @author Dirk Heijnen
+ *  @since 1.1
+ *
+ *  @param <K> The type of the keys, the requests.
+ *  @param <V> The type of the values, the responses.
+ */
+public class ResponseCache<K, V> implements IResponseCacheStatistics {
+
+    private static final int MAX_SEGMENTS = 16;
+
+    private final ResponseCache<K, V>.Segment[] segments;
+
+    private final int segmentMask;
+
+    private final long ttlNanos;
+
+    private final ToLongBiFunction<? super K, ? super V> weigher;
+
+    private final LongAdder hitCount = new LongAdder();
+
+    private final LongAdder missCount = new LongAdder();
+
+    private final LongAdder evictionCount = new LongAdder();
+
+    /**
+     * The constructor of the {@link ResponseCache} class.
+     *
+     * @param maxEntries The maximum amount of entries in the cache.
+     * @param maxWeight The maximum total weight of the entries, zero or less for no limit.
+     * @param ttlNanos The time to live of an entry in nanoseconds, zero or less for no expiry.
+     * @param weigher The function which calculates the weight of an entry, or null if every entry weighs one.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public ResponseCache(int maxEntries, long maxWeight, long ttlNanos, ToLongBiFunction<? super K, ? super V> weigher){
+        if(maxEntries < 1){
+            throw new IllegalArgumentException("The maximum amount of entries must be at least 1, but was " + maxEntries);
+        }
+
+        int segmentCount = Math.min(MAX_SEGMENTS, Integer.highestOneBit(Math.max(1, maxEntries / MAX_SEGMENTS)));
+        this.segments = new ResponseCache.Segment[segmentCount];
+        for(int i = 0; i < segmentCount; i++){
+            int segmentEntries = Math.max(1, maxEntries / segmentCount);
+            long segmentWeight = maxWeight > 0 ? Math.max(1, maxWeight / segmentCount) : Long.MAX_VALUE;
+            this.segments[i] = new Segment(segmentEntries, segmentWeight);
+        }
+        this.segmentMask = segmentCount - 1;
+        this.ttlNanos = ttlNanos;
+        this.weigher = weigher;
+    }
+
+    /**
+     * Retrieves the cached value of a key.
+     *
+     * @param key The key of the entry.
+     * @return The cached value, or null if the key is not cached or its entry has expired.
+     */
+    public V get(K key){
+        V value = segmentFor(key).get(key);
+        if(value != null){
+            hitCount.increment();
+        } else {
+            missCount.increment();
+        }
+        return value;
+    }
+
+    /**
+     * Registers that the value of a key is about to be computed. Every load must end with either
+     * {@link #put(Object, Object, Load)} or {@link #cancelLoad(Object, Load)}.
+     *
+     * @param key The key of the entry.
+     * @return The {@link Load} which must be passed to the put or the cancel.
+     */
+    public Load startLoad(K key){
+        return segmentFor(key).startLoad(key);
+    }
+
+    /**
+     * Stores a computed value, unless the key was invalidated since its load started.
+     *
+     * @param key The key of the entry.
+     * @param value The value of the entry, must not be null.
+     * @param load The {@link Load} which was started before the value was computed.
+     */
+    public void put(K key, V value, Load load){
+        long weight = weigher != null ? weigher.applyAsLong(key, value) : 1;
+        long expiresAt = ttlNanos > 0 ? System.nanoTime() + ttlNanos : 0;
+        segmentFor(key).finishLoad(key, load, new Entry<>(value, weight, expiresAt));
+    }
+
+    /**
+     * Ends a load without storing a value, for example because the computation failed or returned null.
+     *
+     * @param key The key of the entry.
+     * @param load The {@link Load} which was started before the value was computed.
+     */
+    public void cancelLoad(K key, Load load){
+        segmentFor(key).finishLoad(key, load, null);
+    }
+
+    /**
+     * Removes the entry of a key, and prevents the loads of the key which are in flight from storing their value.
+     *
+     * @param key The key of the entry to remove.
+     */
+    public void invalidate(K key){
+        segmentFor(key).remove(key);
+    }
+
+    /**
+     * Removes all the entries, and prevents all the loads which are in flight from storing their value.
+     */
+    public void invalidateAll(){
+        for(Segment segment : segments){
+            segment.clear();
+        }
+    }
+
+    @Override
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    @Override
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    @Override
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    @Override
+    public long getSize() {
+        long size = 0;
+        for(Segment segment : segments){
+            size += segment.size();
+        }
+        return size;
+    }
+
+    private Segment segmentFor(Object key){
+        int hash = key.hashCode();
+        return segments[(hash ^ (hash >>> 16)) & segmentMask];
+    }
+
+    /**
+     * A cached value together with its weight and expiry time.
+     */
+    private static final class Entry<V> {
+
+        private final V value;
+
+        private final long weight;
+
+        private final long expiresAt;
+
+        private Entry(V value, long weight, long expiresAt){
+            this.value = value;
+            this.weight = weight;
+            this.expiresAt = expiresAt;
+        }
+
+    }
+
+    /**
+     *  The loads of one key which are in flight, which are invalidated together with the key.
+     */
+    public static final class Load {
+
+        private int pending;
+
+        private boolean invalidated;
+
+        private Load(){
+        }
+
+    }
+
+    /**
+     * One lock striped part of the cache, holding its entries in least recently used order.
+     */
+    private final class Segment {
+
+        private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+        private final Map<K, Load> loads = new HashMap<>();
+
+        private final int maxEntries;
+
+        private final long maxWeight;
+
+        private long weight;
+
+        private Segment(int maxEntries, long maxWeight){
+            this.maxEntries = maxEntries;
+            this.maxWeight = maxWeight;
+        }
+
+        private synchronized V get(K key){
+            Entry<V> entry = entries.get(key);
+            if(entry == null){
+                return null;
+            }
+
+            if(entry.expiresAt != 0 && System.nanoTime() - entry.expiresAt >= 0){
+                entries.remove(key);
+                weight -= entry.weight;
+                evictionCount.increment();
+                return null;
+            }
+            return entry.value;
+        }
+
+        private synchronized Load startLoad(K key){
+            Load load = loads.get(key);
+            if(load == null){
+                load = new Load();
+                loads.put(key, load);
+            }
+            load.pending++;
+            return load;
+        }
+
+        private synchronized void finishLoad(K key, Load load, Entry<V> entry){
+            if(--load.pending == 0 && loads.get(key) == load){
+                loads.remove(key);
+            }
+            if(entry == null || load.invalidated || entry.weight > maxWeight){
+                return;
+            }
+
+            Entry<V> previous = entries.put(key, entry);
+            if(previous != null){
+                weight -= previous.weight;
+            }
+            weight += entry.weight;
+
+            Iterator<Entry<V>> eldest = entries.values().iterator();
+            while((entries.size() > maxEntries || weight > maxWeight) && eldest.hasNext()){
+                Entry<V> evicted = eldest.next();
+                eldest.remove();
+                weight -= evicted.weight;
+                evictionCount.increment();
+            }
+        }
+
+        private synchronized void remove(K key){
+            Entry<V> removed = entries.remove(key);
+            if(removed != null){
+                weight -= removed.weight;
+            }
+            Load load = loads.remove(key);
+            if(load != null){
+                load.invalidated = true;
+            }
+        }
+
+        private synchronized void clear(){
+            entries.clear();
+            weight = 0;
+            for(Load load : loads.values()){
+                load.invalidated = true;
+            }
+            loads.clear();
+        }
+
+        private synchronized int size(){
+            return entries.size();
+        }
+
+    }
+
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dirkheijnen.mediator.implementation;
+
+import com.dirkheijnen.mediator.annotations.CacheResponse;
+import com.dirkheijnen.mediator.interfaces.INotification;
+import com.dirkheijnen.mediator.interfaces.IRequest;
+import com.dirkheijnen.mediator.interfaces.IResponseCacheManager;
+import com.dirkheijnen.mediator.interfaces.IResponseCacheStatistics;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ *  The {@link ResponseCacheManager} keeps the {@link ResponseCache} of every request type annotated with
+ *  {@link CacheResponse}, and invalidates them when one of their invalidating notifications is published.
+ *
+ *  The caches are registered while the {@link RequestHandlerProvider} is constructed and are not modified afterwards.
+ *  The caches invalidated by a notification class are resolved on its first publish and cached.
+ *
+ *  @author Dirk Heijnen
+ *  @since 1.1
+ */
+public class ResponseCacheManager implements IResponseCacheManager {
+
+    private static final ResponseCache<?, ?>[] NO_CACHES = new ResponseCache<?, ?>[0];
+
+    private final Map<Class<?>, ResponseCache<Object, Object>> responseCaches = new HashMap<>();
+
+    private final Map<Class<?>, Class<?>[]> invalidatingNotifications = new HashMap<>();
+
+    private final ClassDispatchTable<ResponseCache<?, ?>[]> notificationInvalidations = new ClassDispatchTable<>(this::resolveInvalidatedCaches);
+
+    /**
+     * Registers the {@link ResponseCache} of a request type.
+     *
+     * @param requestType The {@link IRequest} type whose responses are cached.
+     * @param responseCache The {@link ResponseCache} of the request type.
+     * @param invalidatedBy The {@link INotification} types which invalidate the cache.
+     */
+    @SuppressWarnings("unchecked")
+    void register(Class<?> requestType, ResponseCache<?, ?> responseCache, Class<?>[] invalidatedBy){
+        responseCaches.put(requestType, (ResponseCache<Object, Object>) responseCache);
+        invalidatingNotifications.put(requestType, invalidatedBy);
+    }
+
+    @Override
+    public void invalidate(IRequest<?> request) {
+        ResponseCache<Object, Object> responseCache = responseCaches.get(request.getClass());
+        if(responseCache != null){
+            responseCache.invalidate(request);
+        }
+    }
+
+    @Override
+    public void invalidateAll(Class<? extends IRequest<?>> requestType) {
+        ResponseCache<Object, Object> responseCache = responseCaches.get(requestType);
+        if(responseCache != null){
+            responseCache.invalidateAll();
+        }
+    }
+
+    @Override
+    public void invalidateAll() {
+        for(ResponseCache<Object, Object> responseCache : responseCaches.values()){
+            responseCache.invalidateAll();
+        }
+    }
+
+    @Override
+    public IResponseCacheStatistics getStatistics(Class<? extends IRequest<?>> requestType) {
+        return responseCaches.get(requestType);
+    }
+
+    /**
+     * Invalidates every {@link ResponseCache} which is invalidated by the given notification or one of its supertypes.
+     *
+     * @param notification The {@link INotification} which is published.
+     */
+    public void onNotificationPublished(INotification notification){
+        for(ResponseCache<?, ?> responseCache : notificationInvalidations.get(notification.getClass())){
+            responseCache.invalidateAll();
+        }
+    }
+
+    /**
+     * Finds the caches which are invalidated by a notification class.
+     *
+     * @param notificationType The {@link INotification} class which is published.
+     * @return The {@link ResponseCache} which must be invalidated.
+     */
+    private ResponseCache<?, ?>[] resolveInvalidatedCaches(Class<?> notificationType){
+        List<ResponseCache<?, ?>> invalidatedCaches = new ArrayList<>();
+        for(Map.Entry<Class<?>, Class<?>[]> invalidation : invalidatingNotifications.entrySet()){
+            for(Class<?> invalidatingType : invalidation.getValue()){
+                if(invalidatingType.isAssignableFrom(notificationType)){
+                    invalidatedCaches.add(responseCaches.get(invalidation.getKey()));
+                    break;
+                }
+            }
+        }
+        return invalidatedCaches.isEmpty() ? NO_CACHES : invalidatedCaches.toArray(NO_CACHES);
+    }
+
+}
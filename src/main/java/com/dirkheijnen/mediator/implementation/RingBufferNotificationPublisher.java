@@ -0,0 +1,269 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dirkheijnen.mediator.implementation;
+
+import com.dirkheijnen.mediator.interfaces.INotification;
+import com.dirkheijnen.mediator.interfaces.INotificationHandler;
+import com.dirkheijnen.mediator.interfaces.INotificationPublisher;
+
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ *  The {@link RingBufferNotificationPublisher} hands every notification to a single consumer thread through a
+ *  preallocated ring buffer, so publishing costs a few memory writes and creates no garbage per notification.
+ *
+ *  Producers claim the next sequence of the buffer, store the notification and its handlers in the slot of that
+ *  sequence and mark the slot as published. The consumer takes every published slot up to the first one which is not
+ *  published yet as one batch, invokes the handlers of each notification in order, and releases the whole batch at
+ *  once. A producer which finds the buffer full waits for the consumer with the {@link WaitStrategy}.
+ *
+ *  With a single producer, publish must only be called by one thread at a time, and the slots are published by a
+ *  single ordered write. With multiple producers the sequences are claimed atomically, and every slot records the
+ *  round of the buffer in which it was published.
+ *
+ *  Notifications are handled in the order of their sequences. Exceptions of the handlers are passed to the uncaught
+ *  exception handler of the consumer thread, after which the remaining handlers still run.
+ *
+ *  @author Dirk Heijnen
+ *  @since 1.1
+ */
+public class RingBufferNotificationPublisher implements INotificationPublisher, AutoCloseable {
+
+    private final int mask;
+
+    private final int indexShift;
+
+    private final INotification[] notifications;
+
+    private final List<?>[] notificationHandlers;
+
+    private final AtomicIntegerArray publishedRounds;
+
+    private final WaitStrategy waitStrategy;
+
+    private final AtomicLong claimedSequence = new AtomicLong(-1);
+
+    private final AtomicLong publishedSequence = new AtomicLong(-1);
+
+    private final AtomicLong consumedSequence = new AtomicLong(-1);
+
+    private final Thread consumer;
+
+    private volatile boolean running = true;
+
+    /**
+     * The constructor of the {@link RingBufferNotificationPublisher} class, which starts the consumer thread.
+     *
+     * @param bufferSize The number of slots of the ring buffer, which must be a power of two.
+     * @param waitStrategy The {@link WaitStrategy} of the consumer and the producers.
+     * @param multiProducer Whether publish may be called by several threads at the same time.
+     * @throws IllegalArgumentException If the buffer size is not a positive power of two.
+     */
+    public RingBufferNotificationPublisher(int bufferSize, WaitStrategy waitStrategy, boolean multiProducer){
+        if(bufferSize < 1 || Integer.bitCount(bufferSize) != 1){
+            throw new IllegalArgumentException("The buffer size must be a positive power of two, but is " + bufferSize);
+        }
+
+        this.mask = bufferSize - 1;
+        this.indexShift = Integer.numberOfTrailingZeros(bufferSize);
+        this.notifications = new INotification[bufferSize];
+        this.notificationHandlers = new List<?>[bufferSize];
+        this.waitStrategy = waitStrategy;
+
+        if(multiProducer){
+            this.publishedRounds = new AtomicIntegerArray(bufferSize);
+            for(int i = 0; i < bufferSize; i++){
+                this.publishedRounds.set(i, -1);
+            }
+        } else {
+            this.publishedRounds = null;
+        }
+
+        this.consumer = new Thread(this::consume, "mediator-ring-buffer");
+        this.consumer.setDaemon(true);
+        this.consumer.start();
+    }
+
+    /**
+     * Stores the notification in the ring buffer, to be handled by the consumer thread. Waits while the buffer is full.
+     *
+     * A publish which overlaps with {@link #close()} may claim its sequence after the consumer has decided to stop. It
+     * then waits until the consumer has either handled the notification or stopped, and fails in the latter case, so a
+     * notification is never lost without an exception.
+     *
+     * @param notification The {@link INotification} which should be send to the {@link INotificationHandler}.
+     * @param notificationHandlers The {@link INotificationHandler} which must handle the {@link INotification}.
+     * @param <T> The type of the {@link INotification}.
+     * @throws RejectedExecutionException If the publisher is closed, or is closed before the notification was handled.
+     */
+    @Override
+    public <T extends INotification> void publish(T notification, List<INotificationHandler<T>> notificationHandlers) {
+        if(!running){
+            throw new RejectedExecutionException("The ring buffer notification publisher is closed");
+        }
+
+        long sequence = publishedRounds != null ? claimedSequence.incrementAndGet() : claimedSequence.get() + 1;
+        if(publishedRounds == null){
+            // A full write, so the claim is visible to a closing consumer before running is read again below.
+            claimedSequence.set(sequence);
+        }
+
+        long wrapPoint = sequence - notifications.length;
+        int idleCounter = 0;
+        while (wrapPoint > consumedSequence.get()){
+            if(!consumer.isAlive()){
+                throw new RejectedExecutionException("The ring buffer notification publisher is closed");
+            }
+            idleCounter = waitStrategy.idle(idleCounter);
+        }
+
+        int index = (int) sequence & mask;
+        notifications[index] = notification;
+        this.notificationHandlers[index] = notificationHandlers;
+
+        if(publishedRounds != null){
+            publishedRounds.lazySet(index, (int) (sequence >>> indexShift));
+        } else {
+            publishedSequence.lazySet(sequence);
+        }
+
+        if(!running){
+            awaitConsumed(sequence);
+        }
+    }
+
+    /**
+     * Waits until the consumer has handled a sequence which was published while the publisher was closing. The claim of
+     * the sequence is visible to the consumer unless the consumer had already seen the publisher as closed, so either the
+     * consumer handles the sequence before it stops, or it stops without it.
+     *
+     * @param sequence The sequence of the published notification.
+     * @throws RejectedExecutionException If the consumer stopped without handling the sequence.
+     */
+    private void awaitConsumed(long sequence){
+        int idleCounter = 0;
+        while (consumedSequence.get() < sequence){
+            if(!consumer.isAlive()){
+                if(consumedSequence.get() >= sequence){
+                    return;
+                }
+                throw new RejectedExecutionException("The ring buffer notification publisher was closed before the notification was handled");
+            }
+            idleCounter = waitStrategy.idle(idleCounter);
+        }
+    }
+
+    /**
+     * Retrieves the number of notifications which are published but not yet handled.
+     *
+     * @return The number of pending notifications.
+     */
+    public long getPendingCount(){
+        return Math.max(0, claimedSequence.get() - consumedSequence.get());
+    }
+
+    /**
+     * Stops accepting notifications and waits until the consumer has handled the notifications which were published.
+     */
+    @Override
+    public void close(){
+        running = false;
+
+        boolean interrupted = false;
+        while (consumer.isAlive()){
+            try {
+                consumer.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if(interrupted){
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * The loop of the consumer thread, which handles the published notifications in batches until the publisher is
+     * closed and every claimed sequence has been handled.
+     */
+    private void consume(){
+        long nextSequence = 0;
+        int idleCounter = 0;
+        while (true){
+            long availableSequence = getAvailableSequence(nextSequence);
+            if(availableSequence < nextSequence){
+                if(!running && nextSequence > claimedSequence.get()){
+                    return;
+                }
+                idleCounter = waitStrategy.idle(idleCounter);
+                continue;
+            }
+
+            for(long sequence = nextSequence; sequence <= availableSequence; sequence++){
+                int index = (int) sequence & mask;
+                handle(notifications[index], notificationHandlers[index]);
+                notifications[index] = null;
+                notificationHandlers[index] = null;
+            }
+
+            consumedSequence.lazySet(availableSequence);
+            nextSequence = availableSequence + 1;
+            idleCounter = 0;
+        }
+    }
+
+    /**
+     * Finds the last sequence of the batch which starts at the given sequence.
+     *
+     * @param nextSequence The first sequence which the consumer has not handled.
+     * @return The last published sequence without unpublished sequences before it, or the given sequence minus one
+     * if the given sequence is not published yet.
+     */
+    private long getAvailableSequence(long nextSequence){
+        if(publishedRounds == null){
+            return publishedSequence.get();
+        }
+
+        long lastSequence = nextSequence + mask;
+        long sequence = nextSequence;
+        while (sequence <= lastSequence && publishedRounds.get((int) sequence & mask) == (int) (sequence >>> indexShift)){
+            sequence++;
+        }
+        return sequence - 1;
+    }
+
+    /**
+     * Invokes the handlers of one notification on the consumer thread.
+     *
+     * @param notification The {@link INotification} which is handled.
+     * @param notificationHandlers The {@link INotificationHandler} of the notification.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void handle(INotification notification, List<?> notificationHandlers){
+        for(int i = 0; i < notificationHandlers.size(); i++){
+            try {
+                ((INotificationHandler) notificationHandlers.get(i)).handle(notification);
+            } catch (Throwable e) {
+                consumer.getUncaughtExceptionHandler().uncaughtException(consumer, e);
+            }
+        }
+    }
+
+}
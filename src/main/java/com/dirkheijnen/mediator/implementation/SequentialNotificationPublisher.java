@@ -0,0 +1,49 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dirkheijnen.mediator.implementation;
+
+import com.dirkheijnen.mediator.interfaces.INotification;
+import com.dirkheijnen.mediator.interfaces.INotificationHandler;
+import com.dirkheijnen.mediator.interfaces.INotificationPublisher;
+
+import java.util.List;
+
+/**
+ *  The {@link SequentialNotificationPublisher} invokes the {@link INotificationHandler} one after another on the
+ *  calling thread. An exception thrown by a handler stops the handlers after it from being invoked.
+ *  This is the default {@link INotificationPublisher} of the {@link Mediator}.
+ *
+ *  @author Dirk Heijnen
+ *  @since 1.1
+ */
+public class SequentialNotificationPublisher implements INotificationPublisher {
+
+    /**
+     * Invokes the given {@link INotificationHandler} in order on the calling thread.
+     *
+     * @param notification The {@link INotification} which should be send to the {@link INotificationHandler}.
+     * @param notificationHandlers The {@link INotificationHandler} which must handle the {@link INotification}.
+     * @param <T> The type of the {@link INotification}.
+     */
+    @Override
+    public <T extends INotification> void publish(T notification, List<INotificationHandler<T>> notificationHandlers) {
+        for (INotificationHandler<T> notificationHandler : notificationHandlers){
+            notificationHandler.handle(notification);
+        }
+    }
+
+}
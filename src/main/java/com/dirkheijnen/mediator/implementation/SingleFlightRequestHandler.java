@@ -0,0 +1,149 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dirkheijnen.mediator.implementation;
+
+import com.dirkheijnen.mediator.annotations.SingleFlight;
+import com.dirkheijnen.mediator.interfaces.IBatchRequestHandler;
+import com.dirkheijnen.mediator.interfaces.IRequest;
+import com.dirkheijnen.mediator.interfaces.IRequestHandler;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ *  The {@link SingleFlightRequestHandler} collapses concurrent equal requests of a {@link SingleFlight} request type
+ *  into a single invocation of the wrapped {@link IRequestHandler}.
+ *
+ *  The first caller of a request invokes the {@link IRequestHandler} on its own thread. Every caller which sends an
+ *  equal request in the meantime waits for that invocation and shares its response or exception. Once the invocation
+ *  is finished the request is no longer in flight, so the next call invokes the {@link IRequestHandler} again.
+ *
+ *  @author Dirk Heijnen
+ *  @since 1.1
+ *
+ *  @param <C> The type of the request which must implement the {@link IRequest} interface.
+ *  @param <R> The type of the response which must match the type of the {@link IRequest}.
+ */
+public class SingleFlightRequestHandler<C extends IRequest<R>, R> extends DelegatingRequestHandler<C, R> {
+
+    private final ConcurrentMap<C, CompletableFuture<R>> inFlightRequests = new ConcurrentHashMap<>();
+
+    /**
+     * The constructor of the {@link SingleFlightRequestHandler} class.
+     *
+     * @param delegate The {@link IRequestHandler} which is wrapped.
+     */
+    public SingleFlightRequestHandler(IRequestHandler<C, R> delegate){
+        super(delegate);
+    }
+
+    /**
+     * Creates the {@link SingleFlightRequestHandler} of an {@link IRequestHandler}, which is an
+     * {@link IBatchRequestHandler} itself when the given handler is one.
+     *
+     * @param delegate The {@link IRequestHandler} which is wrapped.
+     * @param <C> The type of the request which must implement the {@link IRequest} interface.
+     * @param <R> The type of the response which must match the type of the {@link IRequest}.
+     * @return The {@link SingleFlightRequestHandler} of the given handler.
+     */
+    public static <C extends IRequest<R>, R> SingleFlightRequestHandler<C, R> of(IRequestHandler<C, R> delegate){
+        if(delegate instanceof IBatchRequestHandler){
+            return new Batch<>((IBatchRequestHandler<C, R>) delegate);
+        }
+        return new SingleFlightRequestHandler<>(delegate);
+    }
+
+    /**
+     * Invokes the wrapped {@link IRequestHandler}, or waits for the invocation of an equal request which is in flight.
+     *
+     * @param request The {@link IRequest} containing the input data send with the request.
+     * @return The response of the request.
+     */
+    @Override
+    public R handle(C request) {
+        CompletableFuture<R> flight = new CompletableFuture<>();
+        CompletableFuture<R> inFlight = inFlightRequests.putIfAbsent(request, flight);
+        if(inFlight != null){
+            return await(inFlight);
+        }
+
+        try {
+            R response = delegate.handle(request);
+            flight.complete(response);
+            return response;
+        } catch (Throwable e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightRequests.remove(request, flight);
+        }
+    }
+
+    /**
+     * Waits for the in flight invocation and rethrows its exception, if any. A checked exception thrown by the
+     * delegate is rethrown wrapped in a {@link CompletionException}. The wait ends when the waiting thread is
+     * interrupted, for example by its own deadline, while the in flight invocation continues for the other callers.
+     *
+     * @throws IllegalStateException If the waiting thread is interrupted.
+     */
+    private R await(CompletableFuture<R> inFlight){
+        try {
+            return inFlight.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for an equal request in flight", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if(cause instanceof RuntimeException){
+                throw (RuntimeException) cause;
+            } else if(cause instanceof Error){
+                throw (Error) cause;
+            }
+            throw new CompletionException(cause);
+        }
+    }
+
+    /**
+     * The {@link SingleFlightRequestHandler} of an {@link IBatchRequestHandler}. A batch is passed to the wrapped
+     * handler as a whole, because it is already a single invocation for all of its requests.
+     *
+     * @param <C> The type of the request which must implement the {@link IRequest} interface.
+     * @param <R> The type of the response which must match the type of the {@link IRequest}.
+     */
+    private static class Batch<C extends IRequest<R>, R> extends SingleFlightRequestHandler<C, R> implements IBatchRequestHandler<C, R> {
+
+        /**
+         * The constructor of the {@link Batch} class.
+         *
+         * @param delegate The {@link IBatchRequestHandler} which is wrapped.
+         */
+        private Batch(IBatchRequestHandler<C, R> delegate){
+            super(delegate);
+        }
+
+        @Override
+        public List<R> handleAll(List<C> requests) {
+            return ((IBatchRequestHandler<C, R>) delegate).handleAll(requests);
+        }
+
+    }
+
+}
@@ -0,0 +1,237 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dirkheijnen.mediator.implementation;
+
+import com.dirkheijnen.mediator.interfaces.IMediator;
+import com.dirkheijnen.mediator.interfaces.IStreamRequest;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ *  The {@link StreamPublisher} exposes the stream of an {@link IStreamRequest} as a Reactive Streams {@link Publisher}.
+ *
+ *  Every subscription sends the request again once the subscriber requests its first element, and only pulls as many
+ *  elements from the stream as the subscriber has requested, checking one element ahead to complete without waiting
+ *  for more demand. The stream is closed when it completes, when it fails
+ *  and when the subscription is cancelled. Elements are emitted on the thread which requested them.
+ *
+ *  This class requires the optional org.reactivestreams:reactive-streams dependency on the class path.
+ *
+ *  @author Dirk Heijnen
+ *  @since 1.1
+ *
+ *  @param <T> The type of the elements of the stream.
+ */
+public class StreamPublisher<T> implements Publisher<T> {
+
+    private final Supplier<? extends Stream<? extends T>> streamSupplier;
+
+    /**
+     * The constructor of the {@link StreamPublisher} class.
+     *
+     * @param streamSupplier Opens a new stream for every subscription.
+     */
+    public StreamPublisher(Supplier<? extends Stream<? extends T>> streamSupplier){
+        this.streamSupplier = Objects.requireNonNull(streamSupplier, "The stream supplier must not be null");
+    }
+
+    /**
+     * Creates a {@link StreamPublisher} which streams an {@link IStreamRequest} through the {@link IMediator}.
+     *
+     * @param mediator The {@link IMediator} which sends the request.
+     * @param request The {@link IStreamRequest} which is send for every subscription.
+     * @param <T> The type of the elements of the stream.
+     * @return The {@link StreamPublisher} of the request.
+     */
+    public static <T> StreamPublisher<T> of(IMediator mediator, IStreamRequest<T> request){
+        Objects.requireNonNull(mediator, "The mediator must not be null");
+        Objects.requireNonNull(request, "The request must not be null");
+        return new StreamPublisher<>(() -> mediator.stream(request));
+    }
+
+    /**
+     * Subscribes a {@link Subscriber} to a new stream, which is opened when the first element is requested.
+     *
+     * @param subscriber The {@link Subscriber} which receives the elements of the stream.
+     */
+    @Override
+    public void subscribe(Subscriber<? super T> subscriber){
+        Objects.requireNonNull(subscriber, "The subscriber must not be null");
+        subscriber.onSubscribe(new StreamSubscription<>(subscriber, streamSupplier));
+    }
+
+    /**
+     *  The {@link StreamSubscription} emits the elements of one stream to one {@link Subscriber}. Signals are emitted by
+     *  a single thread at a time: a thread which requests or cancels while another thread is emitting leaves the work to
+     *  that thread, which loops until no work is missed.
+     *
+     *  @param <T> The type of the elements of the stream.
+     */
+    private static final class StreamSubscription<T> implements Subscription {
+
+        private final Subscriber<? super T> subscriber;
+        private final Supplier<? extends Stream<? extends T>> streamSupplier;
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicInteger work = new AtomicInteger();
+        private volatile boolean cancelled;
+        private volatile Throwable invalidRequest;
+
+        private Stream<? extends T> stream;
+        private Iterator<? extends T> iterator;
+        private boolean done;
+
+        /**
+         * The constructor of the {@link StreamSubscription} class.
+         *
+         * @param subscriber The {@link Subscriber} which receives the elements of the stream.
+         * @param streamSupplier Opens the stream when the first element is requested.
+         */
+        private StreamSubscription(Subscriber<? super T> subscriber, Supplier<? extends Stream<? extends T>> streamSupplier){
+            this.subscriber = subscriber;
+            this.streamSupplier = streamSupplier;
+        }
+
+        /**
+         * Adds demand for elements, capped at {@link Long#MAX_VALUE} which means unbounded.
+         *
+         * @param n The number of additional elements which the subscriber can receive.
+         */
+        @Override
+        public void request(long n){
+            if(n <= 0){
+                invalidRequest = new IllegalArgumentException("The number of requested elements must be positive, but was " + n);
+            }
+            else {
+                demand.getAndUpdate(current -> current + n < 0 ? Long.MAX_VALUE : current + n);
+            }
+            drain();
+        }
+
+        /**
+         * Cancels the subscription, the stream is closed by the thread which emits the signals.
+         */
+        @Override
+        public void cancel(){
+            cancelled = true;
+            drain();
+        }
+
+        /**
+         * Emits the signals of the subscription, unless another thread is already emitting them.
+         */
+        private void drain(){
+            if(work.getAndIncrement() != 0){
+                return;
+            }
+
+            int missed = 1;
+            do {
+                emit();
+                missed = work.addAndGet(-missed);
+            } while(missed != 0);
+        }
+
+        /**
+         * Emits as many elements as the subscriber requested, followed by the completion or the error of the stream.
+         */
+        private void emit(){
+            if(done){
+                return;
+            }
+            if(cancelled){
+                close();
+                return;
+            }
+            if(invalidRequest != null){
+                close();
+                subscriber.onError(invalidRequest);
+                return;
+            }
+
+            long requested = demand.get();
+            if(requested == 0){
+                return;
+            }
+
+            try {
+                if(iterator == null){
+                    stream = streamSupplier.get();
+                    iterator = stream.iterator();
+                }
+
+                long emitted = 0;
+                while(emitted != requested){
+                    if(cancelled){
+                        close();
+                        return;
+                    }
+                    if(!iterator.hasNext()){
+                        close();
+                        subscriber.onComplete();
+                        return;
+                    }
+                    T element = iterator.next();
+                    if(element == null){
+                        throw new NullPointerException("The stream must not contain null elements");
+                    }
+                    subscriber.onNext(element);
+                    emitted++;
+                }
+
+                if(!cancelled && !iterator.hasNext()){
+                    close();
+                    subscriber.onComplete();
+                    return;
+                }
+                if(requested != Long.MAX_VALUE){
+                    demand.addAndGet(-emitted);
+                }
+            }
+            catch(Throwable e){
+                if(!done){
+                    close();
+                    subscriber.onError(e);
+                }
+            }
+        }
+
+        /**
+         * Marks the subscription as done and closes the stream, if it was opened. The subscriber has already been
+         * signalled or cancelled, so a failure to close is reported to the uncaught exception handler of the thread.
+         */
+        private void close(){
+            done = true;
+            if(stream != null){
+                try {
+                    stream.close();
+                }
+                catch(RuntimeException e){
+                    Thread thread = Thread.currentThread();
+                    thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dirkheijnen.mediator.implementation;
+
+import com.dirkheijnen.mediator.annotations.Timeout;
+import com.dirkheijnen.mediator.interfaces.IBatchRequestHandler;
+import com.dirkheijnen.mediator.interfaces.IRequest;
+import com.dirkheijnen.mediator.interfaces.IRequestHandler;
+
+import java.util.List;
+
+/**
+ *  The {@link TimeoutRequestHandler} sets the {@link Deadline} of a request type with a {@link Timeout} around the
+ *  wrapped {@link IRequestHandler}, unless the deadline of the request which sends it expires sooner.
+ *
+ *  @author Dirk Heijnen
+ *  @since 1.1
+ *
+ *  @param <C> The type of the request which must implement the {@link IRequest} interface.
+ *  @param <R> The type of the response which must match the type of the {@link IRequest}.
+ */
+public class TimeoutRequestHandler<C extends IRequest<R>, R> extends DelegatingRequestHandler<C, R> {
+
+    protected final Class<?> requestType;
+    protected final long timeoutNanos;
+
+    /**
+     * The constructor of the {@link TimeoutRequestHandler} class.
+     *
+     * @param delegate The {@link IRequestHandler} which is wrapped.
+     * @param requestType The {@link IRequest} type of the timeout.
+     * @param timeoutNanos The timeout of the request type, in nanoseconds.
+     */
+    public TimeoutRequestHandler(IRequestHandler<C, R> delegate, Class<?> requestType, long timeoutNanos){
+        super(delegate);
+        this.requestType = requestType;
+        this.timeoutNanos = timeoutNanos;
+    }
+
+    /**
+     * Creates the {@link TimeoutRequestHandler} of an {@link IRequestHandler}, which is an
+     * {@link IBatchRequestHandler} itself when the given handler is one.
+     *
+     * @param delegate The {@link IRequestHandler} which is wrapped.
+     * @param requestType The {@link IRequest} type of the timeout.
+     * @param timeoutNanos The timeout of the request type, in nanoseconds.
+     * @param <C> The type of the request which must implement the {@link IRequest} interface.
+     * @param <R> The type of the response which must match the type of the {@link IRequest}.
+     * @return The {@link TimeoutRequestHandler} of the given handler.
+     */
+    public static <C extends IRequest<R>, R> TimeoutRequestHandler<C, R> of(IRequestHandler<C, R> delegate, Class<?> requestType, long timeoutNanos){
+        if(delegate instanceof IBatchRequestHandler){
+            return new Batch<>((IBatchRequestHandler<C, R>) delegate, requestType, timeoutNanos);
+        }
+        return new TimeoutRequestHandler<>(delegate, requestType, timeoutNanos);
+    }
+
+    /**
+     * Invokes the wrapped {@link IRequestHandler} before the deadline of the request.
+     *
+     * @param request The {@link IRequest} containing the input data send with the request.
+     * @return The response of the request.
+     * @throws com.dirkheijnen.mediator.exceptions.RequestTimeoutException If the deadline passes before the request completes.
+     */
+    @Override
+    public R handle(C request) {
+        return Deadline.call(Deadline.current(), requestType, timeoutNanos, () -> delegate.handle(request));
+    }
+
+    /**
+     * The {@link TimeoutRequestHandler} of an {@link IBatchRequestHandler}, which sets one deadline for a whole batch.
+     *
+     * @param <C> The type of the request which must implement the {@link IRequest} interface.
+     * @param <R> The type of the response which must match the type of the {@link IRequest}.
+     */
+    private static class Batch<C extends IRequest<R>, R> extends TimeoutRequestHandler<C, R> implements IBatchRequestHandler<C, R> {
+
+        /**
+         * The constructor of the {@link Batch} class.
+         *
+         * @param delegate The {@link IBatchRequestHandler} which is wrapped.
+         * @param requestType The {@link IRequest} type of the timeout.
+         * @param timeoutNanos The timeout of the request type, in nanoseconds.
+         */
+        private Batch(IBatchRequestHandler<C, R> delegate, Class<?> requestType, long timeoutNanos){
+            super(delegate, requestType, timeoutNanos);
+        }
+
+        @Override
+        public List<R> handleAll(List<C> requests) {
+            return Deadline.call(Deadline.current(), requestType, timeoutNanos, () -> ((IBatchRequestHandler<C, R>) delegate).handleAll(requests));
+        }
+
+    }
+
+}
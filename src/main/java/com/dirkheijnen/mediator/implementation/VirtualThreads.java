@@ -0,0 +1,83 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dirkheijnen.mediator.implementation;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ *  Access to the virtual threads of JDK 21 and later, while the library itself is compiled for Java 8.
+ *  The factory method of the virtual thread executor is looked up once through a {@link MethodHandle} and invoked once
+ *  as a probe. Before JDK 19 the lookup fails, and on JDK 19 and 20 the method exists as a preview API which throws
+ *  unless preview features are enabled, so in both cases {@link #isSupported()} returns false.
+ *
+ *  @author Dirk Heijnen
+ *  @since 1.1
+ */
+public final class VirtualThreads {
+
+    private static final MethodHandle NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR = findVirtualThreadPerTaskExecutor();
+
+    private VirtualThreads(){
+    }
+
+    /**
+     * Checks whether the running JVM supports virtual threads.
+     *
+     * @return True if virtual threads are available, false otherwise.
+     */
+    public static boolean isSupported(){
+        return NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR != null;
+    }
+
+    /**
+     * Creates an {@link ExecutorService} which starts a new virtual thread for every task.
+     *
+     * @return The virtual thread {@link ExecutorService}, or null if the running JVM does not support virtual threads.
+     */
+    public static ExecutorService newVirtualThreadPerTaskExecutor(){
+        if(NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR == null){
+            return null;
+        }
+
+        try {
+            return (ExecutorService) NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR.invoke();
+        } catch (Throwable e) {
+            throw new IllegalStateException("Could not create a virtual thread executor", e);
+        }
+    }
+
+    /**
+     * Looks up the factory method of the virtual thread executor and creates and shuts down one executor with it, to
+     * verify that the method is not an unusable preview API.
+     *
+     * @return The {@link MethodHandle} of the factory method, or null if the running JVM does not support virtual threads.
+     */
+    private static MethodHandle findVirtualThreadPerTaskExecutor(){
+        try {
+            MethodHandle factory = MethodHandles.publicLookup().findStatic(Executors.class, "newVirtualThreadPerTaskExecutor", MethodType.methodType(ExecutorService.class));
+            ((ExecutorService) factory.invoke()).shutdown();
+            return factory;
+        } catch (Throwable e) {
+            return null;
+        }
+    }
+
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dirkheijnen.mediator.implementation;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ *  Determines how the threads of a {@link RingBufferNotificationPublisher} wait, the consumer for new notifications
+ *  and the producers for room in a full ring buffer. The strategies trade processor time for latency.
+ *
+ *  @author Dirk Heijnen
+ *  @since 1.1
+ */
+public enum WaitStrategy {
+
+    /**
+     * The thread spins without giving up its processor, for the lowest latency. Every waiting thread occupies a core.
+     */
+    BUSY_SPIN {
+        @Override
+        int idle(int counter) {
+            return counter + 1;
+        }
+    },
+
+    /**
+     * The thread spins for a while and then yields its processor to other threads between checks.
+     */
+    YIELD {
+        @Override
+        int idle(int counter) {
+            if(counter >= SPIN_TRIES){
+                Thread.yield();
+            }
+            return counter + 1;
+        }
+    },
+
+    /**
+     * The thread spins and yields for a while and then parks for a short time between checks. An idle consumer uses
+     * almost no processor time, at the cost of tens of microseconds of latency after it has been idle.
+     */
+    PARK {
+        @Override
+        int idle(int counter) {
+            if(counter >= SPIN_TRIES + YIELD_TRIES){
+                LockSupport.parkNanos(PARK_NANOS);
+            } else if(counter >= SPIN_TRIES){
+                Thread.yield();
+            }
+            return counter + 1;
+        }
+    };
+
+    private static final int SPIN_TRIES = 100;
+
+    private static final int YIELD_TRIES = 100;
+
+    private static final long PARK_NANOS = 1_000L;
+
+    /**
+     * Waits once, after a check which found nothing to do.
+     *
+     * @param counter The number of checks which found nothing to do since the last time there was something to do.
+     * @return The counter for the next check.
+     */
+    abstract int idle(int counter);
+
+}
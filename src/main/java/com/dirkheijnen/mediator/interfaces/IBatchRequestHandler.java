@@ -0,0 +1,54 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dirkheijnen.mediator.interfaces;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Defines the contract of the {@link IBatchRequestHandler}, an {@link IRequestHandler} which can handle multiple
+ * requests of the same type in one call, for example to fetch all of them with a single database round trip.
+ *
+ * @author Dirk Heijnen
+ * @since 1.1
+ *
+ * @param <C> The type of the request which must implement the {@link IRequest} interface.
+ * @param <R> The type of the response which must match the type of the {@link IRequest}.
+ */
+public interface IBatchRequestHandler<C extends IRequest<R>, R> extends IRequestHandler<C, R> {
+
+    /**
+     * This function encapsulates the logic which should be executed when multiple {@link IRequest} are send
+     * to the {@link IBatchRequestHandler} at once.
+     *
+     * @param requests The {@link IRequest} containing the input data send with the requests.
+     * @return The responses of the requests, in the same order as the requests.
+     */
+    List<R> handleAll(List<C> requests);
+
+    /**
+     * Handles a single {@link IRequest} as a batch of one.
+     *
+     * @param request The {@link IRequest} containing the input data send with the request.
+     * @return The response type which is set on the {@link IRequest}.
+     */
+    @Override
+    default R handle(C request) {
+        return handleAll(Collections.singletonList(request)).get(0);
+    }
+
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dirkheijnen.mediator.interfaces;
+
+/**
+ * Defines the contract of the {@link IHandlerMetrics}, which records the invocations of one
+ * {@link IRequestHandler} or {@link INotificationHandler} type.
+ *
+ * Both methods are called on the thread which invokes the handler, so implementations must be thread safe and should
+ * not block.
+ *
+ * @author Dirk Heijnen
+ * @since 1.1
+ */
+public interface IHandlerMetrics {
+
+    /**
+     * Called right before the handler is invoked.
+     */
+    void onStart();
+
+    /**
+     * Called right after the handler returned or threw an exception.
+     *
+     * @param durationNanos The time the handler took, in nanoseconds.
+     * @param failure The exception thrown by the handler, or null if the handler returned normally.
+     */
+    void onComplete(long durationNanos, Throwable failure);
+
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dirkheijnen.mediator.interfaces;
+
+/**
+ * Defines the contract of the {@link IHandlerMetricsProvider}, the extension point through which the mediator
+ * reports the invocations of its handlers to a metrics system.
+ *
+ * The mediator asks for the {@link IHandlerMetrics} of every handler once, when the handlers are registered.
+ * Registering a bean of this type enables the metrics, regardless of the {@code mediator.metrics.enabled} property.
+ *
+ * @author Dirk Heijnen
+ * @since 1.1
+ */
+public interface IHandlerMetricsProvider {
+
+    /**
+     * Retrieves the {@link IHandlerMetrics} which records the invocations of a handler type.
+     *
+     * @param handlerType The class of the registered {@link IRequestHandler} or {@link INotificationHandler}.
+     * @return The {@link IHandlerMetrics} of the handler type.
+     */
+    IHandlerMetrics getHandlerMetrics(Class<?> handlerType);
+
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dirkheijnen.mediator.interfaces;
+
+/**
+ * Defines the contract of the {@link IHandlerStatistics}, a live view on the recorded invocations of one
+ * {@link IRequestHandler} or {@link INotificationHandler} type.
+ *
+ * @author Dirk Heijnen
+ * @since 1.1
+ */
+public interface IHandlerStatistics {
+
+    /**
+     * Retrieves the number of completed invocations of the handler.
+     *
+     * @return The number of invocations which returned or threw an exception.
+     */
+    long getCallCount();
+
+    /**
+     * Retrieves the number of invocations of the handler which threw an exception.
+     *
+     * @return The number of failed invocations.
+     */
+    long getErrorCount();
+
+    /**
+     * Retrieves the number of invocations of the handler which are running right now.
+     *
+     * @return The number of running invocations.
+     */
+    long getInFlightCount();
+
+    /**
+     * Retrieves the latency below which the given percentage of the invocations completed.
+     * The value is rounded up to the bucket of the latency histogram, which is at most 1/16 wider than the value itself.
+     *
+     * @param percentile The percentile, between 0 and 100.
+     * @return The latency at the percentile in nanoseconds, or 0 if nothing is recorded.
+     */
+    long getLatencyAtPercentile(double percentile);
+
+    /**
+     * Retrieves the mean latency of the invocations.
+     *
+     * @return The mean latency in nanoseconds, or 0 if nothing is recorded.
+     */
+    double getMeanLatency();
+
+    /**
+     * Retrieves the highest latency of the invocations.
+     *
+     * @return The highest latency in nanoseconds, or 0 if nothing is recorded.
+     */
+    long getMaxLatency();
+
+}
@@ -16,6 +16,14 @@
 
 package com.dirkheijnen.mediator.interfaces;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
 /**
  * The interface which describes the contract of the {@link IMediator}
  *
@@ -34,6 +42,108 @@ public interface IMediator {
      */
     <C extends IRequest<R>, R> R send(C request);
 
+    /**
+     * Retrieves an {@link IRequestInvoker} which sends the requests of one {@link IRequest} type to their
+     * {@link IRequestHandler}. Callers on a hot path can keep the invoker instead of calling send for every request.
+     *
+     * @param requestType The type of the {@link IRequest}
+     * @param <C> The type of the {@link IRequest}
+     * @param <R> The response type of the {@link IRequest} and {@link IRequestHandler}
+     * @return The {@link IRequestInvoker} of the request type
+     */
+    default <C extends IRequest<R>, R> IRequestInvoker<C, R> getRequestInvoker(Class<C> requestType){
+        return this::send;
+    }
+
+    /**
+     * Sends a given {@link IRequest} to its {@link IRequestHandler} with a deadline, which also applies to the
+     * requests sent while it is handled. Implementations which do not support deadlines ignore the timeout.
+     *
+     * @param request The {@link IRequest} which should be send to its {@link IRequestHandler}.
+     * @param timeout The time which the request may take.
+     * @param unit The {@link TimeUnit} of the timeout.
+     * @param <C> The type of the request which must implement the {@link IRequest} interface.
+     * @param <R> The type of the response which must match the type of the {@link IRequest}.
+     * @return The return value of the {@link IRequestHandler} handle method.
+     */
+    default <C extends IRequest<R>, R> R send(C request, long timeout, TimeUnit unit){
+        return send(request);
+    }
+
+    /**
+     * Sends an {@link IStreamRequest} to its {@link IStreamRequestHandler}, which returns a lazily produced stream.
+     * The caller must close the stream when it is done with it.
+     *
+     * @param request The {@link IStreamRequest} which should be send to its {@link IStreamRequestHandler}
+     * @param <T> The type of the elements of the stream
+     * @return The stream of the {@link IStreamRequestHandler}
+     */
+    default <T> Stream<T> stream(IStreamRequest<T> request){
+        return send(request);
+    }
+
+    /**
+     * Sends an {@link IRequest} to its {@link IRequestHandler} without blocking the calling thread.
+     * The {@link IRequestHandler} runs on the executor selected by its
+     * {@link com.dirkheijnen.mediator.annotations.HandlerExecutor} annotation, or on the default executor of the mediator.
+     * Implementations without executors of their own send the request on the {@link java.util.concurrent.ForkJoinPool#commonPool()}.
+     *
+     * @param request The {@link IRequest} which should be send to its {@link IRequestHandler}
+     * @param <C> The type of the {@link IRequest}
+     * @param <R> The response type of the {@link IRequest} and {@link IRequestHandler}
+     * @return A {@link CompletableFuture} which completes with the response of the {@link IRequestHandler}
+     */
+    default <C extends IRequest<R>, R> CompletableFuture<R> sendAsync(C request){
+        return CompletableFuture.supplyAsync(() -> send(request));
+    }
+
+    /**
+     * Sends an {@link IRequest} to its {@link IRequestHandler} on the given {@link Executor}.
+     *
+     * @param request The {@link IRequest} which should be send to its {@link IRequestHandler}
+     * @param executor The {@link Executor} on which the {@link IRequestHandler} must be invoked
+     * @param <C> The type of the {@link IRequest}
+     * @param <R> The response type of the {@link IRequest} and {@link IRequestHandler}
+     * @return A {@link CompletableFuture} which completes with the response of the {@link IRequestHandler}
+     */
+    default <C extends IRequest<R>, R> CompletableFuture<R> sendAsync(C request, Executor executor){
+        return CompletableFuture.supplyAsync(() -> send(request), executor);
+    }
+
+    /**
+     * Sends multiple {@link IRequest} to their {@link IRequestHandler}.
+     * The requests are grouped by type and the {@link IRequestHandler} of each type is resolved once. The groups are
+     * dispatched one after another, and an {@link IBatchRequestHandler} receives its whole group in one call.
+     * Implementations without batch support send the requests one by one.
+     *
+     * @param requests The {@link IRequest} which should be send to their {@link IRequestHandler}
+     * @param <C> The type of the {@link IRequest}
+     * @param <R> The response type of the {@link IRequest} and {@link IRequestHandler}
+     * @return The responses of the requests, in the same order as the requests
+     */
+    default <C extends IRequest<R>, R> List<R> sendAll(Collection<? extends C> requests){
+        List<R> responses = new ArrayList<>(requests.size());
+        for (C request : requests){
+            responses.add(send(request));
+        }
+        return responses;
+    }
+
+    /**
+     * Sends multiple {@link IRequest} to their {@link IRequestHandler}, dispatching the groups of each request type
+     * in parallel on the given {@link Executor}. Implementations without parallel dispatch ignore the executor and
+     * send the requests one by one.
+     *
+     * @param requests The {@link IRequest} which should be send to their {@link IRequestHandler}
+     * @param executor The {@link Executor} on which the groups of requests are dispatched
+     * @param <C> The type of the {@link IRequest}
+     * @param <R> The response type of the {@link IRequest} and {@link IRequestHandler}
+     * @return The responses of the requests, in the same order as the requests
+     */
+    default <C extends IRequest<R>, R> List<R> sendAll(Collection<? extends C> requests, Executor executor){
+        return sendAll(requests);
+    }
+
     /**
      * Publishes an {@link INotification} to all of its {@link INotificationHandler}
      *
@@ -42,4 +152,33 @@ public interface IMediator {
      */
     <T extends INotification> void publish(T notification);
 
+    /**
+     * Publishes an {@link INotification} to all of its {@link INotificationHandler} without blocking the calling thread.
+     * Every {@link INotificationHandler} runs on the executor selected by its
+     * {@link com.dirkheijnen.mediator.annotations.HandlerExecutor} annotation, or on the default executor of the mediator.
+     * Implementations without executors of their own publish the notification on the
+     * {@link java.util.concurrent.ForkJoinPool#commonPool()}.
+     *
+     * @param notification The {@link INotification} which should be send to all of its {@link INotificationHandler}
+     * @param <T> The type of the {@link INotification}
+     * @return A {@link CompletableFuture} which completes when all the {@link INotificationHandler} are finished. When
+     *         the mediator publishes through a durable outbox, it completes as soon as the notification is stored, and
+     *         the handlers receive it later.
+     */
+    default <T extends INotification> CompletableFuture<Void> publishAsync(T notification){
+        return CompletableFuture.runAsync(() -> publish(notification));
+    }
+
+    /**
+     * Publishes an {@link INotification} to all of its {@link INotificationHandler} on the given {@link Executor}.
+     *
+     * @param notification The {@link INotification} which should be send to all of its {@link INotificationHandler}
+     * @param executor The {@link Executor} on which the {@link INotificationHandler} must be invoked
+     * @param <T> The type of the {@link INotification}
+     * @return A {@link CompletableFuture} which completes when all the {@link INotificationHandler} are finished
+     */
+    default <T extends INotification> CompletableFuture<Void> publishAsync(T notification, Executor executor){
+        return CompletableFuture.runAsync(() -> publish(notification), executor);
+    }
+
 }
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dirkheijnen.mediator.interfaces;
+
+import java.util.List;
+
+/**
+ *  Defines the contract of the {@link INotificationPublisher}, the strategy which invokes the {@link INotificationHandler}
+ *  of a published {@link INotification}.
+ *
+ *  @author Dirk Heijnen
+ *  @since 1.1
+ */
+public interface INotificationPublisher {
+
+    /**
+     * Invokes the given {@link INotificationHandler} for an {@link INotification}.
+     *
+     * @param notification The {@link INotification} which should be send to the {@link INotificationHandler}.
+     * @param notificationHandlers The {@link INotificationHandler} which must handle the {@link INotification}.
+     * @param <T> The type of the {@link INotification}.
+     */
+    <T extends INotification> void publish(T notification, List<INotificationHandler<T>> notificationHandlers);
+
+}
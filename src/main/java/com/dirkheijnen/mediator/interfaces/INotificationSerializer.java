@@ -0,0 +1,49 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dirkheijnen.mediator.interfaces;
+
+/**
+ * Defines the contract of the {@link INotificationSerializer}, which converts notifications to bytes and back for the
+ * journal of the durable notification outbox.
+ *
+ * The journal stores the class of every notification next to its bytes, so a serializer does not need to write
+ * type information of its own.
+ *
+ * @author Dirk Heijnen
+ * @since 1.1
+ */
+public interface INotificationSerializer {
+
+    /**
+     * Converts a notification to bytes.
+     *
+     * @param notification The {@link INotification} which is written to the journal.
+     * @return The bytes of the notification.
+     */
+    byte[] serialize(INotification notification);
+
+    /**
+     * Converts bytes which were written by serialize back to a notification.
+     *
+     * @param type The class of the {@link INotification} which was serialized.
+     * @param data The bytes of the notification.
+     * @param <T> The type of the {@link INotification}.
+     * @return The notification.
+     */
+    <T extends INotification> T deserialize(Class<T> type, byte[] data);
+
+}
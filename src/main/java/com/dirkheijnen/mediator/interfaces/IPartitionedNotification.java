@@ -0,0 +1,39 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dirkheijnen.mediator.interfaces;
+
+/**
+ * Defines the contract of the {@link IPartitionedNotification}, a notification which must be handled in order with
+ * the other notifications of the same partition key, such as the identifier of an aggregate.
+ *
+ * When partitioned publishing is enabled, the mediator hashes the partition key onto one of a fixed number of lanes.
+ * Every lane handles its notifications one after another on a single thread, while the lanes run in parallel. Two
+ * notifications with equal keys are therefore handled in the order in which they were published.
+ *
+ * @author Dirk Heijnen
+ * @since 1.1
+ */
+public interface IPartitionedNotification extends INotification {
+
+    /**
+     * Retrieves the key which determines the order in which the notification is handled.
+     *
+     * @return The partition key, whose equals and hashCode must be consistent, or null for the first lane.
+     */
+    Object getPartitionKey();
+
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dirkheijnen.mediator.interfaces;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Defines the contract of the {@link IPipelineBehavior}, a step which runs around the {@link IRequestHandler} of
+ * every {@link IRequest} it applies to, for example for logging, validation or transactions.
+ *
+ * A behavior applies to the request types which are assignable to its type argument {@code C}, and to every request
+ * type if the type argument is left generic. Behaviors are ordered by {@link org.springframework.core.annotation.Order},
+ * the behavior with the highest precedence runs first.
+ *
+ * @author Dirk Heijnen
+ * @since 1.1
+ *
+ * @param <C> The type of the request which must implement the {@link IRequest} interface.
+ * @param <R> The type of the response which must match the type of the {@link IRequest}.
+ */
+public interface IPipelineBehavior<C extends IRequest<R>, R> {
+
+    /**
+     * This function encapsulates the logic which should be executed around the handling of an {@link IRequest}.
+     * It must call the handle method of the next handler to continue the pipeline, or return a response of its own
+     * to end it.
+     *
+     * @param request The {@link IRequest} containing the input data send with the request.
+     * @param next The next behavior in the pipeline, or the {@link IRequestHandler} itself.
+     * @return The response type which is set on the {@link IRequest}.
+     */
+    R handle(C request, IRequestHandler<C, R> next);
+
+    /**
+     * This function encapsulates the logic which should be executed around a batch of {@link IRequest} which is sent
+     * with sendAll to an {@link IBatchRequestHandler}. By default every request of the batch passes through the handle
+     * method of this behavior on its own, so the behavior sees every request, but the {@link IBatchRequestHandler}
+     * receives them one at a time. A behavior which can handle a batch as a whole overrides this method to keep the
+     * batch together.
+     *
+     * @param requests The {@link IRequest} containing the input data send with the requests.
+     * @param next The next behavior in the pipeline, or the {@link IBatchRequestHandler} itself.
+     * @return The responses of the requests, in the same order as the requests.
+     */
+    default List<R> handleAll(List<C> requests, IBatchRequestHandler<C, R> next){
+        List<R> responses = new ArrayList<>(requests.size());
+        for (C request : requests){
+            responses.add(handle(request, next));
+        }
+        return responses;
+    }
+
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dirkheijnen.mediator.interfaces;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Defines the contract of the {@link IReactiveNotificationHandler}, a notification handler which does not block.
+ *
+ * The reactive mediator merges the publishers of these handlers. The {@link IMediator} itself calls the handle method,
+ * which subscribes to the publisher and waits until it completes.
+ *
+ * @author Dirk Heijnen
+ * @since 1.1
+ *
+ * @param <T> The type of the notification which must implement the {@link INotification} interface.
+ */
+public interface IReactiveNotificationHandler<T extends INotification> extends INotificationHandler<T> {
+
+    /**
+     * This function returns a {@link Publisher} which handles the given {@link INotification} once it is subscribed
+     * to, and completes when the {@link INotification} is handled.
+     *
+     * @param notification The {@link INotification} containing the input data send with the notification.
+     * @return The {@link Publisher} which handles the notification.
+     */
+    Publisher<Void> handleReactive(T notification);
+
+    /**
+     * Handles the given {@link INotification} by subscribing to the publisher of {@link #handleReactive} and waiting
+     * until it completes.
+     *
+     * @param notification The {@link INotification} containing the input data send with the notification.
+     * @throws IllegalStateException If the thread is interrupted while waiting, or the publisher fails with a checked exception.
+     */
+    @Override
+    default void handle(T notification){
+        CountDownLatch completed = new CountDownLatch(1);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        handleReactive(notification).subscribe(new Subscriber<Void>() {
+            @Override
+            public void onSubscribe(Subscription subscription){
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(Void value){
+            }
+
+            @Override
+            public void onError(Throwable e){
+                failure.set(e);
+                completed.countDown();
+            }
+
+            @Override
+            public void onComplete(){
+                completed.countDown();
+            }
+        });
+
+        try {
+            completed.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the notification to be handled", e);
+        }
+
+        Throwable e = failure.get();
+        if(e instanceof RuntimeException){
+            throw (RuntimeException) e;
+        }
+        if(e instanceof Error){
+            throw (Error) e;
+        }
+        if(e != null){
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dirkheijnen.mediator.interfaces;
+
+import org.reactivestreams.Publisher;
+
+/**
+ * The interface which describes the contract of the {@link IReactiveRequest}, a request which is handled without
+ * blocking by an {@link IReactiveRequestHandler}.
+ *
+ * A reactive request is an {@link IRequest} whose response is a Reactive Streams {@link Publisher}, so the
+ * {@link IPipelineBehavior} which apply to it run around the creation of the publisher. Nothing is handled until the
+ * publisher is subscribed to.
+ *
+ * @author Dirk Heijnen
+ * @since 1.1
+ *
+ * @param <R> The type of the response which the publisher emits.
+ */
+public interface IReactiveRequest<R> extends IRequest<Publisher<R>> {
+}
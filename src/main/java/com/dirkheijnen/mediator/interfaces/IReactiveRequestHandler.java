@@ -0,0 +1,34 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dirkheijnen.mediator.interfaces;
+
+import org.reactivestreams.Publisher;
+
+/**
+ * Defines the contract of the {@link IReactiveRequestHandler}, the handler of an {@link IReactiveRequest}.
+ *
+ * The handle method must not block: it returns a {@link Publisher} which emits at most one response once it is
+ * subscribed to, and which performs its work on the thread that completes it.
+ *
+ * @author Dirk Heijnen
+ * @since 1.1
+ *
+ * @param <C> The type of the request which must implement the {@link IReactiveRequest} interface.
+ * @param <R> The type of the response which the publisher emits.
+ */
+public interface IReactiveRequestHandler<C extends IReactiveRequest<R>, R> extends IRequestHandler<C, Publisher<R>> {
+}
@@ -34,4 +34,14 @@ public interface IRequestHandlerProvider {
      */
     <C extends IRequest<R>, R> IRequestHandler<C, R> getRequestHandler(Class<? extends C> request);
 
+    /**
+     * Gets the name of the bean of the {@link IRequestHandler} for a given {@link IRequest}.
+     *
+     * @param request The {@link IRequest} class for which the bean name of the {@link IRequestHandler} must be found.
+     * @return The bean name of the {@link IRequestHandler}, or null if it is unknown.
+     */
+    default String getRequestHandlerBeanName(Class<?> request){
+        return null;
+    }
+
 }
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dirkheijnen.mediator.interfaces;
+
+/**
+ * Defines the contract of the {@link IRequestInvoker}, which sends the requests of a single {@link IRequest} type
+ * to their {@link IRequestHandler}.
+ *
+ * The send method of the mediator dispatches every request type through the same call site, so the JIT compiler
+ * cannot inline the handlers behind it. An invoker is bound to one handler type instead, so a caller which keeps the
+ * invoker of its request type in a field lets the JIT inline the handler into its own code.
+ *
+ * @author Dirk Heijnen
+ * @since 1.1
+ *
+ * @param <C> The type of the request which must implement the {@link IRequest} interface.
+ * @param <R> The type of the response which must match the type of the {@link IRequest}.
+ */
+@FunctionalInterface
+public interface IRequestInvoker<C extends IRequest<R>, R> {
+
+    /**
+     * Sends an {@link IRequest} to its {@link IRequestHandler}.
+     *
+     * @param request The {@link IRequest} containing the input data send with the request.
+     * @return The response type which is set on the {@link IRequest}.
+     */
+    R invoke(C request);
+
+}
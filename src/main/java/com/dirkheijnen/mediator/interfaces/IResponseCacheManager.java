@@ -0,0 +1,55 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dirkheijnen.mediator.interfaces;
+
+/**
+ * Defines the contract of the {@link IResponseCacheManager}, which gives access to the response caches of the
+ * request types annotated with {@link com.dirkheijnen.mediator.annotations.CacheResponse}.
+ *
+ * @author Dirk Heijnen
+ * @since 1.1
+ */
+public interface IResponseCacheManager {
+
+    /**
+     * Removes the cached response of a single request.
+     *
+     * @param request The {@link IRequest} whose response must be removed from the cache.
+     */
+    void invalidate(IRequest<?> request);
+
+    /**
+     * Removes all the cached responses of a request type.
+     *
+     * @param requestType The {@link IRequest} type whose responses must be removed from the cache.
+     */
+    void invalidateAll(Class<? extends IRequest<?>> requestType);
+
+    /**
+     * Removes all the cached responses of all request types.
+     */
+    void invalidateAll();
+
+    /**
+     * Gets the statistics of the response cache of a request type.
+     *
+     * @param requestType The {@link IRequest} type for which the statistics must be found.
+     * @return The {@link IResponseCacheStatistics} of the request type, or null if its responses are not cached.
+     */
+    IResponseCacheStatistics getStatistics(Class<? extends IRequest<?>> requestType);
+
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dirkheijnen.mediator.interfaces;
+
+/**
+ * Defines the contract of the {@link IResponseCacheStatistics}, the counters of the response cache of one request type.
+ * The counters are updated live and are never reset.
+ *
+ * @author Dirk Heijnen
+ * @since 1.1
+ */
+public interface IResponseCacheStatistics {
+
+    /**
+     * Gets the amount of requests which were answered from the cache.
+     *
+     * @return The amount of cache hits.
+     */
+    long getHitCount();
+
+    /**
+     * Gets the amount of requests which were not found in the cache and were send to the {@link IRequestHandler}.
+     *
+     * @return The amount of cache misses.
+     */
+    long getMissCount();
+
+    /**
+     * Gets the amount of entries which were removed because the cache was full or because they expired.
+     *
+     * @return The amount of evicted entries.
+     */
+    long getEvictionCount();
+
+    /**
+     * Gets the current amount of entries in the cache.
+     *
+     * @return The amount of entries.
+     */
+    long getSize();
+
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dirkheijnen.mediator.interfaces;
+
+/**
+ * Defines the contract of the {@link IResponseWeigher}, which calculates the weight of a cached response.
+ * The weight is counted against the maximum weight of the response cache of the request type.
+ *
+ * @author Dirk Heijnen
+ * @since 1.1
+ *
+ * @param <C> The type of the request which must implement the {@link IRequest} interface.
+ * @param <R> The type of the response which must match the type of the {@link IRequest}.
+ */
+public interface IResponseWeigher<C extends IRequest<R>, R> {
+
+    /**
+     * Calculates the weight of a cache entry.
+     *
+     * @param request The {@link IRequest} which is the key of the entry.
+     * @param response The response which is the value of the entry.
+     * @return The weight of the entry, must not be negative.
+     */
+    long weigh(C request, R response);
+
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dirkheijnen.mediator.interfaces;
+
+import java.util.stream.Stream;
+
+/**
+ * The interface which describes the contract of the {@link IStreamRequest}, a request whose results are produced
+ * lazily while they are consumed, instead of being collected in memory first.
+ *
+ * A stream request is an {@link IRequest} whose response is a {@link Stream}, so the {@link IPipelineBehavior} which
+ * apply to it run around the creation of the stream. The caller must close the stream, for example with a
+ * try-with-resources statement, so the handler can release the resources behind it.
+ *
+ * @author Dirk Heijnen
+ * @since 1.1
+ *
+ * @param <T> The type of the elements of the stream.
+ */
+public interface IStreamRequest<T> extends IRequest<Stream<T>> {
+}
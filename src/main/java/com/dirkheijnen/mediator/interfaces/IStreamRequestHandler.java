@@ -0,0 +1,35 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dirkheijnen.mediator.interfaces;
+
+import java.util.stream.Stream;
+
+/**
+ * Defines the contract of the {@link IStreamRequestHandler}, the handler of an {@link IStreamRequest}.
+ *
+ * The handle method must return a lazy stream, which only reads its source as its elements are consumed, for example
+ * from a database cursor. Resources which the stream holds must be released by a handler registered with
+ * {@link Stream#onClose(Runnable)}.
+ *
+ * @author Dirk Heijnen
+ * @since 1.1
+ *
+ * @param <C> The type of the request which must implement the {@link IStreamRequest} interface.
+ * @param <T> The type of the elements of the stream.
+ */
+public interface IStreamRequestHandler<C extends IStreamRequest<T>, T> extends IRequestHandler<C, Stream<T>> {
+}
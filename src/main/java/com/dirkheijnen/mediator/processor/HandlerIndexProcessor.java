@@ -0,0 +1,189 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dirkheijnen.mediator.processor;
+
+import com.dirkheijnen.mediator.implementation.HandlerIndex;
+import com.dirkheijnen.mediator.interfaces.INotificationHandler;
+import com.dirkheijnen.mediator.interfaces.IRequestHandler;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ *  An annotation processor which writes the {@link HandlerIndex} of the handlers in a compilation unit to
+ *  {@value HandlerIndex#INDEX_LOCATION}. It is registered as a service, so it runs automatically when the mediator
+ *  is on the compile classpath.
+ *
+ *  Every concrete {@link IRequestHandler} and {@link INotificationHandler} class whose type arguments are resolved
+ *  at compile time is indexed. Other handlers are left out and are resolved through reflection at startup.
+ *
+ *  @author Dirk Heijnen
+ *  @since 1.1
+ */
+public class HandlerIndexProcessor extends AbstractProcessor {
+
+    private final Set<String> entries = new TreeSet<>();
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Collections.singleton("*");
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnvironment) {
+        if(roundEnvironment.processingOver()){
+            if(!entries.isEmpty()){
+                writeIndex();
+            }
+            return false;
+        }
+
+        for(Element rootElement : roundEnvironment.getRootElements()){
+            collect(rootElement);
+        }
+        return false;
+    }
+
+    /**
+     * Adds the index entries of a type and of its nested types.
+     *
+     * @param element The element of the type.
+     */
+    private void collect(Element element){
+        if(!(element instanceof TypeElement)){
+            return;
+        }
+
+        TypeElement typeElement = (TypeElement) element;
+        if(typeElement.getKind() == ElementKind.CLASS && !typeElement.getModifiers().contains(Modifier.ABSTRACT)){
+            addEntry(typeElement, IRequestHandler.class, HandlerIndex.REQUEST_HANDLER);
+            addEntry(typeElement, INotificationHandler.class, HandlerIndex.NOTIFICATION_HANDLER);
+        }
+
+        for(Element enclosedElement : typeElement.getEnclosedElements()){
+            collect(enclosedElement);
+        }
+    }
+
+    /**
+     * Adds the index entry of a handler class, if it implements the given handler interface with resolved type arguments.
+     *
+     * @param handlerElement The element of the handler class.
+     * @param handlerInterface The handler interface.
+     * @param kind The kind of the index entry.
+     */
+    private void addEntry(TypeElement handlerElement, Class<?> handlerInterface, String kind){
+        DeclaredType handlerType = findSupertype(handlerElement.asType(), handlerInterface.getName());
+        if(handlerType == null){
+            return;
+        }
+
+        StringBuilder entry = new StringBuilder(kind).append(' ').append(getBinaryName(handlerElement.asType()));
+        for(TypeMirror typeArgument : handlerType.getTypeArguments()){
+            String binaryName = getBinaryName(typeArgument);
+            if(binaryName == null){
+                return;
+            }
+            entry.append(' ').append(binaryName);
+        }
+        entries.add(entry.toString());
+    }
+
+    /**
+     * Searches the supertypes of a type for the parameterization of the given interface.
+     *
+     * @param type The type whose supertypes are searched.
+     * @param interfaceName The qualified name of the interface.
+     * @return The parameterized interface, or null if the type does not implement it.
+     */
+    private DeclaredType findSupertype(TypeMirror type, String interfaceName){
+        List<? extends TypeMirror> supertypes = processingEnv.getTypeUtils().directSupertypes(type);
+        for(TypeMirror supertype : supertypes){
+            if(supertype.getKind() != TypeKind.DECLARED){
+                continue;
+            }
+
+            TypeElement supertypeElement = (TypeElement) ((DeclaredType) supertype).asElement();
+            if(supertypeElement.getQualifiedName().contentEquals(interfaceName)){
+                return (DeclaredType) supertype;
+            }
+
+            DeclaredType found = findSupertype(supertype, interfaceName);
+            if(found != null){
+                return found;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Retrieves the binary name of the erasure of a type, as used by {@link Class#forName(String)}.
+     *
+     * @param type The type.
+     * @return The binary name of the type, or null if the type is not a class or interface.
+     */
+    private String getBinaryName(TypeMirror type){
+        TypeMirror erasure = processingEnv.getTypeUtils().erasure(type);
+        if(erasure.getKind() != TypeKind.DECLARED || type.getKind() == TypeKind.TYPEVAR){
+            return null;
+        }
+        TypeElement typeElement = (TypeElement) ((DeclaredType) erasure).asElement();
+        return processingEnv.getElementUtils().getBinaryName(typeElement).toString();
+    }
+
+    /**
+     * Writes the collected entries to the index resource.
+     */
+    private void writeIndex(){
+        try {
+            FileObject index = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", HandlerIndex.INDEX_LOCATION);
+            try (Writer writer = new OutputStreamWriter(index.openOutputStream(), StandardCharsets.UTF_8)){
+                for(String entry : entries){
+                    writer.write(entry);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e){
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Unable to write the handler index: " + e.getMessage());
+        }
+    }
+
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dirkheijnen.mediator.implementation;
+
+import com.dirkheijnen.mediator.interfaces.IBatchRequestHandler;
+import com.dirkheijnen.mediator.interfaces.IPipelineBehavior;
+import com.dirkheijnen.mediator.interfaces.IRequest;
+import com.dirkheijnen.mediator.interfaces.IRequestHandler;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ *  Tests how batches of requests pass through the {@link IPipelineBehavior} of a {@link PipelineRequestHandler}.
+ *
+ *  @author Dirk Heijnen
+ *  @since 1.1
+ */
+class PipelineRequestHandlerTest {
+
+    @Test
+    void sendAllAppliesBehaviorWhichOnlyImplementsHandle(){
+        Mediator mediator = new MediatorBuilder()
+                .requestHandler(new BatchHandler())
+                .pipelineBehavior(new ValidationBehavior())
+                .build();
+
+        assertThrows(IllegalArgumentException.class, () -> mediator.send(new Query(-1)));
+        assertThrows(IllegalArgumentException.class, () -> mediator.sendAll(Arrays.asList(new Query(1), new Query(-1))));
+        assertEquals(Arrays.asList("b1", "b2"), mediator.sendAll(Arrays.asList(new Query(1), new Query(2))));
+    }
+
+    @Test
+    void sendAllKeepsBatchTogetherWhenBehaviorHandlesBatches(){
+        BatchHandler batchHandler = new BatchHandler();
+        Mediator mediator = new MediatorBuilder()
+                .requestHandler(batchHandler)
+                .pipelineBehavior(new BatchValidationBehavior())
+                .build();
+
+        assertEquals(Arrays.asList("b1", "b2", "b3"), mediator.sendAll(Arrays.asList(new Query(1), new Query(2), new Query(3))));
+        assertEquals(Arrays.asList(3), batchHandler.batchSizes);
+    }
+
+    /**
+     * A request with a value which must not be negative.
+     */
+    static class Query implements IRequest<String> {
+
+        private final int value;
+
+        Query(int value){
+            this.value = value;
+        }
+
+    }
+
+    /**
+     * A batch handler which records the size of every batch it receives.
+     */
+    static class BatchHandler implements IBatchRequestHandler<Query, String> {
+
+        private final List<Integer> batchSizes = new ArrayList<>();
+
+        @Override
+        public List<String> handleAll(List<Query> requests) {
+            batchSizes.add(requests.size());
+            List<String> responses = new ArrayList<>(requests.size());
+            for (Query request : requests){
+                responses.add("b" + request.value);
+            }
+            return responses;
+        }
+
+    }
+
+    /**
+     * A validation behavior which only implements the handle method.
+     */
+    static class ValidationBehavior implements IPipelineBehavior<Query, String> {
+
+        @Override
+        public String handle(Query request, IRequestHandler<Query, String> next) {
+            if(request.value < 0){
+                throw new IllegalArgumentException("The value must not be negative");
+            }
+            return next.handle(request);
+        }
+
+    }
+
+    /**
+     * A validation behavior which validates a batch as a whole.
+     */
+    static class BatchValidationBehavior extends ValidationBehavior {
+
+        @Override
+        public List<String> handleAll(List<Query> requests, IBatchRequestHandler<Query, String> next) {
+            for (Query request : requests){
+                if(request.value < 0){
+                    throw new IllegalArgumentException("The value must not be negative");
+                }
+            }
+            return next.handleAll(requests);
+        }
+
+    }
+
+}